@@ -0,0 +1,104 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.common.Money;
+import com.ecommerce.dto.DtoCart;
+import com.ecommerce.dto.DtoCartItem;
+import com.ecommerce.dto.DtoProductSummary;
+import com.ecommerce.mappers.CartMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cart and order totals summed in cents with {@link Money} against the BigDecimal arithmetic they
+ * replaced. The BigDecimal variants are copies of the code before the change (a stream over the cart
+ * items, an add/multiply loop over the order lines), kept here as the baseline.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="TotalsBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TotalsBenchmark {
+
+    @Param({"3", "20", "100"})
+    private int lines;
+
+    private List<DtoCartItem> cartItems;
+    private BigDecimal[] prices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42); // Same lines for every run
+        cartItems = new ArrayList<>(lines);
+        prices = new BigDecimal[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            prices[i] = BigDecimal.valueOf(random.nextInt(100_000) + 1, Money.SCALE); // 0.01 to 1000.00
+            quantities[i] = random.nextInt(5) + 1;
+            DtoProductSummary product = new DtoProductSummary();
+            product.setProductId((long) i);
+            product.setPrice(prices[i]);
+            cartItems.add(new DtoCartItem((long) i, quantities[i], product));
+        }
+    }
+
+    // --- Cart total (CartMapper.toDtoCart) ---
+
+    @Benchmark
+    public DtoCart cartTotalMoney() {
+        return CartMapper.toDtoCart(1L, cartItems);
+    }
+
+    @Benchmark
+    public DtoCart cartTotalBigDecimal() {
+        DtoCart dto = new DtoCart();
+        dto.setCartId(1L);
+        dto.setItems(cartItems);
+        BigDecimal total = cartItems.stream()
+                .filter(item -> item.getProduct() != null && item.getProduct().getPrice() != null)
+                .map(item -> item.getProduct().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        dto.setCalculatedTotal(total);
+        return dto;
+    }
+
+    // --- Order total (OrderServiceImpl.createOrder) ---
+
+    @Benchmark
+    public BigDecimal orderTotalMoney() {
+        Money totalAmount = Money.ZERO;
+        for (int i = 0; i < lines; i++) {
+            totalAmount = totalAmount.plus(Money.of(prices[i]).times(quantities[i]));
+        }
+        return totalAmount.toBigDecimal();
+    }
+
+    @Benchmark
+    public BigDecimal orderTotalBigDecimal() {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            totalAmount = totalAmount.add(prices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return totalAmount;
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.common;
+
+import java.math.BigDecimal;
+
+/**
+ * An amount of money in minor units (cents), used for totals computed in memory. Prices and totals are
+ * stored and exposed as BigDecimal with two decimals; {@link #of(BigDecimal)} and {@link #toBigDecimal()}
+ * convert exactly at that boundary, while sums and line totals in between are plain {@code long}
+ * arithmetic. Overflow throws instead of wrapping.
+ */
+public record Money(long minorUnits) {
+
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    /**
+     * @throws ArithmeticException if the amount has more than two decimals or does not fit in a long.
+     */
+    public static Money of(BigDecimal amount) {
+        return new Money(amount.movePointRight(SCALE).longValueExact());
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(int quantity) {
+        return new Money(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+}
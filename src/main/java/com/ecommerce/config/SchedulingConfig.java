@@ -0,0 +1,71 @@
+package com.ecommerce.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Schedulers for the @Scheduled jobs.
+ * Short periodic jobs (flushes, cleanups) share the default "taskScheduler", sized by
+ * spring.task.scheduling.pool.size. Jobs that can run for seconds or minutes get a thread of their
+ * own through @Scheduled(scheduler = ...), so they never hold up the short ones.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    public static final String SUGGEST_INDEX_SCHEDULER = "suggestIndexScheduler";
+    public static final String OUTBOX_SCHEDULER = "outboxScheduler";
+    public static final String ORDER_ARCHIVE_SCHEDULER = "orderArchiveScheduler";
+    public static final String CART_SWEEPER_SCHEDULER = "cartSweeperScheduler";
+
+    /**
+     * The default scheduler. Declared explicitly because any other TaskScheduler bean makes Spring Boot
+     * drop its own; built from Boot's builder so the spring.task.scheduling.* properties still apply.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Rebuilds of the typeahead index (a full read of the product table).
+     */
+    @Bean(SUGGEST_INDEX_SCHEDULER)
+    public ThreadPoolTaskScheduler suggestIndexScheduler() {
+        return singleThreadScheduler("suggest-index-");
+    }
+
+    /**
+     * Outbox dispatching, whose handlers call payment and notification providers.
+     */
+    @Bean(OUTBOX_SCHEDULER)
+    public ThreadPoolTaskScheduler outboxScheduler() {
+        return singleThreadScheduler("outbox-");
+    }
+
+    /**
+     * Order archival, which pauses between batches and can run for a long time.
+     */
+    @Bean(ORDER_ARCHIVE_SCHEDULER)
+    public ThreadPoolTaskScheduler orderArchiveScheduler() {
+        return singleThreadScheduler("order-archive-");
+    }
+
+    /**
+     * The abandoned cart sweeper, which also pauses between chunks.
+     */
+    @Bean(CART_SWEEPER_SCHEDULER)
+    public ThreadPoolTaskScheduler cartSweeperScheduler() {
+        return singleThreadScheduler("cart-sweeper-");
+    }
+
+    // --- Helper Methods ---
+
+    private static ThreadPoolTaskScheduler singleThreadScheduler(String threadNamePrefix) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        return scheduler;
+    }
+}
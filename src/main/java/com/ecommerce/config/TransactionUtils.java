@@ -0,0 +1,132 @@
+package com.ecommerce.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Utility class for hooking work onto the current Spring-managed transaction.
+ */
+public final class TransactionUtils {
+
+    // Private constructor to prevent instantiation
+    private TransactionUtils() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Runs the action after the current transaction commits, or immediately if no transaction
+     * synchronization is active. Used to publish changes to in-memory structures (indexes, caches)
+     * only once the database state they mirror is durable; on rollback the action is dropped.
+     *
+     * @param action The work to run after commit.
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Runs one of two actions once the current transaction completes: {@code onCommit} after a commit,
+     * {@code onRollback} after a rollback (or an unknown outcome). Without an active transaction
+     * synchronization, {@code onCommit} runs immediately. Used to settle in-memory reservations that
+     * were taken on behalf of the transaction.
+     *
+     * @param onCommit   The work to run after commit.
+     * @param onRollback The work to run after rollback.
+     */
+    public static void afterCompletion(Runnable onCommit, Runnable onRollback) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        onCommit.run();
+                    } else {
+                        onRollback.run();
+                    }
+                }
+            });
+        } else {
+            onCommit.run();
+        }
+    }
+
+    /**
+     * Like {@link #afterCompletion(Runnable, Runnable)}, with a {@code beforeCommit} check that runs
+     * just before the transaction commits. If the check throws, the transaction rolls back instead
+     * (and {@code onRollback} runs). Without an active transaction synchronization, {@code beforeCommit}
+     * and then {@code onCommit} run immediately.
+     *
+     * @param beforeCommit The check to run before commit.
+     * @param onCommit     The work to run after commit.
+     * @param onRollback   The work to run after rollback.
+     */
+    public static void afterCompletion(Runnable beforeCommit, Runnable onCommit, Runnable onRollback) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    beforeCommit.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        onCommit.run();
+                    } else {
+                        onRollback.run();
+                    }
+                }
+            });
+        } else {
+            beforeCommit.run();
+            onCommit.run();
+        }
+    }
+
+    /**
+     * Returns a buffer bound to the current transaction under {@code key}, creating it on first use.
+     * {@code flush} receives the buffer just before the transaction commits, so its writes still join
+     * the transaction but take their row locks only at the very end of it. Used to coalesce counter
+     * updates on shared rows. Returns null if no transaction synchronization is active.
+     *
+     * @param key     Identifies the buffer; one per owning component.
+     * @param factory Creates the buffer.
+     * @param flush   Writes the buffer before commit.
+     */
+    public static <T> T bufferUntilCommit(Object key, Supplier<T> factory, Consumer<T> flush) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        T buffer = (T) TransactionSynchronizationManager.getResource(key);
+        if (buffer == null) {
+            T created = factory.get();
+            TransactionSynchronizationManager.bindResource(key, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    flush.accept(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(key);
+                }
+            });
+            buffer = created;
+        }
+        return buffer;
+    }
+}
@@ -80,6 +80,9 @@ public class SecurityConfig {
                 
                 .requestMatchers(HttpMethod.GET, "/product-images/**").permitAll()
 
+                // Misafir sepeti: giriş yapmamış ziyaretçiler, token ile erişir
+                .requestMatchers("/api/v1/guest/cart", "/api/v1/guest/cart/**").permitAll()
+
                 // Yorum EKLEME (POST) sadece MÜŞTERİ rolüyle yapılabilsin
                 .requestMatchers(HttpMethod.POST, "/api/v1/products/{productId:[0-9]+}/reviews").hasRole("CUSTOMER")
                 // Yorum GÜNCELLEME (PUT) kimliği doğrulanmış kullanıcılar (sahibi mi kontrolü @PreAuthorize ile controller'da)
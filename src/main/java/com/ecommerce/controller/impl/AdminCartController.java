@@ -0,0 +1,35 @@
+package com.ecommerce.controller.impl;
+
+import com.ecommerce.dto.DtoCartSweeperStats;
+import com.ecommerce.services.cart.AbandonedCartSweeper;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller for administrative cart operations.
+ * Requires ADMIN role for access.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/carts")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminCartController {
+
+    private final AbandonedCartSweeper abandonedCartSweeper;
+
+    /**
+     * GET /api/v1/admin/carts/sweeper/stats : Rows reclaimed and time spent by the abandoned cart sweeper.
+     * Requires ADMIN role.
+     *
+     * @return ResponseEntity containing DtoCartSweeperStats.
+     */
+    @GetMapping("/sweeper/stats")
+    public ResponseEntity<DtoCartSweeperStats> getSweeperStats() {
+        return ResponseEntity.ok(abandonedCartSweeper.getStats());
+    }
+}
@@ -1,7 +1,9 @@
 package com.ecommerce.controller.impl;
 
 import com.ecommerce.dto.DtoCategory;
+import com.ecommerce.dto.DtoHotSkuStatus;
 import com.ecommerce.dto.DtoProduct;
+import com.ecommerce.dto.DtoProductDetailCacheStats;
 import com.ecommerce.dto.DtoProductImage;
 import com.ecommerce.entities.product.Product;
 import com.ecommerce.entities.product.ProductImage;
@@ -10,6 +12,8 @@ import com.ecommerce.repository.ProductImageRepository;
 import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.services.IFileStorageService;
 import com.ecommerce.services.ProductService;
+import com.ecommerce.services.cache.ProductDetailCache;
+import com.ecommerce.services.inventory.HotSkuLedger;
 
 import java.io.IOException;
 import jakarta.validation.Valid; // For input validation
@@ -27,6 +31,7 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
@@ -47,6 +52,8 @@ public class AdminProductController {
     private final IFileStorageService fileStorageService;
     private final ProductImageRepository productImageRepository; 
     private final ProductRepository productRepository; 
+    private final ProductDetailCache productDetailCache;
+    private final HotSkuLedger hotSkuLedger;
     
     
     private static final Logger log = LoggerFactory.getLogger(SellerProductController.class);
@@ -101,6 +108,7 @@ public class AdminProductController {
             }
 
             ProductImage savedImage = productImageRepository.save(productImage);
+            productDetailCache.invalidate(productId); // Detail view lists the product's images
 
             // Başarılı yanıtı DTO ile döndür (DtoProductImage DTO'nuz olmalı)
             DtoProductImage responseDto = new DtoProductImage(
@@ -234,6 +242,66 @@ public class AdminProductController {
     }
     
     
+    /**
+     * GET /api/v1/admin/products/cache/stats : Hit/miss/eviction counters of the product detail cache.
+     * Requires ADMIN role.
+     *
+     * @return ResponseEntity containing DtoProductDetailCacheStats.
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<DtoProductDetailCacheStats> getProductDetailCacheStats() {
+        return ResponseEntity.ok(productService.getProductDetailCacheStats());
+    }
+
+    /**
+     * GET /api/v1/admin/products/hot-skus : Products whose checkouts are served by the in-memory stock ledger.
+     * Requires ADMIN role.
+     *
+     * @return ResponseEntity containing the ledger state of each hot product.
+     */
+    @GetMapping("/hot-skus")
+    public ResponseEntity<List<DtoHotSkuStatus>> getHotSkus() {
+        return ResponseEntity.ok(hotSkuLedger.getStatus());
+    }
+
+    /**
+     * POST /api/v1/admin/products/{productId}/hot-sku : Serve a product's checkouts from the in-memory
+     * stock ledger (flash sales). Requires ADMIN role.
+     *
+     * @param productId The ID of the product.
+     * @return ResponseEntity containing the product's ledger state.
+     * @throws ResponseStatusException with 404 NOT_FOUND if the product doesn't exist,
+     *         or 409 CONFLICT if it is already in hot mode.
+     */
+    @PostMapping("/{productId}/hot-sku")
+    public ResponseEntity<DtoHotSkuStatus> enableHotSku(@PathVariable Long productId) {
+        try {
+            return ResponseEntity.ok(hotSkuLedger.enable(productId));
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * DELETE /api/v1/admin/products/{productId}/hot-sku : Return a product to row-level stock updates.
+     * Requires ADMIN role.
+     *
+     * @param productId The ID of the product.
+     * @return ResponseEntity with status 204 NO_CONTENT.
+     * @throws ResponseStatusException with 404 NOT_FOUND if the product is not in hot mode.
+     */
+    @DeleteMapping("/{productId}/hot-sku")
+    public ResponseEntity<Void> disableHotSku(@PathVariable Long productId) {
+        try {
+            hotSkuLedger.disable(productId);
+            return ResponseEntity.noContent().build();
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
+
     @PostMapping("/categories") // Adjust mapping if in a separate controller, e.g., @RequestMapping("/api/v1/admin/categories") then @PostMapping
     public ResponseEntity<DtoCategory> addCategory(@Valid @RequestBody DtoCategory dtoCategory) {
         try {
@@ -2,6 +2,7 @@ package com.ecommerce.controller.impl;
 
 import com.ecommerce.config.securityconfig.UserPrincipal;
 import com.ecommerce.dto.DtoCart;
+import com.ecommerce.dto.DtoCartBatchRequest;
 import com.ecommerce.services.CartService;
 import com.stripe.model.tax.Registration.CountryOptions.Au;
 
@@ -117,6 +118,20 @@ public class CartController {
         return ResponseEntity.ok(updatedCart);
     }
 
+    /**
+     * Applies several add/update/remove operations to the current customer's cart in one request.
+     * The operations are applied in order, all or nothing.
+     *
+     * @param batchRequest DTO containing the list of operations.
+     * @return ResponseEntity containing the updated DtoCart.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<DtoCart> applyCartOperations(@Valid @RequestBody DtoCartBatchRequest batchRequest) {
+        Long customerId = getCurrentCustomerId();
+        DtoCart updatedCart = cartService.applyCartOperations(customerId, batchRequest.getOperations());
+        return ResponseEntity.ok(updatedCart);
+    }
+
     /**
      * Clears all items from the current customer's cart.
      *
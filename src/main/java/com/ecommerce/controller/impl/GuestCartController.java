@@ -0,0 +1,111 @@
+package com.ecommerce.controller.impl;
+
+import com.ecommerce.dto.DtoCart;
+import com.ecommerce.dto.DtoGuestCart;
+import com.ecommerce.services.CartService;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for the carts of visitors who are not logged in.
+ * A guest cart is addressed by the token returned on creation, sent in the X-Guest-Cart-Token header.
+ * Items are addressed by product ID. Passing the token to the login request merges the cart into the
+ * customer's cart.
+ */
+@RestController
+@RequestMapping("/api/v1/guest/cart")
+@RequiredArgsConstructor
+@Validated
+public class GuestCartController {
+
+    private static final String TOKEN_HEADER = "X-Guest-Cart-Token";
+
+    private final CartService cartService;
+
+    /**
+     * Creates an empty guest cart (stored once the first item is added).
+     *
+     * @return ResponseEntity containing the cart and its token.
+     */
+    @PostMapping
+    public ResponseEntity<DtoGuestCart> createGuestCart() {
+        return new ResponseEntity<>(cartService.createGuestCart(), HttpStatus.CREATED);
+    }
+
+    /**
+     * Retrieves a guest cart.
+     *
+     * @param token The guest cart token.
+     * @return ResponseEntity containing the DtoCart.
+     */
+    @GetMapping
+    public ResponseEntity<DtoCart> getGuestCart(@RequestHeader(TOKEN_HEADER) String token) {
+        return ResponseEntity.ok(cartService.getGuestCart(token));
+    }
+
+    /**
+     * Adds an item to a guest cart.
+     *
+     * @param token          The guest cart token.
+     * @param addItemRequest DTO containing productId and quantity.
+     * @return ResponseEntity containing the updated DtoCart.
+     */
+    @PostMapping("/items")
+    public ResponseEntity<DtoCart> addItemToGuestCart(
+            @RequestHeader(TOKEN_HEADER) String token,
+            @Valid @RequestBody DtoGuestAddItemRequest addItemRequest) {
+        DtoCart updatedCart = cartService.addItemToGuestCart(token, addItemRequest.getProductId(), addItemRequest.getQuantity());
+        return ResponseEntity.ok(updatedCart);
+    }
+
+    /**
+     * Updates the quantity of a product in a guest cart.
+     *
+     * @param token     The guest cart token.
+     * @param productId The ID of the product in the cart.
+     * @param quantity  The new quantity (must be positive).
+     * @return ResponseEntity containing the updated DtoCart.
+     */
+    @PutMapping("/items/{productId}")
+    public ResponseEntity<DtoCart> updateGuestCartItemQuantity(
+            @RequestHeader(TOKEN_HEADER) String token,
+            @PathVariable Long productId,
+            @RequestParam @Min(value = 1, message = "Quantity must be at least 1") int quantity) {
+        return ResponseEntity.ok(cartService.updateGuestCartItemQuantity(token, productId, quantity));
+    }
+
+    /**
+     * Removes a product from a guest cart.
+     *
+     * @param token     The guest cart token.
+     * @param productId The ID of the product to remove.
+     * @return ResponseEntity containing the updated DtoCart.
+     */
+    @DeleteMapping("/items/{productId}")
+    public ResponseEntity<DtoCart> removeItemFromGuestCart(
+            @RequestHeader(TOKEN_HEADER) String token,
+            @PathVariable Long productId) {
+        return ResponseEntity.ok(cartService.removeItemFromGuestCart(token, productId));
+    }
+
+    /**
+     * Inner DTO class for the add item request body.
+     */
+    @Data
+    static class DtoGuestAddItemRequest {
+        @NotNull(message = "Product ID cannot be null")
+        private Long productId;
+
+        @Min(value = 1, message = "Quantity must be at least 1")
+        private int quantity = 1;
+    }
+}
@@ -1,10 +1,15 @@
 package com.ecommerce.controller.impl;
 
 import com.ecommerce.config.securityconfig.UserPrincipal; // Import UserPrincipal
+import com.ecommerce.dto.DtoBulkOrderStatusRequest;
+import com.ecommerce.dto.DtoBulkOrderStatusResponse;
+import com.ecommerce.dto.DtoCursorPage;
 import com.ecommerce.dto.DtoOrderRequest;
 import com.ecommerce.dto.DtoOrderResponse;
+import com.ecommerce.dto.DtoOrderSummary;
 import com.ecommerce.entities.order.Order.OrderStatus;
 import com.ecommerce.services.OrderService;
+import com.ecommerce.services.order.OrderIdempotencyStore;
 
 // --- Import Spring Security classes ---
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -15,9 +20,9 @@ import org.springframework.security.core.GrantedAuthority; // Needed for authori
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import lombok.RequiredArgsConstructor;
 import jakarta.validation.Valid;
-import java.util.List;
 import java.util.stream.Collectors; // For collecting authorities
 
 @RestController
@@ -26,19 +31,31 @@ import java.util.stream.Collectors; // For collecting authorities
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIdempotencyStore orderIdempotencyStore;
 
+    /**
+     * POST /api/v1/orders : Create an order for the current customer.
+     * With an Idempotency-Key header, retries of the same request return the first order instead of
+     * creating another one (and taking stock again); reusing the key for a different request gives 409.
+     */
     @PostMapping
     @PreAuthorize("hasAuthority('ROLE_CUSTOMER')") // Ensure roles match UserPrincipal (e.g., ROLE_CUSTOMER)
     public ResponseEntity<DtoOrderResponse> createOrder(
             @Valid @RequestBody DtoOrderRequest orderRequestDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @AuthenticationPrincipal UserPrincipal currentUser) { // Use UserPrincipal
 
         // Get customer ID from the wrapped User object
         // Assuming User class has getId() method. Adjust if needed.
         Long customerId = currentUser.getUser().getUserId(); // Updated access
 
-        DtoOrderResponse createdOrder = orderService.createOrder(orderRequestDTO, customerId);
-        return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+        try {
+            DtoOrderResponse createdOrder = orderIdempotencyStore.execute(customerId, idempotencyKey, orderRequestDTO,
+                    () -> orderService.createOrder(orderRequestDTO, customerId));
+            return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
 
     @GetMapping("/{orderId}")
@@ -60,33 +77,60 @@ public class OrderController {
         return ResponseEntity.ok(order);
     }
 
+    /**
+     * GET /api/v1/orders/my-orders?after=... : Order history of the current customer as flat summaries,
+     * newest first, one keyset page at a time. Use GET /api/v1/orders/{orderId} for the full order.
+     *
+     * @param after Opaque cursor from the previous response (omit for the first page).
+     * @param size  Page size (1-100).
+     * @return ResponseEntity containing a DtoCursorPage of DtoOrderSummary.
+     * @throws ResponseStatusException with 400 BAD_REQUEST if the cursor or size is invalid.
+     */
     @GetMapping("/my-orders")
-    @PreAuthorize("hasAuthority('ROLE_CUSTOMER')") // Ensure roles match UserPrincipal
-    public ResponseEntity<List<DtoOrderResponse>> getCurrentUserOrders(
-            @AuthenticationPrincipal UserPrincipal currentUser) { // Use UserPrincipal
-
-        Long customerId = currentUser.getUser().getUserId(); // Updated access
-        List<DtoOrderResponse> orders = orderService.getOrdersByCustomerId(customerId);
-        return ResponseEntity.ok(orders);
+    @PreAuthorize("hasAuthority('ROLE_CUSTOMER')")
+    public ResponseEntity<DtoCursorPage<DtoOrderSummary>> getCurrentUserOrderSummaries(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserPrincipal currentUser) {
+        Long customerId = currentUser.getUser().getUserId();
+        try {
+            return ResponseEntity.ok(orderService.getOrderSummariesForCustomer(customerId, after, size));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
 
-    // Endpoint for Admins to get orders by a specific customer ID
+    /**
+     * GET /api/v1/orders/customer/{customerId}?after=... : Keyset page of a customer's order summaries (admin).
+     */
     @GetMapping("/customer/{customerId}")
-    @PreAuthorize("hasAuthority('ROLE_ADMIN')") // Ensure roles match UserPrincipal
-    public ResponseEntity<List<DtoOrderResponse>> getOrdersByCustomerIdForAdmin(@PathVariable Long customerId) {
-        List<DtoOrderResponse> orders = orderService.getOrdersByCustomerId(customerId);
-        return ResponseEntity.ok(orders);
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<DtoCursorPage<DtoOrderSummary>> getOrderSummariesByCustomerIdForAdmin(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(orderService.getOrderSummariesForCustomer(customerId, after, size));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
 
-     // Endpoint for Admins to get all orders (add pagination later)
+    /**
+     * GET /api/v1/orders?after=... : Keyset page of all order summaries, newest first (admin).
+     */
     @GetMapping
-    @PreAuthorize("hasAuthority('ROLE_ADMIN')") // Ensure roles match UserPrincipal
-    public ResponseEntity<List<DtoOrderResponse>> getAllOrders(/* Add @RequestParam for pagination */) {
-        List<DtoOrderResponse> orders = orderService.getAllOrders(/* Pass pagination params */);
-        return ResponseEntity.ok(orders);
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<DtoCursorPage<DtoOrderSummary>> getAllOrderSummaries(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(orderService.getAllOrderSummaries(after, size));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
 
-
     @PutMapping("/{orderId}/status")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')") // Ensure roles match UserPrincipal
     public ResponseEntity<DtoOrderResponse> updateOrderStatus(
@@ -99,6 +143,14 @@ public class OrderController {
         return ResponseEntity.ok(updatedOrder);
     }
 
+    // Moves many orders to one status; the response carries the outcome of every order
+    @PutMapping("/status")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<DtoBulkOrderStatusResponse> updateOrderStatuses(
+            @Valid @RequestBody DtoBulkOrderStatusRequest request) {
+        return ResponseEntity.ok(orderService.updateOrderStatuses(request.getOrderIds(), request.getStatus(), null));
+    }
+
     @PutMapping("/{orderId}/cancel")
     // Update @orderSecurityService.isOrderOwner to accept UserPrincipal if needed
     @PreAuthorize("hasAuthority('ROLE_ADMIN') or @orderSecurityService.isOrderOwner(principal, #orderId)")
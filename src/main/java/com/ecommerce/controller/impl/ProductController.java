@@ -1,8 +1,11 @@
 package com.ecommerce.controller.impl;
 
 import com.ecommerce.dto.DtoCategory;
+import com.ecommerce.dto.DtoCursorPage;
 import com.ecommerce.dto.DtoProduct;
+import com.ecommerce.dto.DtoProductFacets;
 import com.ecommerce.dto.DtoProductSummary;
+import com.ecommerce.dto.DtoSuggestion;
 import com.ecommerce.services.ProductService;
 
 import lombok.RequiredArgsConstructor;
@@ -11,6 +14,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
@@ -40,6 +44,22 @@ public class ProductController {
         // Sonuçları OK (200) status ile döndür
         return ResponseEntity.ok(results);
     }
+
+    /**
+     * GET /api/v1/products/suggest : Typeahead suggestions for search-as-you-type.
+     * Matches product names, brands, models and category names at any word start;
+     * most popular first. Served from memory, never queries the database.
+     *
+     * @param prefix Text typed so far.
+     * @param limit  Maximum number of suggestions (1-10, default 10).
+     * @return ResponseEntity containing a List of DtoSuggestion.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<DtoSuggestion>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggestProducts(prefix, Math.max(1, Math.min(limit, 10))));
+    }
     
     
     
@@ -69,6 +89,52 @@ public class ProductController {
         return ResponseEntity.ok(results);
     }
 
+    /**
+     * GET /api/v1/products/filter?after=... : Cursor (keyset) mode of the filter endpoint.
+     * No total count is computed; use the returned nextCursor to fetch the following page.
+     *
+     * @param after    Opaque cursor from the previous response (empty for the first page).
+     * @param pageable Page size and sort (productId, price, name or createdAt).
+     * @return ResponseEntity containing a DtoCursorPage of DtoProductSummary.
+     * @throws ResponseStatusException with 400 BAD_REQUEST if the cursor or sort key is invalid.
+     */
+    @GetMapping(value = "/filter", params = "after")
+    public ResponseEntity<DtoCursorPage<DtoProductSummary>> filterProductsAfter(
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam String after,
+            Pageable pageable) {
+        try {
+            return ResponseEntity.ok(productService.filterProductsAfter(
+                    searchTerm, categoryId, minPrice, maxPrice, after, pageable));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * GET /api/v1/products/filter/facets : Facet counts for the filter endpoint.
+     * Accepts the same criteria as /filter and returns brand, category, price range,
+     * rating and approval counts for the matching products.
+     *
+     * @return ResponseEntity containing DtoProductFacets.
+     * @throws ResponseStatusException with 503 SERVICE_UNAVAILABLE while the facet index is being built.
+     */
+    @GetMapping("/filter/facets")
+    public ResponseEntity<DtoProductFacets> getFilterFacets(
+            @RequestParam(required = false) String searchTerm,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice) {
+        try {
+            return ResponseEntity.ok(productService.getFilterFacets(searchTerm, categoryId, minPrice, maxPrice));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        }
+    }
+
     /**
      * GET /api/v1/products : Get a paginated list of product summaries.
      *
@@ -81,6 +147,24 @@ public class ProductController {
         return ResponseEntity.ok(productPage);
     }
 
+    /**
+     * GET /api/v1/products?after=... : Cursor (keyset) mode of the product listing.
+     *
+     * @param after    Opaque cursor from the previous response (empty for the first page).
+     * @param pageable Page size and sort (productId, price, name or createdAt).
+     * @return ResponseEntity containing a DtoCursorPage of DtoProductSummary.
+     * @throws ResponseStatusException with 400 BAD_REQUEST if the cursor or sort key is invalid.
+     */
+    @GetMapping(params = "after")
+    public ResponseEntity<DtoCursorPage<DtoProductSummary>> getAllProductsAfter(
+            @RequestParam String after, Pageable pageable) {
+        try {
+            return ResponseEntity.ok(productService.getAllProductsAfter(after, pageable));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
     /**
      * GET /api/v1/products/{productId} : Get detailed information for a specific product.
      *
@@ -118,6 +202,28 @@ public class ProductController {
         }
     }
 
+    /**
+     * GET /api/v1/products/category/{categoryId}?after=... : Cursor (keyset) mode of the category listing.
+     *
+     * @param categoryId The ID of the category.
+     * @param after      Opaque cursor from the previous response (empty for the first page).
+     * @param pageable   Page size and sort.
+     * @return ResponseEntity containing a DtoCursorPage of DtoProductSummary for the category.
+     * @throws ResponseStatusException with 404 NOT_FOUND if the category doesn't exist,
+     *                                 or 400 BAD_REQUEST if the cursor or sort key is invalid.
+     */
+    @GetMapping(value = "/category/{categoryId}", params = "after")
+    public ResponseEntity<DtoCursorPage<DtoProductSummary>> getProductsByCategoryAfter(
+            @PathVariable Long categoryId, @RequestParam String after, Pageable pageable) {
+        try {
+            return ResponseEntity.ok(productService.getProductsByCategoryAfter(categoryId, after, pageable));
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Category not found", e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
     /**
      * GET /api/v1/products/seller/{sellerId} : Get products listed by a specific seller.
      *
@@ -138,10 +244,22 @@ public class ProductController {
         }
     }
 
+    /**
+     * GET /api/v1/products/categories : List all categories.
+     * The response carries the category list version as an ETag; a request whose If-None-Match
+     * matches the current version gets 304 NOT_MODIFIED without a body.
+     *
+     * @param request Used to evaluate If-None-Match.
+     * @return ResponseEntity containing the categories, or 304 if the client's copy is current.
+     */
     @GetMapping("/categories") // New endpoint for categories
-    public ResponseEntity<List<DtoCategory>> getAllCategories() {
+    public ResponseEntity<List<DtoCategory>> getAllCategories(WebRequest request) {
+        String eTag = "\"categories-" + productService.getCategoriesVersion() + "\"";
+        if (request.checkNotModified(eTag)) {
+            return null; // Spring has already written the 304 response
+        }
         List<DtoCategory> categories = productService.getAllCategories();
-        return ResponseEntity.ok(categories); // Return the list directly
+        return ResponseEntity.ok().eTag(eTag).body(categories); // Return the list directly
     }
 
     // --- Placeholder for Search Endpoint ---
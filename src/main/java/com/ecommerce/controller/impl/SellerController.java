@@ -1,18 +1,30 @@
 package com.ecommerce.controller.impl; // Eğer farklı bir paket oluşturduysanız, onu yazın
 
 import com.ecommerce.config.securityconfig.SecurityUtils;
+import com.ecommerce.dto.DtoBulkOrderStatusRequest;
+import com.ecommerce.dto.DtoBulkOrderStatusResponse;
+import com.ecommerce.dto.DtoCursorPage;
 import com.ecommerce.dto.DtoOrderResponse;
+import com.ecommerce.dto.DtoOrderSummary;
+import com.ecommerce.dto.DtoSellerMetrics;
 import com.ecommerce.services.OrderService; // OrderService'i import etmeniz gerekebilir
+import com.ecommerce.services.metrics.SellerSalesRollup;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
 
 /**
  * Satıcıya özel işlemleri yöneten REST Controller.
@@ -26,33 +38,82 @@ public class SellerController {
 
     // Gerekli servisleri inject et (Lombok @RequiredArgsConstructor ile veya @Autowired ile)
     private final OrderService orderService;
+    private final SellerSalesRollup sellerSalesRollup;
 
     /**
-     * Giriş yapmış olan satıcının kendi siparişlerini listeler.
-     * Endpoint: GET /api/v1/seller/orders/my
+     * Satıcının siparişlerini sayfa sayfa (keyset), en yeniden eskiye özet olarak listeler.
+     * Endpoint: GET /api/v1/seller/orders/my?after=...&size=20
      *
+     * @param after          Önceki yanıttaki nextCursor (ilk sayfa için gönderilmez)
+     * @param size           Sayfa boyutu (1-100)
      * @param authentication Spring Security tarafından sağlanan kimlik doğrulama bilgisi
-     * @return Satıcının siparişlerinin listesi (DtoOrderResponse formatında)
+     * @return DtoOrderSummary içeren DtoCursorPage
      */
     @GetMapping("/orders/my")
-    public ResponseEntity<List<DtoOrderResponse>> getMyOrders(Authentication authentication) {
-        // SecurityUtils helper'ı kullanarak giriş yapmış satıcının ID'sini güvenli bir şekilde al
+    public ResponseEntity<DtoCursorPage<DtoOrderSummary>> getMyOrderSummaries(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
         Long sellerId = SecurityUtils.getAuthenticatedSellerId(authentication);
+        try {
+            return ResponseEntity.ok(orderService.getOrderSummariesForSeller(sellerId, after, size));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
 
-        // OrderService'teki ilgili metodu çağırarak siparişleri al
-        // Bu metodun OrderServiceImpl içinde implemente edildiğinden ve
-        // OrderRepository'de findBySellerUserId metodunun olduğundan emin olun.
-        List<DtoOrderResponse> orders = orderService.getOrdersForCurrentSeller(sellerId);
+    /**
+     * Satıcıya ait tek bir siparişin tüm detaylarını döndürür (kalemler, ödeme, adresler).
+     * Endpoint: GET /api/v1/seller/orders/{orderId}
+     *
+     * @param orderId        Sipariş ID'si
+     * @param authentication Spring Security tarafından sağlanan kimlik doğrulama bilgisi
+     * @return Sipariş detayı (DtoOrderResponse formatında)
+     */
+    @GetMapping("/orders/{orderId}")
+    public ResponseEntity<DtoOrderResponse> getMyOrder(@PathVariable Long orderId, Authentication authentication) {
+        Long sellerId = SecurityUtils.getAuthenticatedSellerId(authentication);
+        return ResponseEntity.ok(orderService.getOrderForSeller(orderId, sellerId));
+    }
 
-        // Başarılı yanıt olarak sipariş listesini ve HTTP 200 OK durumunu döndür
-        return ResponseEntity.ok(orders);
+    /**
+     * Satıcının birden çok siparişini tek istekte aynı duruma taşır (ör. toplu "SHIPPED").
+     * Geçersiz geçişler, başka satıcıya ait veya bulunamayan siparişler isteği bozmaz; her siparişin sonucu ayrı döner.
+     * Endpoint: PUT /api/v1/seller/orders/status
+     *
+     * @param request        Sipariş ID'leri (en fazla 1000) ve hedef durum
+     * @param authentication Spring Security tarafından sağlanan kimlik doğrulama bilgisi
+     * @return Sipariş bazında sonuçları içeren DtoBulkOrderStatusResponse
+     */
+    @PutMapping("/orders/status")
+    public ResponseEntity<DtoBulkOrderStatusResponse> updateMyOrderStatuses(@Valid @RequestBody DtoBulkOrderStatusRequest request,
+                                                                            Authentication authentication) {
+        Long sellerId = SecurityUtils.getAuthenticatedSellerId(authentication);
+        return ResponseEntity.ok(orderService.updateOrderStatuses(request.getOrderIds(), request.getStatus(), sellerId));
+    }
+
+    /**
+     * Satıcı paneli metrikleri: durumlara göre sipariş sayıları, bugün/7 gün/30 gün ciro ve en çok satan ürünler.
+     * Siparişler tek tek okunmaz; değerler sipariş akışında güncellenen özet tablolardan gelir.
+     * Endpoint: GET /api/v1/seller/metrics?top=20
+     *
+     * @param top            Listelenecek en çok satan ürün sayısı (1-100)
+     * @param authentication Spring Security tarafından sağlanan kimlik doğrulama bilgisi
+     * @return DtoSellerMetrics
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<DtoSellerMetrics> getMyMetrics(@RequestParam(defaultValue = "20") int top,
+                                                         Authentication authentication) {
+        Long sellerId = SecurityUtils.getAuthenticatedSellerId(authentication);
+        try {
+            return ResponseEntity.ok(sellerSalesRollup.getMetrics(sellerId, top));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
 
     // --- Buraya Satıcıya Özel Diğer Endpoint'ler Eklenebilir ---
     // Örneğin:
-    // @GetMapping("/dashboard/stats")
-    // public ResponseEntity<?> getSellerDashboardStats(Authentication authentication) { ... }
-    //
     // @PutMapping("/profile")
     // public ResponseEntity<?> updateSellerProfile(Authentication authentication, @RequestBody DtoSellerProfile profile) { ... }
     // ---
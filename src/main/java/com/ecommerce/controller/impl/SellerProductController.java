@@ -2,6 +2,7 @@ package com.ecommerce.controller.impl;
 
 import com.ecommerce.dto.DtoOrderResponse;
 import com.ecommerce.dto.DtoProduct;
+import com.ecommerce.dto.DtoImportResult;
 import com.ecommerce.dto.DtoProductImage;
 import com.ecommerce.dto.DtoProductSummary;
 import com.ecommerce.entities.product.Product;
@@ -11,10 +12,13 @@ import com.ecommerce.repository.ProductImageRepository;
 import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.services.IFileStorageService;
 import com.ecommerce.services.OrderService;
+import com.ecommerce.services.ProductImportService;
+import com.ecommerce.services.cache.ProductDetailCache;
 // Import the new service interface
 import com.ecommerce.services.SellerProductService; // CHANGED
 import com.ecommerce.config.securityconfig.SecurityUtils;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -30,6 +34,7 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
@@ -53,6 +58,8 @@ public class SellerProductController {
     private final IFileStorageService fileStorageService; // <-- YENİ
     private final ProductImageRepository productImageRepository; // <-- YENİ
     private final ProductRepository productRepository; 
+    private final ProductDetailCache productDetailCache;
+    private final ProductImportService productImportService;
     
     
     private static final Logger log = LoggerFactory.getLogger(SellerProductController.class); // <-- YENİ
@@ -117,6 +124,7 @@ public class SellerProductController {
             }
 
             ProductImage savedImage = productImageRepository.save(productImage);
+            productDetailCache.invalidate(productId); // Detail view lists the product's images
 
             DtoProductImage responseDto = new DtoProductImage(
                     savedImage.getImageId(),
@@ -140,6 +148,31 @@ public class SellerProductController {
     }
     
     
+    /**
+     * POST /api/v1/seller/products/import : Bulk import products for the authenticated seller.
+     * The body is streamed, either NDJSON (application/x-ndjson, one DtoProduct per line) or
+     * CSV (text/csv, with a header row). Invalid rows are reported and skipped; valid rows are imported.
+     *
+     * @return ResponseEntity containing the DtoImportResult with per-row errors.
+     * @throws ResponseStatusException with 400 BAD_REQUEST if the body cannot be read (e.g. bad CSV header).
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<DtoImportResult> importMyProducts(
+            Authentication authentication,
+            HttpServletRequest request) {
+        Long sellerId = SecurityUtils.getAuthenticatedSellerId(authentication);
+        ProductImportService.Format format = request.getContentType().toLowerCase().startsWith("text/csv")
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        try {
+            return ResponseEntity.ok(productImportService.importProducts(sellerId, request.getInputStream(), format));
+        } catch (IllegalArgumentException | IOException | UncheckedIOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (NoSuchElementException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
+
     @PostMapping // CREATE
     public ResponseEntity<DtoProduct> createMyProduct(
             Authentication authentication,
@@ -59,6 +59,6 @@ public class Registration implements IRegistrationController {
         System.out.println("Login request received: " + loginRequest.getUsername());
         User user = new User();
         BeanUtils.copyProperties(loginRequest, user);
-        return registrationService.verify(user);
+        return registrationService.verify(user, loginRequest.getGuestCartToken());
     }
 }
@@ -0,0 +1,20 @@
+package com.ecommerce.dto;
+
+import java.util.List;
+
+import com.ecommerce.entities.order.Order;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class DtoBulkOrderStatusRequest {
+    @NotEmpty(message = "At least one order ID is required")
+    @Size(max = 1000, message = "At most 1000 orders can be updated per request")
+    private List<@NotNull Long> orderIds;
+
+    @NotNull(message = "Target status cannot be null")
+    private Order.OrderStatus status;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.dto;
+
+import java.util.List;
+
+import com.ecommerce.entities.order.Order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoBulkOrderStatusResponse {
+    private Order.OrderStatus status; // Target status
+    private int updated;
+    private int failed; // Everything that is neither UPDATED nor UNCHANGED
+    private List<DtoOrderStatusResult> results; // One per distinct requested order ID, in request order
+}
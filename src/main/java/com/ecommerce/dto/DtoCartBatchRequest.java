@@ -0,0 +1,16 @@
+package com.ecommerce.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class DtoCartBatchRequest {
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 100, message = "At most 100 operations can be applied per request")
+    private List<@Valid @NotNull DtoCartOperation> operations; // Applied in order, all or nothing
+}
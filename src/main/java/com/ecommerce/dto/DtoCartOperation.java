@@ -0,0 +1,24 @@
+package com.ecommerce.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoCartOperation { // One change in a batch cart update
+    public enum Type { ADD, UPDATE, REMOVE }
+
+    @NotNull(message = "Operation type cannot be null")
+    private Type type;
+
+    private Long productId; // ADD
+
+    private Long cartItemId; // UPDATE, REMOVE
+
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity; // ADD (units to add), UPDATE (new quantity)
+}
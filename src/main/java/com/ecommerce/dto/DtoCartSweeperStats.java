@@ -0,0 +1,23 @@
+package com.ecommerce.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoCartSweeperStats { // Counters since startup of the abandoned cart sweeper
+    private long runs;
+    private long cartsDeleted;
+    private long cartItemsDeleted;
+    private long cartsSkipped; // In chunks that failed; retried on the next run
+    private long totalMillis;
+    private LocalDateTime lastRunAt; // Null until the first run
+    private long lastRunCartsDeleted;
+    private long lastRunCartItemsDeleted;
+    private long lastRunCartsSkipped;
+    private long lastRunMillis;
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoCursorPage<T> { // Keyset (cursor) page, returned instead of Page when ?after= is used
+    private List<T> content;
+    private int size; // Requested page size
+    private boolean hasNext;
+    private String nextCursor; // Opaque; pass back as ?after= to get the next page, null on the last page
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoFacetCount {
+    private String value; // Filter value to send back (brand name, category ID, bucket key)
+    private String label; // Text to display, e.g. "Electronics" or "100-250"
+    private long count;
+}
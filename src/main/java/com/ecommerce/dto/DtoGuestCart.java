@@ -0,0 +1,13 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoGuestCart {
+    private String token; // Opaque; sent back in the X-Guest-Cart-Token header and on login
+    private DtoCart cart;
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoHotSkuStatus { // State of one product in the in-memory reservation ledger
+    private Long productId;
+    private long available; // Units left across all stripes
+    private long pendingFlush; // Net units sold but not yet written to product.stock_quantity
+    private int openReservations; // Reservations whose order transaction has not completed yet
+    private int stripes;
+    private boolean retiring; // Disabled; kept only until its last reservations and deltas are settled
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class DtoImportResult { // Outcome of a bulk product import
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private List<DtoImportRowError> errors = new ArrayList<>(); // Capped; see errorsTruncated
+    private boolean errorsTruncated;
+}
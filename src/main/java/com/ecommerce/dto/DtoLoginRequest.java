@@ -10,6 +10,7 @@ import lombok.NoArgsConstructor;
 public class DtoLoginRequest {
     private String username;
     private String password;
+    private String guestCartToken; // Optional: guest cart to merge into the customer's cart
 
     // Getters and setters
     public String getUsername() { return username; }
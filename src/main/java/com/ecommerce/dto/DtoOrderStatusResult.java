@@ -0,0 +1,27 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.entities.order.Order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoOrderStatusResult { // Outcome for one order of a bulk status update
+    private Long orderId;
+    private Outcome outcome;
+    private Order.OrderStatus previousStatus; // null if the order was not found
+    private String message;
+
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,          // Already in the target status
+        NOT_FOUND,
+        FORBIDDEN,          // Belongs to another seller
+        INVALID_TRANSITION, // Not allowed by the order lifecycle
+        CONFLICT,           // Changed concurrently; retry
+        ERROR               // The chunk containing this order failed; retry
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.ecommerce.entities.order.Order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoOrderSummary { // Flat row for order history lists; use the detail endpoint for items, payment and addresses
+    private Long orderId;
+    private String orderNumber;
+    private Order.OrderStatus status;
+    private BigDecimal totalAmount;
+    private LocalDateTime createdAt;
+    private Long itemCount; // Number of order lines
+}
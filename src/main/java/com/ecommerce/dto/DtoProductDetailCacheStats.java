@@ -0,0 +1,18 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoProductDetailCacheStats { // Counters since startup, used to size the product detail cache
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRate;
+    private int entries;
+    private long weight; // Current total weight (1 + variant count per product)
+    private long maxWeight;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoProductFacets { // "Brand (123)" style counts shown next to filter results
+    private long totalCount;
+    private List<DtoFacetCount> brands;
+    private List<DtoFacetCount> categories;
+    private List<DtoFacetCount> priceRanges;
+    private List<DtoFacetCount> ratings;
+    private List<DtoFacetCount> approval;
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoProductSales { // Units and revenue of one product over all orders that are not cancelled
+    private Long productId;
+    private String productName;
+    private long unitsSold;
+    private BigDecimal revenue;
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import com.ecommerce.entities.order.Order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoSellerMetrics { // Seller dashboard, read from the sales rollup tables
+    private Map<Order.OrderStatus, Long> ordersByStatus; // Every status, 0 if none
+    private BigDecimal revenueToday; // Orders placed today (server time zone), cancellations excluded
+    private BigDecimal revenueLast7Days; // Including today
+    private BigDecimal revenueLast30Days; // Including today
+    private List<DtoProductSales> topProducts; // By units sold, best first
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DtoSuggestion { // One typeahead suggestion
+    private String text;
+    private String type; // PRODUCT, BRAND, MODEL or CATEGORY
+    private Long productId; // Set only for PRODUCT suggestions
+}
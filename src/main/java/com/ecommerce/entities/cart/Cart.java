@@ -1,23 +1,28 @@
 package com.ecommerce.entities.cart;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.ecommerce.entities.user.Customer;
 
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
 
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
+@Table(name = "cart", indexes = @Index(name = "idx_cart_updated_at", columnList = "updated_at, cart_id"))
 @Getter
 @Setter
 public class Cart {
@@ -31,4 +36,7 @@ public class Cart {
     
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL)
     private List<CartItem> items = new ArrayList<>();
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt; // Last change to the cart or its items (abandoned cart sweeper)
 }
@@ -0,0 +1,56 @@
+package com.ecommerce.entities.order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A completed (DELIVERED or CANCELLED) order moved out of the live order tables by the archival job.
+ * The full order as returned by the API (items, payment, shipments, addresses) is kept as one
+ * gzip-compressed DtoOrderResponse JSON blob; only the columns needed to find and authorize it are
+ * stored separately. The order keeps its original ID.
+ */
+@Entity
+@Table(name = "archived_orders", indexes = {
+        @Index(name = "idx_archived_orders_customer", columnList = "customer_id"),
+        @Index(name = "idx_archived_orders_seller", columnList = "seller_id")
+})
+@Getter
+@Setter
+public class ArchivedOrder {
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "order_number", length = 50)
+    private String orderNumber;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "seller_id")
+    private Long sellerId;
+
+    @Column(name = "status", nullable = false, length = 50)
+    private String status; // Order.OrderStatus name
+
+    @Column(name = "total_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] payload; // gzip(DtoOrderResponse JSON)
+}
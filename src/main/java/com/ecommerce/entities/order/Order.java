@@ -23,6 +23,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -35,7 +36,11 @@ import lombok.Setter;
 
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = { // Order history lists seek on (owner, created_at) newest first
+        @Index(name = "idx_orders_customer_created", columnList = "customer_id, created_at"),
+        @Index(name = "idx_orders_seller_created", columnList = "seller_id, created_at"),
+        @Index(name = "idx_orders_created", columnList = "created_at")
+})
 @Getter
 @Setter
 public class Order {
@@ -88,6 +93,21 @@ public class Order {
     private String orderNumber;
     
     // Getters & Setters
-    public enum OrderStatus { PENDING, PROCESSING, SHIPPED, DELIVERED, CANCELLED }
+    public enum OrderStatus {
+        PENDING, PROCESSING, SHIPPED, DELIVERED, CANCELLED;
+
+        /**
+         * Order lifecycle: PENDING -> PROCESSING -> SHIPPED -> DELIVERED, and PENDING or PROCESSING -> CANCELLED.
+         * DELIVERED and CANCELLED are final.
+         */
+        public boolean canTransitionTo(OrderStatus target) {
+            return switch (this) {
+                case PENDING -> target == PROCESSING || target == CANCELLED;
+                case PROCESSING -> target == SHIPPED || target == CANCELLED;
+                case SHIPPED -> target == DELIVERED;
+                case DELIVERED, CANCELLED -> false;
+            };
+        }
+    }
 }
 
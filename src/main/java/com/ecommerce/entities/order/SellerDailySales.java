@@ -0,0 +1,46 @@
+package com.ecommerce.entities.order;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Rollup: a seller's orders and revenue per day the orders were placed. Revenue is the total of the
+ * day's orders that are not cancelled; a cancellation is taken off the day the order was placed.
+ * Maintained incrementally with upserts by SellerMetricsRepository.
+ */
+@Entity
+@Table(name = "seller_daily_sales",
+       uniqueConstraints = @UniqueConstraint(name = "uk_seller_daily_sales", columnNames = {"seller_id", "sales_date"}))
+@Getter
+@Setter
+public class SellerDailySales {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    @Column(name = "sales_date", nullable = false)
+    private LocalDate salesDate;
+
+    @Column(name = "orders_placed", nullable = false)
+    private long ordersPlaced;
+
+    @Column(name = "orders_cancelled", nullable = false)
+    private long ordersCancelled;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.entities.order;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Rollup: number of a seller's orders currently in each status. Maintained incrementally with
+ * upserts by SellerMetricsRepository; mapped here so the table is managed with the rest of the schema.
+ */
+@Entity
+@Table(name = "seller_order_status_counts",
+       uniqueConstraints = @UniqueConstraint(name = "uk_seller_status_counts", columnNames = {"seller_id", "status"}))
+@Getter
+@Setter
+public class SellerOrderStatusCount {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    @Column(name = "status", nullable = false, length = 50)
+    private String status; // Order.OrderStatus name
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+}
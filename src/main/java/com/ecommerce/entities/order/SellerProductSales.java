@@ -0,0 +1,43 @@
+package com.ecommerce.entities.order;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Rollup: units and revenue per product of a seller, over all orders that are not cancelled.
+ * Maintained incrementally with upserts by SellerMetricsRepository.
+ */
+@Entity
+@Table(name = "seller_product_sales",
+       uniqueConstraints = @UniqueConstraint(name = "uk_seller_product_sales", columnNames = {"seller_id", "product_id"}),
+       indexes = @Index(name = "idx_seller_product_sales_units", columnList = "seller_id, units_sold")) // Best sellers first
+@Getter
+@Setter
+public class SellerProductSales {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "units_sold", nullable = false)
+    private long unitsSold;
+
+    @Column(name = "revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CartPersistenceException extends RuntimeException {
+    public CartPersistenceException(String message) {
+        super(message);
+    }
+}
@@ -46,6 +46,42 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(CartOperationException.class)
+    public ResponseEntity<ErrorResponse> handleCartOperationException(
+            CartOperationException ex, HttpServletRequest request) {
+        log.warn("Invalid cart operation: {} at path {}", ex.getMessage(), request.getRequestURI());
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.BAD_REQUEST,
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(CartPersistenceException.class)
+    public ResponseEntity<ErrorResponse> handleCartPersistenceException(
+            CartPersistenceException ex, HttpServletRequest request) {
+        log.warn("Cart not saved: {} at path {}", ex.getMessage(), request.getRequestURI());
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyConflictException(
+            IdempotencyConflictException ex, HttpServletRequest request) {
+        log.warn("Idempotency conflict: {} at path {}", ex.getMessage(), request.getRequestURI());
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.CONFLICT,
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler({OrderCancellationException.class, InvalidStatusTransitionException.class})
     public ResponseEntity<ErrorResponse> handleOrderLogicException(
             BusinessLogicException ex, HttpServletRequest request) {
@@ -1,6 +1,7 @@
 // src/main/java/com/ecommerce/mappers/CartMapper.java
 package com.ecommerce.mappers;
 
+import com.ecommerce.common.Money;
 import com.ecommerce.dto.DtoCart;
 import com.ecommerce.dto.DtoCartItem;
 import com.ecommerce.dto.DtoProductSummary;
@@ -8,7 +9,6 @@ import com.ecommerce.entities.cart.Cart;
 import com.ecommerce.entities.cart.CartItem;
 import com.ecommerce.entities.product.Product; //
 
-import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -19,20 +19,28 @@ public class CartMapper {
         if (cart == null) {
             return null;
         }
-        DtoCart dto = new DtoCart(); //
-        dto.setCartId(cart.getCartId()); //
         List<DtoCartItem> dtoItems = cart.getItems() == null ? Collections.emptyList() :
                 cart.getItems().stream() //
                         .map(CartMapper::toDtoCartItem)
                         .collect(Collectors.toList());
+        return toDtoCart(cart.getCartId(), dtoItems);
+    }
+
+    // Builds the cart DTO from already mapped items (also used by the in-memory cart store)
+    public static DtoCart toDtoCart(Long cartId, List<DtoCartItem> dtoItems) {
+        DtoCart dto = new DtoCart(); //
+        dto.setCartId(cartId); //
         dto.setItems(dtoItems); //
 
         // Calculate total in the service or here
-        BigDecimal total = dtoItems.stream()
-                .filter(item -> item.getProduct() != null && item.getProduct().getPrice() != null)
-                .map(item -> item.getProduct().getPrice().multiply(BigDecimal.valueOf(item.getQuantity()))) //
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        dto.setCalculatedTotal(total); //
+        // Summed in cents; only the result is converted back to BigDecimal
+        Money total = Money.ZERO;
+        for (DtoCartItem item : dtoItems) {
+            if (item.getProduct() != null && item.getProduct().getPrice() != null) {
+                total = total.plus(Money.of(item.getProduct().getPrice()).times(item.getQuantity()));
+            }
+        }
+        dto.setCalculatedTotal(total.toBigDecimal()); //
 
         return dto;
     }
@@ -0,0 +1,100 @@
+package com.ecommerce.mappers;
+
+import com.ecommerce.dto.DtoProductSummary;
+import com.ecommerce.entities.product.Product;
+import com.ecommerce.repository.ProductImageRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Builds DtoProductSummary lists for a whole page of products at once.
+ * Primary image URLs for every product on the page are resolved with a single grouped query
+ * instead of one or two image lookups per product.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSummaryAssembler {
+
+    private final ProductImageRepository productImageRepository;
+
+    /**
+     * Maps a page of products to a page of summaries, keeping paging metadata.
+     *
+     * @param productPage Page of Product entities.
+     * @return Page of DtoProductSummary in the same order.
+     */
+    public Page<DtoProductSummary> toSummaryPage(Page<Product> productPage) {
+        return new PageImpl<>(toSummaries(productPage.getContent()), productPage.getPageable(), productPage.getTotalElements());
+    }
+
+    /**
+     * Maps products to summaries, preserving the input order.
+     *
+     * @param products Products to map.
+     * @return Summaries with primaryImageUrl populated where an image exists.
+     */
+    public List<DtoProductSummary> toSummaries(List<Product> products) {
+        if (products == null || products.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Long> productIds = products.stream().map(Product::getProductId).collect(Collectors.toSet());
+        Map<Long, String> imageUrls = findPrimaryImageUrls(productIds);
+
+        return products.stream()
+                .map(product -> toSummary(product, imageUrls.get(product.getProductId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Resolves the image URL to show for each product: the image flagged primary,
+     * otherwise the first uploaded image (lowest image id).
+     *
+     * @param productIds IDs of the products.
+     * @return Map of productId to image URL; products without images are absent.
+     */
+    public Map<Long, String> findPrimaryImageUrls(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, String> imageUrls = new HashMap<>();
+        Set<Long> withPrimary = new HashSet<>();
+        // Rows are ordered by image id, so the first row seen per product is its oldest image
+        for (Object[] row : productImageRepository.findImageUrlsByProductIds(productIds)) {
+            Long productId = (Long) row[0];
+            String imageUrl = (String) row[1];
+            boolean isPrimary = Boolean.TRUE.equals(row[2]);
+            if (isPrimary) {
+                if (withPrimary.add(productId)) {
+                    imageUrls.put(productId, imageUrl);
+                }
+            } else if (!withPrimary.contains(productId)) {
+                imageUrls.putIfAbsent(productId, imageUrl);
+            }
+        }
+        return imageUrls;
+    }
+
+    private static DtoProductSummary toSummary(Product product, String primaryImageUrl) {
+        DtoProductSummary summary = new DtoProductSummary();
+        summary.setProductId(product.getProductId());
+        summary.setName(product.getName());
+        summary.setPrice(product.getPrice());
+        summary.setAverageRating(product.getAverageRating());
+        summary.setBrand(product.getBrand());
+        summary.setModel(product.getModel());
+        summary.setPrimaryImageUrl(primaryImageUrl);
+        return summary;
+    }
+}
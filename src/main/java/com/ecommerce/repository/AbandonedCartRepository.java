@@ -0,0 +1,87 @@
+package com.ecommerce.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JDBC access for the abandoned cart sweeper. Carts are found through idx_cart_updated_at with a
+ * keyset cursor, and removed with one set-based DELETE per table and chunk. Every delete repeats the
+ * idle condition, so a cart that is changed between the read and the delete is kept.
+ *
+ * Deletes must be called inside a transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AbandonedCartRepository {
+
+    private static final String SELECT_IDLE =
+            "SELECT cart_id, customer_id, updated_at FROM cart " +
+            "WHERE updated_at < ? AND (updated_at > ? OR (updated_at = ? AND cart_id > ?)) " +
+            "ORDER BY updated_at, cart_id LIMIT ?";
+    private static final String BACKFILL_UPDATED_AT =
+            "UPDATE cart SET updated_at = ? WHERE updated_at IS NULL LIMIT ?";
+    private static final String DELETE_ITEMS =
+            "DELETE i FROM cart_item i JOIN cart c ON c.cart_id = i.cart_id WHERE c.updated_at < ? AND c.cart_id IN (%s)";
+    private static final String DELETE_CARTS =
+            "DELETE FROM cart WHERE updated_at < ? AND cart_id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record IdleCart(Long cartId, Long customerId, LocalDateTime updatedAt) {}
+
+    /**
+     * @return Carts last changed before {@code before}, after the cursor position, oldest first.
+     */
+    public List<IdleCart> findIdleCarts(LocalDateTime before, LocalDateTime afterUpdatedAt, Long afterCartId, int limit) {
+        Timestamp after = Timestamp.valueOf(afterUpdatedAt);
+        return jdbcTemplate.query(SELECT_IDLE, (rs, rowNum) -> new IdleCart(
+                rs.getLong(1), rs.getLong(2), rs.getTimestamp(3).toLocalDateTime()),
+                Timestamp.valueOf(before), after, after, afterCartId, limit);
+    }
+
+    /**
+     * Stamps up to {@code limit} carts that predate the updated_at column with the given time, so they
+     * are swept one idle period from now.
+     *
+     * @return The number of carts stamped.
+     */
+    public int backfillUpdatedAt(LocalDateTime now, int limit) {
+        return jdbcTemplate.update(BACKFILL_UPDATED_AT, Timestamp.valueOf(now), limit);
+    }
+
+    /**
+     * @return The number of cart items deleted.
+     */
+    public int deleteItemsOfIdleCarts(List<Long> cartIds, LocalDateTime before) {
+        return delete(DELETE_ITEMS, cartIds, before);
+    }
+
+    /**
+     * Deletes the carts themselves; call after {@link #deleteItemsOfIdleCarts}.
+     *
+     * @return The number of carts deleted.
+     */
+    public int deleteIdleCarts(List<Long> cartIds, LocalDateTime before) {
+        return delete(DELETE_CARTS, cartIds, before);
+    }
+
+    // --- Helper Methods ---
+
+    private int delete(String sql, List<Long> cartIds, LocalDateTime before) {
+        if (cartIds.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(cartIds.size() + 1);
+        args.add(Timestamp.valueOf(before));
+        args.addAll(cartIds);
+        String placeholders = String.join(", ", Collections.nCopies(cartIds.size(), "?"));
+        return jdbcTemplate.update(String.format(sql, placeholders), args.toArray());
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch writes for the write-behind cart store: carts and cart items are written with IDs that
+ * were assigned in memory, items as upserts so a line can be written any number of times.
+ * Column names follow the JPA mappings of Cart and CartItem.
+ *
+ * Must be called inside a transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CartBatchWriter {
+
+    private static final String INSERT_CART =
+            "INSERT INTO cart (cart_id, customer_id, updated_at) VALUES (?, ?, ?)";
+    private static final String TOUCH_CART =
+            "UPDATE cart SET updated_at = ? WHERE cart_id = ?";
+    private static final String UPSERT_ITEM =
+            "INSERT INTO cart_item (cart_item_id, cart_id, product_id, quantity) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE quantity = VALUES(quantity)";
+    private static final String DELETE_ITEM =
+            "DELETE FROM cart_item WHERE cart_item_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record ItemRow(Long cartItemId, Long cartId, Long productId, int quantity) {}
+
+    /**
+     * @param customerByCart Customer ID per new cart ID.
+     */
+    public void insertCarts(Map<Long, Long> customerByCart, LocalDateTime now) {
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>(customerByCart.size());
+        customerByCart.forEach((cartId, customerId) -> rows.add(new Object[]{cartId, customerId, updatedAt}));
+        batch(INSERT_CART, rows);
+    }
+
+    /**
+     * Sets the last change time of existing carts (see Cart#updatedAt).
+     */
+    public void touchCarts(Collection<Long> cartIds, LocalDateTime now) {
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>(cartIds.size());
+        for (Long cartId : cartIds) {
+            rows.add(new Object[]{updatedAt, cartId});
+        }
+        batch(TOUCH_CART, rows);
+    }
+
+    public void upsertItems(List<ItemRow> items) {
+        List<Object[]> rows = new ArrayList<>(items.size());
+        for (ItemRow item : items) {
+            rows.add(new Object[]{item.cartItemId(), item.cartId(), item.productId(), item.quantity()});
+        }
+        batch(UPSERT_ITEM, rows);
+    }
+
+    public void deleteItems(Collection<Long> cartItemIds) {
+        List<Object[]> rows = new ArrayList<>(cartItemIds.size());
+        for (Long cartItemId : cartItemIds) {
+            rows.add(new Object[]{cartItemId});
+        }
+        batch(DELETE_ITEM, rows);
+    }
+
+    /**
+     * @return The highest cart ID and cart item ID in use, 0 for empty tables.
+     */
+    public long[] findMaxIds() {
+        Long maxCartId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(cart_id), 0) FROM cart", Long.class);
+        Long maxItemId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(cart_item_id), 0) FROM cart_item", Long.class);
+        return new long[]{maxCartId, maxItemId};
+    }
+
+    // --- Helper Methods ---
+
+    private void batch(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.ecommerce.entities.user.LogisticsProvider;
+
+@Repository
+public interface LogisticsProviderRepository extends JpaRepository<LogisticsProvider, Long> {
+
+}
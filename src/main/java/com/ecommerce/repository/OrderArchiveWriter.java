@@ -0,0 +1,68 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entities.order.ArchivedOrder;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC batch writes for order archival: inserts into archived_orders and deletes of the archived
+ * orders from the live tables. Deletes go by order ID through the primary and foreign key indexes,
+ * so they lock only the rows of the orders being archived.
+ *
+ * Must be called inside a transaction (JdbcTemplate joins the JPA transaction's connection).
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderArchiveWriter {
+
+    private static final String INSERT_ARCHIVE =
+            "INSERT INTO archived_orders (order_id, order_number, customer_id, seller_id, status, total_amount, " +
+            "created_at, archived_at, payload) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Children first; return requests are never archived, so nothing else references these rows
+    private static final String[] DELETE_ORDER = {
+            "DELETE FROM shipment WHERE order_id = ?",
+            "DELETE FROM payment WHERE order_id = ?",
+            "DELETE FROM order_item WHERE order_id = ?",
+            "DELETE FROM orders WHERE order_id = ?"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertArchives(List<ArchivedOrder> archives) {
+        List<Object[]> rows = new ArrayList<>(archives.size());
+        for (ArchivedOrder archive : archives) {
+            rows.add(new Object[]{archive.getOrderId(), archive.getOrderNumber(), archive.getCustomerId(),
+                    archive.getSellerId(), archive.getStatus(), archive.getTotalAmount(),
+                    Timestamp.valueOf(archive.getCreatedAt()), Timestamp.valueOf(archive.getArchivedAt()), archive.getPayload()});
+        }
+        batch(INSERT_ARCHIVE, rows);
+    }
+
+    /**
+     * Deletes the orders with their items, payments and shipments.
+     */
+    public void deleteOrders(List<Long> orderIds) {
+        List<Object[]> rows = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            rows.add(new Object[]{orderId});
+        }
+        for (String sql : DELETE_ORDER) {
+            batch(sql, rows);
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private void batch(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ecommerce.entities.order.OrderIdempotencyRecord;
+
+@Repository
+public interface OrderIdempotencyRecordRepository extends JpaRepository<OrderIdempotencyRecord, Long> {
+
+    Optional<OrderIdempotencyRecord> findByCustomerIdAndIdempotencyKey(Long customerId, String idempotencyKey);
+
+    // Frees an expired key so it can be claimed again
+    @Modifying
+    @Query("DELETE FROM OrderIdempotencyRecord r WHERE r.customerId = :customerId AND r.idempotencyKey = :key AND r.expiresAt < :now")
+    int deleteExpired(@Param("customerId") Long customerId, @Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OrderIdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteAllExpired(@Param("now") LocalDateTime now);
+}
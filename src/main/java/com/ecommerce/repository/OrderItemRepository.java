@@ -1,11 +1,24 @@
 package com.ecommerce.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.ecommerce.entities.order.Order;
 import com.ecommerce.entities.order.OrderItem;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     // Usually basic CRUD is enough, items are accessed via the Order entity
-}
\ No newline at end of file
+
+    /**
+     * Units ordered per product, ignoring orders in the given status (typically CANCELLED).
+     * Each row is [productId (Long), units (Long)].
+     */
+    @Query("SELECT oi.product.productId, SUM(oi.quantity) FROM OrderItem oi " +
+           "WHERE oi.order.status <> :excludedStatus GROUP BY oi.product.productId")
+    List<Object[]> sumOrderedQuantityByProduct(@Param("excludedStatus") Order.OrderStatus excludedStatus);
+}
@@ -1,23 +1,88 @@
 package com.ecommerce.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.ecommerce.dto.DtoOrderSummary;
 import com.ecommerce.entities.order.Order;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    // Find orders by Customer ID
-    List<Order> findByCustomerUserId(Long customerId); // Assumes Customer has a userId field
-
     // Find order by unique order number
     Optional<Order> findByOrderNumber(String orderNumber);
 
     // Potentially add methods for finding orders by status, date range, etc.
     // List<Order> findByStatus(Order.OrderStatus status);
-    List<Order> findBySellerUserId(Long sellerId);
 
+    // --- Keyset pages of order summaries, newest first ---
+    // Seek predicate: rows strictly before (afterCreatedAt, afterId) in (createdAt DESC, orderId DESC) order.
+    // Backed by the (customer_id, created_at), (seller_id, created_at) and (created_at) indexes on orders.
+
+    String SUMMARY_SELECT = "SELECT new com.ecommerce.dto.DtoOrderSummary(o.orderId, o.orderNumber, o.status, o.totalAmount, " +
+            "o.createdAt, (SELECT COUNT(i) FROM OrderItem i WHERE i.order = o)) FROM Order o ";
+    String SEEK_AND_ORDER = "(o.createdAt < :afterCreatedAt OR (o.createdAt = :afterCreatedAt AND o.orderId < :afterId)) " +
+            "ORDER BY o.createdAt DESC, o.orderId DESC";
+
+    @Query(SUMMARY_SELECT + "WHERE o.customer.userId = :customerId AND " + SEEK_AND_ORDER)
+    List<DtoOrderSummary> findCustomerSummariesBefore(@Param("customerId") Long customerId,
+                                                      @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                      @Param("afterId") Long afterId,
+                                                      Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE o.seller.userId = :sellerId AND " + SEEK_AND_ORDER)
+    List<DtoOrderSummary> findSellerSummariesBefore(@Param("sellerId") Long sellerId,
+                                                    @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE " + SEEK_AND_ORDER)
+    List<DtoOrderSummary> findSummariesBefore(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    // --- Bulk status updates ---
+
+    // [orderId, status, sellerId, customerId] per order; no entity graph is loaded
+    @Query("SELECT o.orderId, o.status, s.userId, c.userId FROM Order o LEFT JOIN o.seller s LEFT JOIN o.customer c " +
+           "WHERE o.orderId IN :orderIds")
+    List<Object[]> findStatusRowsByIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    // Guarded on the current status, so orders changed concurrently are left alone
+    @Modifying
+    @Query("UPDATE Order o SET o.status = :to, o.updatedAt = :now WHERE o.orderId IN :orderIds AND o.status = :from")
+    int updateStatusWhereStatus(@Param("orderIds") Collection<Long> orderIds,
+                                @Param("from") Order.OrderStatus from,
+                                @Param("to") Order.OrderStatus to,
+                                @Param("now") LocalDateTime now);
+
+    @Query("SELECT o.orderId FROM Order o WHERE o.orderId IN :orderIds AND o.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("orderIds") Collection<Long> orderIds, @Param("status") Order.OrderStatus status);
+
+    // --- Archival ---
+
+    // Completed orders placed before :before, oldest first after the (createdAt, orderId) cursor.
+    // Orders with return requests stay in the live tables. A plain read: takes no row locks.
+    @Query(value = "SELECT o.order_id FROM orders o " +
+                   "WHERE o.created_at < :before " +
+                   "AND (o.created_at > :afterCreatedAt OR (o.created_at = :afterCreatedAt AND o.order_id > :afterId)) " +
+                   "AND o.status IN ('DELIVERED', 'CANCELLED') " +
+                   "AND NOT EXISTS (SELECT 1 FROM order_item i JOIN return_requests r ON r.order_item_id = i.order_item_id " +
+                   "WHERE i.order_id = o.order_id) " +
+                   "ORDER BY o.created_at, o.order_id LIMIT :limit", nativeQuery = true)
+    List<Long> findArchivableIds(@Param("before") LocalDateTime before,
+                                 @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                 @Param("afterId") Long afterId,
+                                 @Param("limit") int limit);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.orderId IN :orderIds")
+    List<Order> findAllWithItemsByIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -0,0 +1,26 @@
+package com.ecommerce.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.ecommerce.entities.OutboxEvent;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Due events (pending, or in progress with an expired lease), oldest first.
+    // SKIP LOCKED lets several instances claim disjoint batches without waiting on each other.
+    @Query(value = "SELECT * FROM outbox_events WHERE status IN ('PENDING', 'IN_PROGRESS') AND next_attempt_at <= :now " +
+                   "ORDER BY event_id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockDueEvents(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = com.ecommerce.entities.OutboxEvent.Status.DONE AND e.processedAt < :before")
+    int deleteDoneBefore(@Param("before") LocalDateTime before);
+}
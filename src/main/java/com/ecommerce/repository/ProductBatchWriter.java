@@ -0,0 +1,285 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.entities.product.Category;
+import com.ecommerce.entities.product.Product;
+import com.ecommerce.entities.product.ProductAttribute;
+import com.ecommerce.entities.product.ProductImage;
+import com.ecommerce.entities.product.ProductVariant;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * JDBC batch writes for products: inserts of the product graph (bulk import), guarded stock
+ * updates (order creation and cancellation) and write-behind stock deltas (hot SKU ledger).
+ * Hibernate cannot batch inserts of IDENTITY-generated entities, so each table is written with one
+ * batched statement per chunk instead; generated keys are read back and set on the entities so child
+ * rows can reference them. Column names follow the JPA mappings of the product entities.
+ *
+ * Must be called inside a transaction (JdbcTemplate joins the JPA transaction's connection).
+ * Stock updates bypass the persistence context; managed Product instances keep their old stockQuantity.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductBatchWriter {
+
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO product (name, description, price, stock_quantity, seller_id, brand, model, dimensions, weight, " +
+            "color, warranty, average_rating, review_count, is_approved, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_KEY_FEATURE =
+            "INSERT INTO product_key_features (product_product_id, key_features) VALUES (?, ?)";
+    private static final String INSERT_SPECIFICATION =
+            "INSERT INTO product_specifications (product_product_id, specifications_key, specifications) VALUES (?, ?, ?)";
+    private static final String INSERT_PRODUCT_CATEGORY =
+            "INSERT INTO product_category (product_id, category_id) VALUES (?, ?)";
+    private static final String INSERT_IMAGE =
+            "INSERT INTO product_image (product_id, image_url, is_primary, alt_text) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_VARIANT =
+            "INSERT INTO product_variant (product_id, sku, price_adjustment, stock_quantity) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_ATTRIBUTE =
+            "INSERT INTO product_attribute (product_id, variant_id, name, value, unit, attribute_group, display_order, " +
+            "is_key_spec, is_filterable) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DECREMENT_STOCK =
+            "UPDATE product SET stock_quantity = stock_quantity - ? WHERE product_id = ? AND stock_quantity >= ?";
+    private static final String INCREMENT_STOCK =
+            "UPDATE product SET stock_quantity = stock_quantity + ? WHERE product_id = ?";
+    private static final String APPLY_STOCK_DELTA =
+            "UPDATE product SET stock_quantity = stock_quantity - ? WHERE product_id = ? AND stock_quantity >= ?";
+    private static final String SELECT_STOCK_FOR_UPDATE =
+            "SELECT stock_quantity FROM product WHERE product_id = ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Takes stock from several products in one batch. Each row is a guarded update
+     * ({@code stock >= quantity}), so a product is only decremented if enough stock is left.
+     * Rows are sent in the map's iteration order; pass a map sorted by product ID so that concurrent
+     * callers lock rows in the same order.
+     *
+     * @param quantitiesByProduct Units to take per product ID; quantities must be positive.
+     * @return IDs of the products whose stock was insufficient (nothing was taken from them).
+     *         The caller is expected to roll back if this is not empty.
+     */
+    public List<Long> decrementStockIfAvailable(Map<Long, Integer> quantitiesByProduct) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantitiesByProduct.entrySet());
+        int[] counts = jdbcTemplate.batchUpdate(DECREMENT_STOCK, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setInt(1, entries.get(i).getValue());
+                ps.setLong(2, entries.get(i).getKey());
+                ps.setInt(3, entries.get(i).getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+        List<Long> insufficient = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                insufficient.add(entries.get(i).getKey());
+            }
+        }
+        return insufficient;
+    }
+
+    /**
+     * Returns stock to several products in one batch.
+     *
+     * @param quantitiesByProduct Units to return per product ID, ideally sorted by product ID.
+     * @return IDs of products that no longer exist (nothing was updated for them).
+     */
+    public List<Long> incrementStock(Map<Long, Integer> quantitiesByProduct) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantitiesByProduct.entrySet());
+        List<Object[]> rows = new ArrayList<>(entries.size());
+        for (Map.Entry<Long, Integer> entry : entries) {
+            rows.add(new Object[]{entry.getValue(), entry.getKey()});
+        }
+        int[] counts = rows.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(INCREMENT_STOCK, rows);
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missing.add(entries.get(i).getKey());
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Applies net stock changes that were already accounted for elsewhere: positive values are units
+     * sold, negative values units returned. Guarded like {@link #decrementStockIfAvailable(Map)}, so
+     * stock never goes negative.
+     *
+     * @param soldByProduct Net units to subtract per product ID, ideally sorted by product ID.
+     * @return IDs of products that no longer exist or have less stock than the units sold
+     *         (nothing was updated for them).
+     */
+    public List<Long> applyStockDeltas(Map<Long, Long> soldByProduct) {
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(soldByProduct.entrySet());
+        List<Object[]> rows = new ArrayList<>(entries.size());
+        for (Map.Entry<Long, Long> entry : entries) {
+            rows.add(new Object[]{entry.getValue(), entry.getKey(), entry.getValue()});
+        }
+        int[] counts = rows.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(APPLY_STOCK_DELTA, rows);
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                missing.add(entries.get(i).getKey());
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Reads a product's stock and locks its row until the surrounding transaction ends, so no
+     * concurrent guarded decrement can change it in between.
+     *
+     * @return The stock quantity, or null if the product does not exist.
+     */
+    public Integer lockStockQuantity(Long productId) {
+        List<Integer> stock = jdbcTemplate.queryForList(SELECT_STOCK_FOR_UPDATE, Integer.class, productId);
+        return stock.isEmpty() ? null : stock.get(0);
+    }
+
+    /**
+     * Inserts the products and their key features, specifications and category links.
+     * Sets the generated productId on each product.
+     */
+    public void insertProducts(List<Product> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        List<Long> ids = insertReturningKeys(INSERT_PRODUCT, products, (ps, product) -> {
+            Timestamp now = Timestamp.valueOf(product.getCreatedAt());
+            ps.setString(1, product.getName());
+            ps.setString(2, product.getDescription());
+            ps.setBigDecimal(3, product.getPrice());
+            ps.setInt(4, product.getStockQuantity());
+            ps.setLong(5, product.getSeller().getUserId());
+            ps.setString(6, product.getBrand());
+            ps.setString(7, product.getModel());
+            ps.setString(8, product.getDimensions());
+            ps.setString(9, product.getWeight());
+            ps.setString(10, product.getColor());
+            ps.setString(11, product.getWarranty());
+            ps.setNull(12, Types.DOUBLE);
+            ps.setNull(13, Types.INTEGER);
+            ps.setBoolean(14, product.isApproved());
+            ps.setTimestamp(15, now);
+            ps.setTimestamp(16, now);
+        });
+        for (int i = 0; i < products.size(); i++) {
+            products.get(i).setProductId(ids.get(i));
+        }
+
+        List<Object[]> keyFeatures = new ArrayList<>();
+        List<Object[]> specifications = new ArrayList<>();
+        List<Object[]> categories = new ArrayList<>();
+        for (Product product : products) {
+            for (String feature : product.getKeyFeatures()) {
+                keyFeatures.add(new Object[]{product.getProductId(), feature});
+            }
+            for (Map.Entry<String, String> spec : product.getSpecifications().entrySet()) {
+                specifications.add(new Object[]{product.getProductId(), spec.getKey(), spec.getValue()});
+            }
+            for (Category category : product.getCategories()) {
+                categories.add(new Object[]{product.getProductId(), category.getCategoryId()});
+            }
+        }
+        batch(INSERT_KEY_FEATURE, keyFeatures);
+        batch(INSERT_SPECIFICATION, specifications);
+        batch(INSERT_PRODUCT_CATEGORY, categories);
+    }
+
+    /**
+     * Inserts images; their products must already have ids.
+     */
+    public void insertImages(List<ProductImage> images) {
+        List<Object[]> rows = new ArrayList<>(images.size());
+        for (ProductImage image : images) {
+            rows.add(new Object[]{image.getProduct().getProductId(), image.getImageUrl(), image.isPrimary(), image.getAltText()});
+        }
+        batch(INSERT_IMAGE, rows);
+    }
+
+    /**
+     * Inserts variants and their attributes; their products must already have ids.
+     * Sets the generated variantId on each variant.
+     */
+    public void insertVariants(List<ProductVariant> variants) {
+        if (variants.isEmpty()) {
+            return;
+        }
+        List<Long> ids = insertReturningKeys(INSERT_VARIANT, variants, (ps, variant) -> {
+            ps.setLong(1, variant.getProduct().getProductId());
+            ps.setString(2, variant.getSku());
+            ps.setBigDecimal(3, variant.getPriceAdjustment());
+            ps.setInt(4, variant.getStockQuantity());
+        });
+        List<Object[]> attributes = new ArrayList<>();
+        for (int i = 0; i < variants.size(); i++) {
+            ProductVariant variant = variants.get(i);
+            variant.setVariantId(ids.get(i));
+            for (ProductAttribute attr : variant.getAttributes()) {
+                attributes.add(new Object[]{variant.getProduct().getProductId(), variant.getVariantId(), attr.getName(),
+                        attr.getValue(), attr.getUnit(), attr.getAttributeGroup(), attr.getDisplayOrder(),
+                        attr.isKeySpec(), attr.isFilterable()});
+            }
+        }
+        batch(INSERT_ATTRIBUTE, attributes);
+    }
+
+    // --- Helper Methods ---
+
+    private void batch(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    private <T> List<Long> insertReturningKeys(String sql, List<T> items, RowBinder<T> binder) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        binder.bind(ps, items.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return items.size();
+                    }
+                },
+                keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != items.size()) {
+            throw new IllegalStateException("Expected " + items.size() + " generated keys but got " + keys.size());
+        }
+        Function<Map<String, Object>, Long> firstKey = row -> ((Number) row.values().iterator().next()).longValue();
+        return keys.stream().map(firstKey).toList();
+    }
+
+    @FunctionalInterface
+    private interface RowBinder<T> {
+        void bind(PreparedStatement ps, T item) throws SQLException;
+    }
+}
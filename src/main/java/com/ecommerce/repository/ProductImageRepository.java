@@ -1,9 +1,12 @@
 package com.ecommerce.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ecommerce.entities.product.ProductImage;
@@ -18,4 +21,11 @@ public interface ProductImageRepository extends JpaRepository<ProductImage, Long
     Optional<ProductImage> findByProductProductIdAndIsPrimary(Long productId, boolean isPrimary);
     Optional<ProductImage> findFirstByProductProductIdOrderByImageIdAsc(Long productId);
     void deleteByProductProductId(Long productId); // Ensure transactional safety
+
+    /**
+     * Returns (productId, imageUrl, isPrimary) rows for all images of the given products,
+     * ordered by image ID. Lets a whole page of summaries resolve its images in one query.
+     */
+    @Query("SELECT i.product.productId, i.imageUrl, i.isPrimary FROM ProductImage i WHERE i.product.productId IN :productIds ORDER BY i.imageId ASC")
+    List<Object[]> findImageUrlsByProductIds(@Param("productIds") Collection<Long> productIds);
 }
@@ -1,10 +1,14 @@
 package com.ecommerce.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
 import org.springframework.boot.autoconfigure.data.web.SpringDataWebProperties.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -47,6 +51,83 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
      */
     Page<Product> findByCategoriesContains(Category category, org.springframework.data.domain.Pageable pageable);
 
+    /**
+     * Returns product IDs greater than the given ID in ascending order.
+     * Used to walk the whole catalog in chunks (e.g., when building the search index).
+     *
+     * @param afterId  Exclusive lower bound for the product ID (use 0 to start from the beginning).
+     * @param pageable Limits the chunk size; only the page size is relevant.
+     * @return Ascending list of product IDs.
+     */
+    @Query("SELECT p.productId FROM Product p WHERE p.productId > :afterId ORDER BY p.productId")
+    List<Long> findProductIdsAfter(@Param("afterId") Long afterId, org.springframework.data.domain.Pageable pageable);
+
+    /**
+     * @param productIds IDs to check.
+     * @return Those of the given IDs that belong to existing products.
+     */
+    @Query("SELECT p.productId FROM Product p WHERE p.productId IN :productIds")
+    List<Long> findExistingIds(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Loads the given products together with their categories in a single query.
+     *
+     * @param productIds IDs of the products to load.
+     * @return Products found (order is not guaranteed).
+     */
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.categories WHERE p.productId IN :productIds")
+    List<Product> findAllWithCategoriesByIdIn(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Loads the given products together with their sellers in a single query.
+     * Used by order creation to resolve all line items at once.
+     *
+     * @param productIds IDs of the products to load.
+     * @return Products found (order is not guaranteed).
+     */
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.seller WHERE p.productId IN :productIds")
+    List<Product> findAllWithSellerByIdIn(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Walks the whole catalog in product ID order, handing each chunk (with categories loaded)
+     * to the consumer. Each chunk is two short queries, so no long-running transaction or
+     * full-table result set is held. Used to build in-memory product indexes.
+     *
+     * @param chunkSize Number of products per chunk.
+     * @param consumer  Receives each chunk.
+     * @return Total number of products visited.
+     */
+    default int forEachChunkWithCategories(int chunkSize, Consumer<List<Product>> consumer) {
+        int visited = 0;
+        Long afterId = 0L;
+        List<Long> ids;
+        do {
+            ids = findProductIdsAfter(afterId, org.springframework.data.domain.PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Product> chunk = findAllWithCategoriesByIdIn(ids);
+            consumer.accept(chunk);
+            visited += chunk.size();
+            afterId = ids.get(ids.size() - 1);
+        } while (ids.size() == chunkSize);
+        return visited;
+    }
+
+    /**
+     * Keyset (seek) page: rows matching the specification (which should include the seek
+     * predicate built from the cursor), ordered by the given sort and capped at the limit.
+     * Unlike findAll(spec, pageable) this issues no COUNT query and no OFFSET.
+     *
+     * @param spec  Filters plus the (sort key, product_id) seek predicate.
+     * @param sort  Sort on the seek columns.
+     * @param limit Maximum number of rows to return.
+     * @return Up to limit products.
+     */
+    default List<Product> findSeekPage(Specification<Product> spec, Sort sort, int limit) {
+        return findBy(spec, query -> query.sortBy(sort).limit(limit).all());
+    }
+
     // Note: JpaRepository already provides:
     // - Optional<Product> findById(Long productId)
     // - Page<Product> findAll(Pageable pageable)
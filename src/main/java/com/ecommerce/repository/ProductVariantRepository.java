@@ -3,6 +3,8 @@ package com.ecommerce.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.ecommerce.entities.product.ProductVariant;
@@ -14,4 +16,14 @@ public interface ProductVariantRepository extends JpaRepository<ProductVariant,
 
     List<ProductVariant> findByProductProductId(Long productId);
     void deleteByProductProductId(Long productId); // Ensure transactional safety
+
+    /**
+     * Loads all variants of a product together with their attributes in a single query,
+     * instead of one attribute query per variant.
+     *
+     * @param productId The ID of the product.
+     * @return Variants of the product (ordered by variant ID) with attributes initialized.
+     */
+    @Query("SELECT DISTINCT v FROM ProductVariant v LEFT JOIN FETCH v.attributes WHERE v.product.productId = :productId ORDER BY v.variantId")
+    List<ProductVariant> findWithAttributesByProductId(@Param("productId") Long productId);
 }
@@ -0,0 +1,162 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.dto.DtoProductSales;
+import com.ecommerce.entities.order.Order;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the seller sales rollup tables (seller_order_status_counts, seller_daily_sales,
+ * seller_product_sales). Writes are additive upserts ({@code count = count + delta}), so concurrent
+ * orders of the same seller never overwrite each other's changes; reads touch a seller's rows by key
+ * only and do not depend on the number of orders.
+ *
+ * Upserts must be called inside a transaction. Rows are written in the order given; pass them sorted
+ * by key so concurrent callers lock the same rows in the same order.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SellerMetricsRepository {
+
+    private static final String UPSERT_STATUS_COUNT =
+            "INSERT INTO seller_order_status_counts (seller_id, status, order_count) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count)";
+    private static final String UPSERT_DAILY_SALES =
+            "INSERT INTO seller_daily_sales (seller_id, sales_date, orders_placed, orders_cancelled, revenue) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE orders_placed = orders_placed + VALUES(orders_placed), " +
+            "orders_cancelled = orders_cancelled + VALUES(orders_cancelled), revenue = revenue + VALUES(revenue)";
+    private static final String UPSERT_PRODUCT_SALES =
+            "INSERT INTO seller_product_sales (seller_id, product_id, units_sold, revenue) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE units_sold = units_sold + VALUES(units_sold), revenue = revenue + VALUES(revenue)";
+
+    private static final String SELECT_STATUS_COUNTS =
+            "SELECT status, order_count FROM seller_order_status_counts WHERE seller_id = ?";
+    private static final String SELECT_REVENUE =
+            "SELECT COALESCE(SUM(CASE WHEN sales_date >= ? THEN revenue END), 0), " +
+            "COALESCE(SUM(CASE WHEN sales_date >= ? THEN revenue END), 0), COALESCE(SUM(revenue), 0) " +
+            "FROM seller_daily_sales WHERE seller_id = ? AND sales_date >= ?";
+    private static final String SELECT_TOP_PRODUCTS =
+            "SELECT s.product_id, p.name, s.units_sold, s.revenue FROM seller_product_sales s " +
+            "LEFT JOIN product p ON p.product_id = s.product_id " +
+            "WHERE s.seller_id = ? ORDER BY s.units_sold DESC, s.product_id LIMIT ?";
+
+    // Full rebuild from the orders tables (initial backfill)
+    private static final String[] REBUILD = {
+            "DELETE FROM seller_order_status_counts",
+            "INSERT INTO seller_order_status_counts (seller_id, status, order_count) " +
+            "SELECT seller_id, status, COUNT(*) FROM orders WHERE seller_id IS NOT NULL GROUP BY seller_id, status",
+            "DELETE FROM seller_daily_sales",
+            "INSERT INTO seller_daily_sales (seller_id, sales_date, orders_placed, orders_cancelled, revenue) " +
+            "SELECT seller_id, DATE(created_at), COUNT(*), SUM(CASE WHEN status = 'CANCELLED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN status = 'CANCELLED' THEN 0 ELSE total_amount END) " +
+            "FROM orders WHERE seller_id IS NOT NULL GROUP BY seller_id, DATE(created_at)",
+            "DELETE FROM seller_product_sales",
+            "INSERT INTO seller_product_sales (seller_id, product_id, units_sold, revenue) " +
+            "SELECT o.seller_id, i.product_id, SUM(i.quantity), SUM(i.quantity * i.price_at_purchase) " +
+            "FROM order_item i JOIN orders o ON o.order_id = i.order_id " +
+            "WHERE o.seller_id IS NOT NULL AND i.product_id IS NOT NULL AND o.status <> 'CANCELLED' " +
+            "GROUP BY o.seller_id, i.product_id"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record StatusCountDelta(Long sellerId, Order.OrderStatus status, long count) {}
+
+    public record DailySalesDelta(Long sellerId, LocalDate salesDate, long ordersPlaced, long ordersCancelled, BigDecimal revenue) {}
+
+    public record ProductSalesDelta(Long sellerId, Long productId, long unitsSold, BigDecimal revenue) {}
+
+    /**
+     * Adds the deltas to the rollup rows in three batches, creating rows that do not exist yet.
+     */
+    public void applyDeltas(List<StatusCountDelta> statusCounts, List<DailySalesDelta> dailySales,
+                            List<ProductSalesDelta> productSales) {
+        List<Object[]> rows = new ArrayList<>(statusCounts.size());
+        for (StatusCountDelta delta : statusCounts) {
+            rows.add(new Object[]{delta.sellerId(), delta.status().name(), delta.count()});
+        }
+        batch(UPSERT_STATUS_COUNT, rows);
+
+        rows = new ArrayList<>(dailySales.size());
+        for (DailySalesDelta delta : dailySales) {
+            rows.add(new Object[]{delta.sellerId(), Date.valueOf(delta.salesDate()), delta.ordersPlaced(),
+                    delta.ordersCancelled(), delta.revenue()});
+        }
+        batch(UPSERT_DAILY_SALES, rows);
+
+        rows = new ArrayList<>(productSales.size());
+        for (ProductSalesDelta delta : productSales) {
+            rows.add(new Object[]{delta.sellerId(), delta.productId(), delta.unitsSold(), delta.revenue()});
+        }
+        batch(UPSERT_PRODUCT_SALES, rows);
+    }
+
+    /**
+     * @return The seller's order count per status; statuses without orders are 0.
+     */
+    public Map<Order.OrderStatus, Long> findStatusCounts(Long sellerId) {
+        Map<Order.OrderStatus, Long> counts = new EnumMap<>(Order.OrderStatus.class);
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            counts.put(status, 0L);
+        }
+        jdbcTemplate.query(SELECT_STATUS_COUNTS, rs -> {
+            counts.put(Order.OrderStatus.valueOf(rs.getString(1)), rs.getLong(2));
+        }, sellerId);
+        return counts;
+    }
+
+    /**
+     * Sums the seller's daily revenue over the last 1, 7 and 30 days (reads at most 30 rows).
+     *
+     * @return [today, last 7 days, last 30 days], each including today.
+     */
+    public BigDecimal[] findRevenue(Long sellerId, LocalDate today) {
+        return jdbcTemplate.queryForObject(SELECT_REVENUE, (rs, rowNum) -> new BigDecimal[]{
+                rs.getBigDecimal(1), rs.getBigDecimal(2), rs.getBigDecimal(3)
+        }, Date.valueOf(today), Date.valueOf(today.minusDays(6)), sellerId, Date.valueOf(today.minusDays(29)));
+    }
+
+    /**
+     * @return The seller's best-selling products by units sold, at most {@code limit}.
+     */
+    public List<DtoProductSales> findTopProducts(Long sellerId, int limit) {
+        return jdbcTemplate.query(SELECT_TOP_PRODUCTS, (rs, rowNum) -> new DtoProductSales(
+                rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getBigDecimal(4)), sellerId, limit);
+    }
+
+    /**
+     * @return true if no status counts have been recorded yet.
+     */
+    public boolean isEmpty() {
+        return jdbcTemplate.queryForList("SELECT 1 FROM seller_order_status_counts LIMIT 1").isEmpty();
+    }
+
+    /**
+     * Recomputes all rollup rows from the orders. Orders written concurrently may be counted twice
+     * or not at all, so run it while checkout is idle (e.g. on an empty rollup at startup). Archived
+     * orders are no longer in the orders tables and are not counted by a rebuild.
+     */
+    public void rebuild() {
+        for (String sql : REBUILD) {
+            jdbcTemplate.update(sql);
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private void batch(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+}
@@ -2,6 +2,10 @@
 package com.ecommerce.services;
 
 import com.ecommerce.dto.DtoCart; //
+import com.ecommerce.dto.DtoCartOperation;
+import com.ecommerce.dto.DtoGuestCart;
+
+import java.util.List;
 
 public interface CartService {
 
@@ -49,4 +53,68 @@ public interface CartService {
      * @return The empty cart DTO. //
      */
     DtoCart clearCart(Long customerId);
+
+    /**
+     * Applies several add, update and remove operations to the customer's cart at once, in order.
+     * Either all operations are applied or none (e.g. if one of them exceeds the stock).
+     *
+     * @param customerId The ID of the customer.
+     * @param operations The operations to apply.
+     * @return The updated cart DTO.
+     */
+    DtoCart applyCartOperations(Long customerId, List<DtoCartOperation> operations);
+
+    // --- Guest carts (visitors who are not logged in; items are addressed by product ID) ---
+
+    /**
+     * Issues a token for a new, empty guest cart. Nothing is stored until the first item is added.
+     *
+     * @return The new cart together with the token that addresses it.
+     */
+    DtoGuestCart createGuestCart();
+
+    /**
+     * @param guestToken The guest cart token.
+     * @return The guest cart DTO (no cart or cart item IDs).
+     */
+    DtoCart getGuestCart(String guestToken);
+
+    /**
+     * Adds a product to a guest cart or increases its quantity.
+     *
+     * @param guestToken The guest cart token.
+     * @param productId  The ID of the product to add.
+     * @param quantity   The quantity to add.
+     * @return The updated guest cart DTO.
+     */
+    DtoCart addItemToGuestCart(String guestToken, Long productId, int quantity);
+
+    /**
+     * Sets the quantity of a product in a guest cart.
+     *
+     * @param guestToken The guest cart token.
+     * @param productId  The ID of the product in the cart.
+     * @param quantity   The new quantity (must be > 0).
+     * @return The updated guest cart DTO.
+     */
+    DtoCart updateGuestCartItemQuantity(String guestToken, Long productId, int quantity);
+
+    /**
+     * Removes a product from a guest cart.
+     *
+     * @param guestToken The guest cart token.
+     * @param productId  The ID of the product to remove.
+     * @return The updated guest cart DTO.
+     */
+    DtoCart removeItemFromGuestCart(String guestToken, Long productId);
+
+    /**
+     * Adds all items of a guest cart to the customer's cart in one batch and discards the guest cart.
+     * Quantities are capped at the available stock; products that are gone or out of stock are skipped.
+     *
+     * @param customerId The ID of the customer who just logged in.
+     * @param guestToken The guest cart token.
+     * @return The customer's updated cart DTO.
+     */
+    DtoCart mergeGuestCart(Long customerId, String guestToken);
 }
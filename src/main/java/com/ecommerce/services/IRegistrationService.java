@@ -17,4 +17,6 @@ public interface IRegistrationService {
     public Seller sellerRegistration(Seller seller);
 
     public String verify(User user); // This method is used for login verification
+
+    public String verify(User user, String guestCartToken); // Login that also merges the guest cart into the customer's cart
 }
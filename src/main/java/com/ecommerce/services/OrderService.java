@@ -2,8 +2,11 @@ package com.ecommerce.services;
 
 import java.util.List;
 
+import com.ecommerce.dto.DtoBulkOrderStatusResponse;
+import com.ecommerce.dto.DtoCursorPage;
 import com.ecommerce.dto.DtoOrderRequest;
 import com.ecommerce.dto.DtoOrderResponse;
+import com.ecommerce.dto.DtoOrderSummary;
 import com.ecommerce.entities.order.Order.OrderStatus;
 
 public interface OrderService {
@@ -14,12 +17,6 @@ public interface OrderService {
     // Returns DtoOrderResponse
     DtoOrderResponse getOrderById(Long orderId, Long userId, String userRole);
 
-    // Returns List<DtoOrderResponse>
-    List<DtoOrderResponse> getOrdersByCustomerId(Long customerId);
-
-    // Returns List<DtoOrderResponse>
-    List<DtoOrderResponse> getAllOrders(/* Add Pagination Params */);
-
     // Returns DtoOrderResponse
     DtoOrderResponse updateOrderStatus(Long orderId, OrderStatus newStatus, Long userId);
 
@@ -28,6 +25,17 @@ public interface OrderService {
 
     // No longer public needed if using Mappers
     // DtoOrderResponse convertToDto(Order order);
-    
-    List<DtoOrderResponse> getOrdersForCurrentSeller(Long sellerId);
+
+    // Keyset pages of flat order summaries, newest first; cursor is the nextCursor of the previous page (null for the first)
+    DtoCursorPage<DtoOrderSummary> getOrderSummariesForCustomer(Long customerId, String cursor, int size);
+
+    DtoCursorPage<DtoOrderSummary> getOrderSummariesForSeller(Long sellerId, String cursor, int size);
+
+    DtoCursorPage<DtoOrderSummary> getAllOrderSummaries(String cursor, int size);
+
+    // Moves many orders to one status with set-based updates; per-order outcomes. sellerId null = admin (any order)
+    DtoBulkOrderStatusResponse updateOrderStatuses(List<Long> orderIds, OrderStatus targetStatus, Long sellerId);
+
+    // Full order detail for the seller the order belongs to
+    DtoOrderResponse getOrderForSeller(Long orderId, Long sellerId);
 }
@@ -0,0 +1,33 @@
+package com.ecommerce.services;
+
+import com.ecommerce.dto.DtoImportResult;
+
+import java.io.InputStream;
+
+/**
+ * Service interface for bulk product import by sellers.
+ */
+public interface ProductImportService {
+
+    /**
+     * Supported body formats.
+     */
+    enum Format {
+        NDJSON, // One DtoProduct JSON object per line
+        CSV     // Header row plus one product per record; see ProductImportServiceImpl for the columns
+    }
+
+    /**
+     * Streams products from the input and inserts them for the seller in chunks.
+     * Rows are validated one by one; invalid rows are reported and skipped without aborting the import.
+     * Rows already written are kept even if a later chunk fails.
+     *
+     * @param sellerId The ID of the seller the products belong to.
+     * @param input    The request body; read once, never fully buffered.
+     * @param format   Body format.
+     * @return Counts and per-row errors.
+     * @throws java.util.NoSuchElementException if the seller does not exist.
+     * @throws IllegalArgumentException if the input cannot be read at all (e.g. missing CSV header columns).
+     */
+    DtoImportResult importProducts(Long sellerId, InputStream input, Format format);
+}
@@ -1,9 +1,13 @@
 package com.ecommerce.services;
 
 import com.ecommerce.dto.DtoCategory;
+import com.ecommerce.dto.DtoCursorPage;
 // Import user-provided DTOs
 import com.ecommerce.dto.DtoProduct;
+import com.ecommerce.dto.DtoProductDetailCacheStats;
+import com.ecommerce.dto.DtoProductFacets;
 import com.ecommerce.dto.DtoProductSummary;
+import com.ecommerce.dto.DtoSuggestion;
 // Removed custom exception import
 // import com.ecommerce.exception.ResourceNotFoundException;
 
@@ -44,10 +48,27 @@ public interface ProductService {
      */
     DtoProduct getProductById(Long productId);
 
+    /**
+     * Returns hit/miss/eviction counters of the product detail cache behind {@link #getProductById(Long)}.
+     *
+     * @return DtoProductDetailCacheStats snapshot.
+     */
+    DtoProductDetailCacheStats getProductDetailCacheStats();
+
     
     
     
     Page<DtoProductSummary> searchProducts(String searchTerm, Pageable pageable); // <-- YENİ METOT
+
+    /**
+     * Returns typeahead suggestions (product names, brands, models, category names) for a prefix,
+     * most popular first. Served entirely from memory.
+     *
+     * @param prefix Text typed so far.
+     * @param limit  Maximum number of suggestions.
+     * @return A List of DtoSuggestion; empty for a blank prefix.
+     */
+    List<DtoSuggestion> suggestProducts(String prefix, int limit);
     
     
     
@@ -81,6 +102,29 @@ public interface ProductService {
      */
     Page<DtoProductSummary> getProductsByCategory(Long categoryId, Pageable pageable);
 
+    /**
+     * Keyset-paginated variant of {@link #getAllProducts(Pageable)}.
+     * Skips the COUNT query and keeps latency flat however deep the client scrolls.
+     *
+     * @param cursor   Opaque cursor from the previous page's nextCursor; blank for the first page.
+     * @param pageable Page size and sort (productId, price, name or createdAt; defaults to productId ASC).
+     *                 The page number is ignored.
+     * @return A DtoCursorPage of DtoProductSummary.
+     * @throws IllegalArgumentException if the cursor is malformed or the sort key is not supported.
+     */
+    DtoCursorPage<DtoProductSummary> getAllProductsAfter(String cursor, Pageable pageable);
+
+    /**
+     * Keyset-paginated variant of {@link #getProductsByCategory(Long, Pageable)}.
+     *
+     * @param categoryId The ID of the category.
+     * @param cursor     Opaque cursor from the previous page; blank for the first page.
+     * @param pageable   Page size and sort.
+     * @return A DtoCursorPage of DtoProductSummary for the given category.
+     * @throws RuntimeException if the category with the given ID is not found.
+     */
+    DtoCursorPage<DtoProductSummary> getProductsByCategoryAfter(Long categoryId, String cursor, Pageable pageable);
+
 
     /**
      * Updates an existing product.
@@ -145,12 +189,48 @@ public interface ProductService {
             // Add other potential filter parameters here (e.g., String brand, Double minRating)
             Pageable pageable);
 
+    /**
+     * Keyset-paginated variant of {@link #filterProducts(String, Long, BigDecimal, BigDecimal, Pageable)}.
+     *
+     * @param cursor Opaque cursor from the previous page; blank for the first page.
+     * @return A DtoCursorPage of DtoProductSummary matching the criteria.
+     */
+    DtoCursorPage<DtoProductSummary> filterProductsAfter(
+            String searchTerm,
+            Long categoryId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String cursor,
+            Pageable pageable);
+
+    /**
+     * Computes facet counts (brand, category, price range, rating, approval) for the products
+     * matching the same criteria as {@link #filterProducts(String, Long, BigDecimal, BigDecimal, Pageable)}.
+     *
+     * @return DtoProductFacets with the total match count and per-facet counts.
+     * @throws IllegalStateException if the facet index is still being built.
+     */
+    DtoProductFacets getFilterFacets(
+            String searchTerm,
+            Long categoryId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice);
+
     /**
      * Retrieves a list of all available categories.
      *
      * @return A List of DtoCategory objects.
      */
     List<DtoCategory> getAllCategories(); 
+
+    /**
+     * Returns the current version of the category list. It is derived from the categories themselves,
+     * so it changes whenever they do and is the same on every instance; it can be used as an ETag
+     * for {@link #getAllCategories()}.
+     *
+     * @return The category list version.
+     */
+    long getCategoriesVersion();
     // Page<DtoProductSummary> searchProducts(String searchTerm, Long categoryId, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
 
     
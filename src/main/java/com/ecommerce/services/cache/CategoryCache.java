@@ -0,0 +1,179 @@
+package com.ecommerce.services.cache;
+
+import com.ecommerce.config.TransactionUtils;
+import com.ecommerce.dto.DtoCategory;
+import com.ecommerce.entities.product.Category;
+import com.ecommerce.repository.CategoryRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versioned read-through cache of all categories.
+ * The category table is small and changes rarely, so the whole table is held as one immutable snapshot.
+ * Writers call {@link #invalidate()}, which bumps an internal generation once their transaction commits;
+ * the next reader sees the generation mismatch and reloads the snapshot.
+ *
+ * The public version, used as the ETag of GET /api/v1/products/categories, is a hash of the loaded
+ * categories rather than a counter: it is the same on every instance and across restarts, and it only
+ * changes when the categories do, not on every reload.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryCache {
+
+    private final CategoryRepository categoryRepository;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong lastMissReload = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    @Value("${category.cache.miss-reload-interval-ms:5000}")
+    private long missReloadIntervalMs;
+
+    /**
+     * @return The current category version, a hash of the cached categories; changes whenever they do.
+     */
+    public long getVersion() {
+        return current().version();
+    }
+
+    /**
+     * @return All categories in id order. The list is shared and must not be modified.
+     */
+    public List<DtoCategory> getAll() {
+        return current().categories();
+    }
+
+    /**
+     * @return The category with the given id, or null if it does not exist.
+     */
+    public DtoCategory get(Long categoryId) {
+        return current().byId().get(categoryId);
+    }
+
+    /**
+     * @return true if a category with the given id exists.
+     */
+    public boolean exists(Long categoryId) {
+        return get(categoryId) != null;
+    }
+
+    /**
+     * Returns the ids that are not known categories. If some ids are unknown, the snapshot is
+     * reloaded before answering, in case the category was created on another instance. Such reloads
+     * happen at most once per category.cache.miss-reload-interval-ms, so a stream of unknown ids
+     * (an import with a bad category column, say) does not reload the table for every row.
+     *
+     * @param categoryIds Ids to check.
+     * @return The unknown ids; empty if all exist.
+     */
+    public Set<Long> findMissing(Collection<Long> categoryIds) {
+        Set<Long> missing = missingFrom(current(), categoryIds);
+        if (!missing.isEmpty() && claimMissReload()) {
+            generation.incrementAndGet();
+            missing = missingFrom(current(), missing);
+        }
+        return missing;
+    }
+
+    /**
+     * Builds a detached Category carrying the cached id, name and description. It can be used
+     * to set product-category associations without loading the category from the database.
+     *
+     * @throws NoSuchElementException if the id is not a known category.
+     */
+    public Category toReference(Long categoryId) {
+        DtoCategory cached = get(categoryId);
+        if (cached == null) {
+            throw new NoSuchElementException("Category not found with id: " + categoryId);
+        }
+        Category category = new Category();
+        category.setCategoryId(cached.getCategoryId());
+        category.setName(cached.getName());
+        category.setDescription(cached.getDescription());
+        return category;
+    }
+
+    /**
+     * Bumps the generation after the current transaction commits, forcing a reload on next access.
+     */
+    public void invalidate() {
+        TransactionUtils.afterCommit(generation::incrementAndGet);
+    }
+
+    // --- Helper Methods ---
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && current.generation() == generation.get()) {
+            return current;
+        }
+        synchronized (this) {
+            long wanted = generation.get();
+            current = snapshot;
+            if (current == null || current.generation() != wanted) {
+                // If the generation moves while loading, the snapshot is stale on arrival and reloaded by the next reader
+                current = load(wanted);
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    private boolean claimMissReload() {
+        long now = System.currentTimeMillis();
+        long last = lastMissReload.get();
+        return now - last >= missReloadIntervalMs && lastMissReload.compareAndSet(last, now);
+    }
+
+    private Snapshot load(long loadedGeneration) {
+        Map<Long, DtoCategory> byId = new LinkedHashMap<>();
+        long hash = 17;
+        for (Category category : categoryRepository.findAll(Sort.by("categoryId"))) {
+            byId.put(category.getCategoryId(),
+                    new DtoCategory(category.getCategoryId(), category.getName(), category.getDescription()));
+            hash = 31 * hash + category.getCategoryId();
+            hash = 31 * hash + stringHash(category.getName());
+            hash = 31 * hash + stringHash(category.getDescription());
+        }
+        return new Snapshot(loadedGeneration, hash & Long.MAX_VALUE, List.copyOf(byId.values()), Map.copyOf(byId));
+    }
+
+    // 64-bit FNV-1a, so that the version does not collide as easily as a sum of 32-bit String hashes
+    private static long stringHash(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static Set<Long> missingFrom(Snapshot snapshot, Collection<Long> categoryIds) {
+        Set<Long> missing = new HashSet<>();
+        for (Long id : categoryIds) {
+            if (!snapshot.byId().containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        return missing;
+    }
+
+    private record Snapshot(long generation, long version, List<DtoCategory> categories, Map<Long, DtoCategory> byId) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.ecommerce.services.cache;
+
+import com.ecommerce.config.TransactionUtils;
+import com.ecommerce.dto.DtoProduct;
+import com.ecommerce.dto.DtoProductDetailCacheStats;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of assembled DtoProduct objects for the product detail endpoint.
+ * The bound is a total weight rather than an entry count: each entry weighs 1 plus its number
+ * of variants, since variants (with their attributes) dominate the size of a DtoProduct.
+ *
+ * Product mutations call {@link #invalidate(Long)}, which evicts the entry after the current
+ * transaction commits. A load that started before an invalidation of the same product is not
+ * cached, so a reader racing with a writer cannot put a stale product back; loads of other products
+ * are unaffected.
+ */
+@Component
+public class ProductDetailCache {
+
+    @Value("${product.detail.cache.max-weight:20000}")
+    private long maxWeight;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true); // access order
+    private long currentWeight = 0;
+
+    // Marker per product being loaded; invalidation removes it, and a load only caches if its marker is still there
+    private final Map<Long, Object> loading = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Returns the cached product, or loads it with the loader and caches the result.
+     * The loader runs outside the cache lock; exceptions it throws are propagated and nothing is cached.
+     *
+     * @param productId The product ID.
+     * @param loader    Builds the DtoProduct on a miss.
+     * @return The cached or freshly loaded DtoProduct. Shared between callers; must not be modified.
+     */
+    public DtoProduct get(Long productId, Function<Long, DtoProduct> loader) {
+        Object marker = new Object();
+        synchronized (entries) {
+            Entry entry = entries.get(productId);
+            if (entry != null) {
+                hits.increment();
+                return entry.value();
+            }
+            loading.put(productId, marker); // A concurrent load of the same product loses its marker and does not cache
+        }
+        misses.increment();
+
+        DtoProduct loaded = null;
+        try {
+            loaded = loader.apply(productId);
+        } finally {
+            put(productId, loaded, marker);
+        }
+        return loaded;
+    }
+
+    /**
+     * Evicts a product once the surrounding transaction commits.
+     */
+    public void invalidate(Long productId) {
+        TransactionUtils.afterCommit(() -> {
+            synchronized (entries) {
+                loading.remove(productId);
+                Entry removed = entries.remove(productId);
+                if (removed != null) {
+                    currentWeight -= removed.weight();
+                }
+            }
+        });
+    }
+
+    /**
+     * Evicts several products once the surrounding transaction commits.
+     */
+    public void invalidateAll(Collection<Long> productIds) {
+        for (Long productId : productIds) {
+            invalidate(productId);
+        }
+    }
+
+    /**
+     * @return Hit/miss/eviction counters and the current occupancy, for sizing the cache.
+     */
+    public DtoProductDetailCacheStats getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        synchronized (entries) {
+            return new DtoProductDetailCacheStats(
+                    hitCount,
+                    missCount,
+                    evictions.sum(),
+                    requests == 0 ? 0.0 : (double) hitCount / requests,
+                    entries.size(),
+                    currentWeight,
+                    maxWeight);
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private void put(Long productId, DtoProduct value, Object marker) {
+        long weight = value != null ? weigh(value) : 0;
+        synchronized (entries) {
+            if (!loading.remove(productId, marker) || value == null) {
+                return; // The product was invalidated while loading, so the value may be stale, or the load failed
+            }
+            if (weight > maxWeight) {
+                return; // Would evict everything else; not worth caching
+            }
+            Entry previous = entries.put(productId, new Entry(value, weight));
+            if (previous != null) {
+                currentWeight -= previous.weight();
+            }
+            currentWeight += weight;
+
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (currentWeight > maxWeight && eldest.hasNext()) {
+                currentWeight -= eldest.next().weight();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static long weigh(DtoProduct product) {
+        List<?> variants = product.getVariants();
+        return 1L + (variants != null ? variants.size() : 0);
+    }
+
+    private record Entry(DtoProduct value, long weight) {
+    }
+}
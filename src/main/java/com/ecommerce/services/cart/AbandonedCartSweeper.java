@@ -0,0 +1,195 @@
+package com.ecommerce.services.cart;
+
+import com.ecommerce.config.SchedulingConfig;
+import com.ecommerce.dto.DtoCartSweeperStats;
+import com.ecommerce.repository.AbandonedCartRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes carts (and their items) that have not changed for cart.sweeper.max-idle-days, so the cart
+ * tables and their indexes only hold carts in use. A customer whose cart was swept gets a new empty
+ * one on the next access.
+ *
+ * The job walks idle carts oldest first in chunks of cart.sweeper.batch-size. Each chunk is its own
+ * short transaction with one set-based DELETE for the items and one for the carts, both repeating the
+ * idle condition, followed by a pause. Carts held by the write-behind store are released from memory
+ * first, and the store does not load them again until the chunk's transaction has ended, so no copy
+ * read before the delete survives it; carts with unwritten changes there are skipped. A chunk that
+ * fails is logged and counted as skipped, and the run goes on with the next one. The job runs on
+ * a scheduler thread of its own (SchedulingConfig). Carts written before Cart#updatedAt existed
+ * are stamped on the first run and swept one idle period later. Disabled unless
+ * cart.sweeper.enabled=true.
+ */
+@Component
+@RequiredArgsConstructor
+public class AbandonedCartSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(AbandonedCartSweeper.class);
+
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final AbandonedCartRepository abandonedCartRepository;
+    private final WriteBehindCartStore writeBehindCartStore;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${cart.sweeper.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cart.sweeper.max-idle-days:30}")
+    private int maxIdleDays;
+
+    @Value("${cart.sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${cart.sweeper.pause-ms:100}")
+    private long pauseMs;
+
+    // Counters since startup
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong cartsDeleted = new AtomicLong();
+    private final AtomicLong cartItemsDeleted = new AtomicLong();
+    private final AtomicLong cartsSkipped = new AtomicLong();
+    private final AtomicLong totalMillis = new AtomicLong();
+    private volatile RunResult lastRun;
+
+    /**
+     * Deletes all idle carts, chunk by chunk.
+     */
+    @Scheduled(scheduler = SchedulingConfig.CART_SWEEPER_SCHEDULER, cron = "${cart.sweeper.cron:0 30 3 * * *}")
+    public void sweepAbandonedCarts() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime before = now.minusDays(maxIdleDays);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long carts = 0;
+        long items = 0;
+        long skipped = 0;
+        // A failing chunk only skips its carts; a failing read of the next chunk ends the run, which is still recorded
+        try {
+            backfill(transactionTemplate, now);
+
+            Cursor cursor = new Cursor(START, 0L);
+            while (cursor != null && !Thread.currentThread().isInterrupted()) {
+                List<AbandonedCartRepository.IdleCart> idle =
+                        abandonedCartRepository.findIdleCarts(before, cursor.updatedAt(), cursor.cartId(), batchSize);
+                if (idle.isEmpty()) {
+                    break;
+                }
+                List<AbandonedCartRepository.IdleCart> sweepable = release(idle);
+                List<Long> cartIds = sweepable.stream().map(AbandonedCartRepository.IdleCart::cartId).toList();
+                try {
+                    if (!cartIds.isEmpty()) {
+                        int[] deleted = transactionTemplate.execute(status -> new int[]{
+                                abandonedCartRepository.deleteItemsOfIdleCarts(cartIds, before),
+                                abandonedCartRepository.deleteIdleCarts(cartIds, before)
+                        });
+                        items += deleted[0];
+                        carts += deleted[1];
+                    }
+                } catch (RuntimeException e) {
+                    skipped += cartIds.size();
+                    log.warn("Skipped a chunk of {} abandoned carts (IDs {} to {}); they are retried on the next run",
+                            cartIds.size(), cartIds.get(0), cartIds.get(cartIds.size() - 1), e);
+                } finally {
+                    endRelease(sweepable);
+                }
+
+                AbandonedCartRepository.IdleCart last = idle.get(idle.size() - 1);
+                cursor = idle.size() < batchSize ? null : new Cursor(last.updatedAt(), last.cartId());
+                pause();
+            }
+        } finally {
+            long millis = (System.nanoTime() - started) / 1_000_000;
+            runs.incrementAndGet();
+            cartsDeleted.addAndGet(carts);
+            cartItemsDeleted.addAndGet(items);
+            cartsSkipped.addAndGet(skipped);
+            totalMillis.addAndGet(millis);
+            lastRun = new RunResult(now, carts, items, skipped, millis);
+            log.info("Swept {} abandoned carts ({} cart items, {} carts skipped) unchanged since {} in {} ms",
+                    carts, items, skipped, before, millis);
+        }
+    }
+
+    public DtoCartSweeperStats getStats() {
+        RunResult last = lastRun;
+        return new DtoCartSweeperStats(
+                runs.get(),
+                cartsDeleted.get(),
+                cartItemsDeleted.get(),
+                cartsSkipped.get(),
+                totalMillis.get(),
+                last != null ? last.startedAt() : null,
+                last != null ? last.carts() : 0,
+                last != null ? last.items() : 0,
+                last != null ? last.skipped() : 0,
+                last != null ? last.millis() : 0);
+    }
+
+    // --- Helper Methods ---
+
+    private void backfill(TransactionTemplate transactionTemplate, LocalDateTime now) {
+        int stamped = 0;
+        Integer chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> abandonedCartRepository.backfillUpdatedAt(now, batchSize));
+            stamped += chunk != null ? chunk : 0;
+        } while (chunk != null && chunk == batchSize && !Thread.currentThread().isInterrupted());
+        if (stamped > 0) {
+            log.info("Stamped {} carts without a last change time", stamped);
+        }
+    }
+
+    // Carts with unwritten changes in the write-behind store are in use and are skipped; the others stay
+    // unloadable until endRelease
+    private List<AbandonedCartRepository.IdleCart> release(List<AbandonedCartRepository.IdleCart> idle) {
+        if (!writeBehindCartStore.isEnabled()) {
+            return idle;
+        }
+        List<AbandonedCartRepository.IdleCart> released = new ArrayList<>(idle.size());
+        for (AbandonedCartRepository.IdleCart cart : idle) {
+            if (writeBehindCartStore.release(cart.customerId())) {
+                released.add(cart);
+            }
+        }
+        return released;
+    }
+
+    private void endRelease(List<AbandonedCartRepository.IdleCart> released) {
+        if (writeBehindCartStore.isEnabled()) {
+            writeBehindCartStore.endRelease(released.stream().map(AbandonedCartRepository.IdleCart::customerId).toList());
+        }
+    }
+
+    // Gives the cart tables room between chunks
+    private void pause() {
+        if (pauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Cursor(LocalDateTime updatedAt, Long cartId) {}
+
+    private record RunResult(LocalDateTime startedAt, long carts, long items, long skipped, long millis) {}
+}
@@ -0,0 +1,210 @@
+package com.ecommerce.services.cart;
+
+import com.ecommerce.exceptions.ResourceNotFoundException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Carts of visitors who are not logged in. They are kept in memory only, never in the cart tables
+ * (which need a customer), and are addressed by an opaque token handed to the client. A guest cart is
+ * just product IDs and quantities; product details are looked up when it is shown.
+ *
+ * Issuing a token stores nothing: a token carries a signature made with a key generated at startup, so
+ * the store can tell its own tokens from made-up ones, and the cart is only stored on the first change
+ * that leaves it with a line. An issued token without a stored cart reads as an empty cart. Requests
+ * that only ask for tokens therefore cannot fill the store or push out the carts of real visitors.
+ *
+ * Carts expire cart.guest.ttl-ms after their last use, and the store holds at most
+ * cart.guest.max-carts; beyond that, the least recently used cart is dropped on each new cart. On
+ * login the cart is merged into the customer's cart and removed. Guest carts and tokens are lost on
+ * restart and are not shared between application instances.
+ */
+@Component
+public class GuestCartStore {
+
+    public static final int MAX_LINES = 100;
+
+    private static final int NONCE_BYTES = 16;
+    private static final int SIGNATURE_BYTES = 16;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final SecureRandom random = new SecureRandom();
+    private final SecretKeySpec tokenKey = newTokenKey(random);
+
+    private final LinkedHashMap<String, GuestCart> carts = new LinkedHashMap<>(256, 0.75f, true); // access order
+
+    @Value("${cart.guest.ttl-ms:604800000}")
+    private long ttlMs;
+
+    @Value("${cart.guest.max-carts:50000}")
+    private int maxCarts;
+
+    /**
+     * @return A new token; the cart it addresses is empty and is only stored once something is added.
+     */
+    public String create() {
+        byte[] token = new byte[NONCE_BYTES + SIGNATURE_BYTES];
+        random.nextBytes(token);
+        System.arraycopy(sign(token), 0, token, NONCE_BYTES, SIGNATURE_BYTES);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    /**
+     * Applies a change to the lines (quantity per product ID) of a guest cart while it is locked. If the
+     * token has no stored cart yet, the change is applied to an empty cart, which is stored if it is left
+     * with a line.
+     *
+     * @return A copy of the lines afterwards.
+     * @throws ResourceNotFoundException if the token was not issued by this store.
+     */
+    public Map<Long, Integer> update(String token, Consumer<Map<Long, Integer>> change) {
+        if (!isIssued(token)) {
+            throw new ResourceNotFoundException("Guest cart not found or expired");
+        }
+        while (true) {
+            GuestCart cart;
+            synchronized (carts) {
+                cart = carts.get(token);
+            }
+            if (cart == null) {
+                GuestCart created = new GuestCart();
+                change.accept(created.lines);
+                if (created.lines.isEmpty() || store(token, created)) {
+                    return new LinkedHashMap<>(created.lines);
+                }
+                continue; // Stored by a concurrent change in between; apply to that one
+            }
+            synchronized (cart) {
+                if (!cart.removed && !cart.isExpired(ttlMs)) {
+                    change.accept(cart.lines);
+                    cart.lastAccess = System.currentTimeMillis();
+                    return new LinkedHashMap<>(cart.lines);
+                }
+            }
+            remove(token, cart); // Expired (or just removed); start over with an empty cart
+        }
+    }
+
+    /**
+     * @return A copy of the lines of a guest cart; empty if nothing has been added yet or it has expired.
+     * @throws ResourceNotFoundException if the token was not issued by this store.
+     */
+    public Map<Long, Integer> lines(String token) {
+        return update(token, lines -> { });
+    }
+
+    public void remove(String token) {
+        GuestCart cart;
+        synchronized (carts) {
+            cart = carts.remove(token);
+        }
+        if (cart != null) {
+            synchronized (cart) {
+                cart.removed = true;
+            }
+        }
+    }
+
+    // Carts are kept in access order, so the expired ones are at the head
+    @Scheduled(fixedDelayString = "${cart.guest.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        synchronized (carts) {
+            Iterator<GuestCart> iterator = carts.values().iterator();
+            while (iterator.hasNext()) {
+                GuestCart cart = iterator.next();
+                synchronized (cart) {
+                    if (!cart.isExpired(ttlMs)) {
+                        break;
+                    }
+                    cart.removed = true;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    // --- Helper Methods ---
+
+    // Returns false if a cart was stored for the token in the meantime; otherwise drops the least recently used cart if full
+    private boolean store(String token, GuestCart cart) {
+        synchronized (carts) {
+            if (carts.putIfAbsent(token, cart) != null) {
+                return false;
+            }
+            if (carts.size() > maxCarts) {
+                Iterator<GuestCart> eldest = carts.values().iterator();
+                GuestCart evicted = eldest.next();
+                eldest.remove();
+                synchronized (evicted) {
+                    evicted.removed = true;
+                }
+            }
+            return true;
+        }
+    }
+
+    private void remove(String token, GuestCart cart) {
+        synchronized (carts) {
+            carts.remove(token, cart);
+        }
+    }
+
+    private boolean isIssued(String token) {
+        if (token == null) {
+            return false;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (bytes.length != NONCE_BYTES + SIGNATURE_BYTES) {
+            return false;
+        }
+        byte[] expected = Arrays.copyOf(sign(bytes), SIGNATURE_BYTES);
+        return MessageDigest.isEqual(expected, Arrays.copyOfRange(bytes, NONCE_BYTES, bytes.length));
+    }
+
+    // Signs the nonce at the start of the token
+    private byte[] sign(byte[] token) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(tokenKey);
+            mac.update(token, 0, NONCE_BYTES);
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign guest cart tokens", e);
+        }
+    }
+
+    private static SecretKeySpec newTokenKey(SecureRandom random) {
+        byte[] key = new byte[32];
+        random.nextBytes(key);
+        return new SecretKeySpec(key, MAC_ALGORITHM);
+    }
+
+    private static final class GuestCart {
+        final Map<Long, Integer> lines = new LinkedHashMap<>(); // By product ID, in insertion order
+        volatile long lastAccess = System.currentTimeMillis();
+        boolean removed;
+
+        boolean isExpired(long ttlMs) {
+            return lastAccess + ttlMs < System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.ecommerce.services.cart;
+
+import com.ecommerce.dto.DtoCart;
+import com.ecommerce.dto.DtoCartItem;
+import com.ecommerce.dto.DtoProductSummary;
+import com.ecommerce.entities.product.Product;
+import com.ecommerce.mappers.CartMapper;
+import com.ecommerce.repository.CartBatchWriter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * A customer's cart held by {@link WriteBehindCartStore}: the lines keyed by product, plus the
+ * changes not yet written to the database. Cart item IDs are assigned when a line is created, so
+ * they are stable before and after the line is persisted.
+ *
+ * Not thread-safe by itself; the store only hands it out while holding its monitor.
+ */
+public class InMemoryCart {
+
+    private final Long customerId;
+    private final Long cartId;
+    private final LongSupplier itemIds;
+    private final Map<Long, Line> lines = new LinkedHashMap<>(); // By product ID, in insertion order
+
+    // Write-behind state
+    private boolean cartPersisted;
+    private final Set<Long> changedItemIds = new HashSet<>();
+    private final Set<Long> removedItemIds = new HashSet<>();
+    int failedFlushes;
+    String flushFailure; // Set once the changes have failed to flush repeatedly; cleared by the next successful flush
+    boolean evicted;
+    volatile long lastAccess = System.currentTimeMillis();
+
+    InMemoryCart(Long customerId, Long cartId, boolean cartPersisted, LongSupplier itemIds) {
+        this.customerId = customerId;
+        this.cartId = cartId;
+        this.cartPersisted = cartPersisted;
+        this.itemIds = itemIds;
+    }
+
+    public Long getCartId() {
+        return cartId;
+    }
+
+    /**
+     * @return The quantity of the product in the cart, 0 if it is not in the cart.
+     */
+    public int quantityOf(Long productId) {
+        Line line = lines.get(productId);
+        return line != null ? line.quantity : 0;
+    }
+
+    /**
+     * @return The product of the cart item, if the item is in this cart.
+     */
+    public Optional<Long> productIdOfItem(Long cartItemId) {
+        return findLine(cartItemId).map(line -> line.productId);
+    }
+
+    /**
+     * Sets the quantity of a product, adding a line for it if needed.
+     */
+    public void setQuantity(Product product, int quantity) {
+        Line line = lines.get(product.getProductId());
+        if (line == null) {
+            line = new Line(itemIds.getAsLong(), product.getProductId());
+            lines.put(product.getProductId(), line);
+        }
+        line.quantity = quantity;
+        line.product = CartMapper.toDtoProductSummary(product);
+        changedItemIds.add(line.cartItemId);
+    }
+
+    /**
+     * Updates the product details shown for a line (name, price) without changing the cart.
+     */
+    public void refresh(Product product) {
+        Line line = lines.get(product.getProductId());
+        if (line != null) {
+            line.product = CartMapper.toDtoProductSummary(product);
+        }
+    }
+
+    public boolean removeItem(Long cartItemId) {
+        Optional<Line> line = findLine(cartItemId);
+        line.ifPresent(found -> {
+            lines.remove(found.productId);
+            changedItemIds.remove(cartItemId);
+            removedItemIds.add(cartItemId);
+        });
+        return line.isPresent();
+    }
+
+    public void removeProduct(Long productId) {
+        Line line = lines.remove(productId);
+        if (line != null) {
+            changedItemIds.remove(line.cartItemId);
+            removedItemIds.add(line.cartItemId);
+        }
+    }
+
+    public void clear() {
+        for (Line line : lines.values()) {
+            removedItemIds.add(line.cartItemId);
+        }
+        lines.clear();
+        changedItemIds.clear();
+    }
+
+    public Set<Long> productIds() {
+        return Set.copyOf(lines.keySet());
+    }
+
+    public DtoCart toDto() {
+        List<DtoCartItem> items = new ArrayList<>(lines.size());
+        for (Line line : lines.values()) {
+            items.add(new DtoCartItem(line.cartItemId, line.quantity, line.product));
+        }
+        return CartMapper.toDtoCart(cartId, items);
+    }
+
+    // --- Write-behind ---
+
+    // Lines read from the database are already persisted
+    void loadLine(Long cartItemId, Product product, int quantity) {
+        Line line = new Line(cartItemId, product.getProductId());
+        line.quantity = quantity;
+        line.product = CartMapper.toDtoProductSummary(product);
+        lines.put(product.getProductId(), line);
+    }
+
+    boolean isDirty() {
+        return !cartPersisted || !changedItemIds.isEmpty() || !removedItemIds.isEmpty();
+    }
+
+    /**
+     * Takes the pending changes out of the cart; they are put back with {@link #restore} if the write fails.
+     */
+    PendingWrite takePending() {
+        List<CartBatchWriter.ItemRow> upserts = new ArrayList<>(changedItemIds.size());
+        for (Line line : lines.values()) {
+            if (changedItemIds.contains(line.cartItemId)) {
+                upserts.add(new CartBatchWriter.ItemRow(line.cartItemId, cartId, line.productId, line.quantity));
+            }
+        }
+        PendingWrite pending = new PendingWrite(this, !cartPersisted, upserts, List.copyOf(removedItemIds));
+        changedItemIds.clear();
+        removedItemIds.clear();
+        return pending;
+    }
+
+    void written(PendingWrite pending) {
+        if (pending.insertCart()) {
+            cartPersisted = true;
+        }
+        failedFlushes = 0;
+        flushFailure = null;
+    }
+
+    void restore(PendingWrite pending) {
+        for (CartBatchWriter.ItemRow row : pending.upserts()) {
+            if (!removedItemIds.contains(row.cartItemId())) {
+                changedItemIds.add(row.cartItemId());
+            }
+        }
+        removedItemIds.addAll(pending.deletes());
+    }
+
+    Long getCustomerId() {
+        return customerId;
+    }
+
+    private Optional<Line> findLine(Long cartItemId) {
+        for (Line line : lines.values()) {
+            if (line.cartItemId == cartItemId) {
+                return Optional.of(line);
+            }
+        }
+        return Optional.empty();
+    }
+
+    record PendingWrite(InMemoryCart cart, boolean insertCart, List<CartBatchWriter.ItemRow> upserts, List<Long> deletes) {}
+
+    private static final class Line {
+        final long cartItemId;
+        final Long productId;
+        int quantity;
+        DtoProductSummary product;
+
+        Line(long cartItemId, Long productId) {
+            this.cartItemId = cartItemId;
+            this.productId = productId;
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.ecommerce.services.cart;
+
+import com.ecommerce.dto.DtoCart;
+import com.ecommerce.entities.cart.Cart;
+import com.ecommerce.entities.cart.CartItem;
+import com.ecommerce.exceptions.CartPersistenceException;
+import com.ecommerce.exceptions.ResourceNotFoundException;
+import com.ecommerce.repository.CartBatchWriter;
+import com.ecommerce.repository.CartRepository;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.ProductRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Write-behind cart store (cart.store.mode=memory). Active carts are kept in memory by customer ID;
+ * a cart is read from the database the first time it is touched, and afterwards mutations only change
+ * the in-memory copy and return. A flusher writes the accumulated changes of all carts every
+ * cart.store.flush-interval-ms in one transaction, so any number of changes to a cart line between
+ * two flushes costs a single upsert.
+ *
+ * Cart and cart item IDs are assigned here (continuing from the highest IDs in the tables), which keeps
+ * the cartItemId returned to clients stable before and after the line is written. The store holds at
+ * most cart.store.max-carts carts; beyond that, the least recently used carts without unwritten changes
+ * are dropped from memory. Changes not yet flushed are lost if the process dies.
+ *
+ * A cart whose changes fail to flush is retried on its own, first as is and then without lines of
+ * products that no longer exist. If it keeps failing, its changes are kept and retried on every flush,
+ * and accesses to the cart fail with CartPersistenceException until a flush succeeds; nothing is
+ * dropped silently.
+ *
+ * The store is not shared between application instances, and a second instance would hand out the
+ * same IDs. The mode therefore refuses to start unless cart.store.single-instance=true confirms that
+ * only one instance serves carts.
+ */
+@Component
+@RequiredArgsConstructor
+public class WriteBehindCartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindCartStore.class);
+
+    private static final int MAX_FAILED_FLUSHES = 5;
+
+    private final CartRepository cartRepository;
+    private final CustomerRepository customerRepository;
+    private final CartBatchWriter cartBatchWriter;
+    private final ProductRepository productRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${cart.store.mode:database}")
+    private String mode;
+
+    @Value("${cart.store.single-instance:false}")
+    private boolean singleInstance;
+
+    @Value("${cart.store.max-carts:100000}")
+    private int maxCarts;
+
+    private final Map<Long, InMemoryCart> carts = new ConcurrentHashMap<>();
+    private final AtomicLong cartIds = new AtomicLong();
+    private final AtomicLong cartItemIds = new AtomicLong();
+    private volatile boolean idsSeeded;
+    private final Object flushLock = new Object();
+
+    // Customers whose carts are released for deletion and must not be loaded until endRelease
+    private final Set<Long> releasing = new HashSet<>();
+    // Counts releases; a load during which it changes may have read rows that are being deleted
+    private final AtomicLong releases = new AtomicLong();
+
+    @PostConstruct
+    public void validateMode() {
+        if (isEnabled() && !singleInstance) {
+            throw new IllegalStateException("cart.store.mode=memory is only safe with a single application instance; "
+                    + "set cart.store.single-instance=true once that is guaranteed, or use cart.store.mode=database");
+        }
+    }
+
+    /**
+     * @return true if carts are served from memory (cart.store.mode=memory).
+     */
+    public boolean isEnabled() {
+        return "memory".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Applies a change to the customer's cart and returns the cart afterwards. The change runs while the
+     * cart is locked; it should validate before mutating, since an exception leaves any partial change
+     * in place, and should not query the database (see {@link #read}).
+     *
+     * @throws ResourceNotFoundException if the customer has no cart yet and does not exist.
+     * @throws CartPersistenceException  if earlier changes to the cart have repeatedly failed to be written.
+     */
+    public DtoCart update(Long customerId, Consumer<InMemoryCart> change) {
+        while (true) {
+            InMemoryCart cart = getOrLoad(customerId);
+            synchronized (cart) {
+                if (cart.evicted) {
+                    continue; // Dropped from memory in between; load it again
+                }
+                if (cart.flushFailure != null) {
+                    throw new CartPersistenceException("Recent changes to your cart could not be saved yet; they are kept and "
+                            + "retried. Please try again later.");
+                }
+                change.accept(cart);
+                cart.lastAccess = System.currentTimeMillis();
+                return cart.toDto();
+            }
+        }
+    }
+
+    /**
+     * Reads from the customer's cart while it is locked, without changing it. Lets callers look up what
+     * they need (e.g. products) before {@link #update}, so no query runs while the cart is locked.
+     *
+     * @throws ResourceNotFoundException if the customer has no cart yet and does not exist.
+     */
+    public <T> T read(Long customerId, Function<InMemoryCart, T> reader) {
+        while (true) {
+            InMemoryCart cart = getOrLoad(customerId);
+            synchronized (cart) {
+                if (!cart.evicted) {
+                    return reader.apply(cart);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the customer's cart from memory so that its rows can be deleted (see AbandonedCartSweeper).
+     * Until {@link #endRelease(Collection)} is called for the customer, accesses to the cart wait instead
+     * of loading it again, so they see it either before the delete or after it has committed.
+     *
+     * @return false if the cart has unwritten changes and was kept.
+     */
+    public boolean release(Long customerId) {
+        synchronized (releasing) {
+            releasing.add(customerId);
+        }
+        releases.incrementAndGet();
+        InMemoryCart cart = carts.get(customerId);
+        if (cart == null) {
+            return true;
+        }
+        synchronized (cart) {
+            if (!cart.isDirty()) {
+                cart.evicted = true;
+                carts.remove(customerId, cart);
+                return true;
+            }
+        }
+        endRelease(List.of(customerId));
+        return false;
+    }
+
+    /**
+     * Lets the carts of released customers be loaded again, once the transaction deleting them has ended.
+     */
+    public void endRelease(Collection<Long> customerIds) {
+        synchronized (releasing) {
+            releasing.removeAll(customerIds);
+            releasing.notifyAll();
+        }
+    }
+
+    /**
+     * Writes the pending changes of all carts, then trims the store to its bound.
+     */
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:1000}")
+    public void flush() {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (flushLock) {
+            List<InMemoryCart.PendingWrite> pending = new ArrayList<>();
+            List<InMemoryCart.PendingWrite> failing = new ArrayList<>(); // Kept out of the batch so they cannot fail it
+            for (InMemoryCart cart : carts.values()) {
+                synchronized (cart) {
+                    if (cart.isDirty()) {
+                        (cart.flushFailure != null ? failing : pending).add(cart.takePending());
+                    }
+                }
+            }
+            failing.forEach(this::flushAlone);
+            if (!pending.isEmpty()) {
+                try {
+                    new TransactionTemplate(transactionManager).executeWithoutResult(status -> write(pending));
+                    pending.forEach(this::written);
+                } catch (RuntimeException e) {
+                    log.warn("Cart flush of {} carts failed; retrying cart by cart", pending.size(), e);
+                    pending.forEach(this::flushAlone);
+                }
+            }
+            evictIfFull();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // --- Helper Methods ---
+
+    private InMemoryCart getOrLoad(Long customerId) {
+        while (true) {
+            InMemoryCart cart = carts.get(customerId);
+            if (cart != null) {
+                return cart;
+            }
+            awaitRelease(customerId);
+            long releasesBefore = releases.get();
+            InMemoryCart loaded = load(customerId);
+            InMemoryCart existing = carts.putIfAbsent(customerId, loaded);
+            if (existing != null) {
+                return existing;
+            }
+            if (releases.get() == releasesBefore) {
+                return loaded;
+            }
+            // A release started while loading, so the rows read may be about to be deleted; load again
+            synchronized (loaded) {
+                loaded.evicted = true;
+                carts.remove(customerId, loaded);
+            }
+        }
+    }
+
+    private void awaitRelease(Long customerId) {
+        synchronized (releasing) {
+            while (releasing.contains(customerId)) {
+                try {
+                    releasing.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CartPersistenceException("Interrupted while the cart was being cleaned up; please try again.");
+                }
+            }
+        }
+    }
+
+    private InMemoryCart load(Long customerId) {
+        seedIds();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> {
+            Optional<Cart> stored = cartRepository.findByCustomerIdWithItems(customerId);
+            if (stored.isEmpty()) {
+                if (!customerRepository.existsById(customerId)) {
+                    throw new ResourceNotFoundException("Customer not found with ID: " + customerId);
+                }
+                return new InMemoryCart(customerId, cartIds.incrementAndGet(), false, cartItemIds::incrementAndGet);
+            }
+            Cart cart = stored.get();
+            InMemoryCart inMemory = new InMemoryCart(customerId, cart.getCartId(), true, cartItemIds::incrementAndGet);
+            for (CartItem item : cart.getItems()) {
+                inMemory.loadLine(item.getCartItemId(), item.getProduct(), item.getQuantity());
+            }
+            return inMemory;
+        });
+    }
+
+    // IDs continue from the tables' current maximum; read once, on first use
+    private void seedIds() {
+        if (idsSeeded) {
+            return;
+        }
+        synchronized (this) {
+            if (!idsSeeded) {
+                long[] maxIds = new TransactionTemplate(transactionManager).execute(status -> cartBatchWriter.findMaxIds());
+                cartIds.accumulateAndGet(maxIds[0], Math::max);
+                cartItemIds.accumulateAndGet(maxIds[1], Math::max);
+                idsSeeded = true;
+            }
+        }
+    }
+
+    private void write(List<InMemoryCart.PendingWrite> pending) {
+        Map<Long, Long> newCarts = new LinkedHashMap<>();
+        List<Long> changedCarts = new ArrayList<>();
+        List<CartBatchWriter.ItemRow> upserts = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        for (InMemoryCart.PendingWrite write : pending) {
+            if (write.insertCart()) {
+                newCarts.put(write.cart().getCartId(), write.cart().getCustomerId());
+            } else {
+                changedCarts.add(write.cart().getCartId());
+            }
+            upserts.addAll(write.upserts());
+            deletes.addAll(write.deletes());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        cartBatchWriter.insertCarts(newCarts, now);
+        cartBatchWriter.touchCarts(changedCarts, now);
+        cartBatchWriter.upsertItems(upserts);
+        cartBatchWriter.deleteItems(deletes);
+    }
+
+    private void written(InMemoryCart.PendingWrite pending) {
+        synchronized (pending.cart()) {
+            pending.cart().written(pending);
+        }
+    }
+
+    // A cart that fails on its own is retried without lines of deleted products; if it still fails, it keeps
+    // its changes for the next flush and reports the failure to accesses once it has failed repeatedly
+    private void flushAlone(InMemoryCart.PendingWrite pending) {
+        InMemoryCart cart = pending.cart();
+        RuntimeException failure = tryWrite(pending);
+        if (failure != null && dropDeletedProducts(pending)) {
+            synchronized (cart) {
+                pending = cart.takePending();
+            }
+            failure = tryWrite(pending);
+        }
+        if (failure == null) {
+            return;
+        }
+        synchronized (cart) {
+            cart.restore(pending);
+            cart.failedFlushes++;
+            if (cart.failedFlushes >= MAX_FAILED_FLUSHES && cart.flushFailure == null) {
+                log.error("Changes to the cart of customer {} failed to flush {} times; keeping them and retrying",
+                        cart.getCustomerId(), cart.failedFlushes, failure);
+                cart.flushFailure = failure.getMessage();
+            } else {
+                log.warn("Flush of the cart of customer {} failed: {}", cart.getCustomerId(), failure.getMessage());
+            }
+        }
+    }
+
+    // Returns the failure, or null if the changes were written
+    private RuntimeException tryWrite(InMemoryCart.PendingWrite pending) {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> write(List.of(pending)));
+            written(pending);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    // Puts the changes back without the lines of products deleted since they were added (the usual
+    // permanent failure); returns false, with nothing changed, if all products still exist
+    private boolean dropDeletedProducts(InMemoryCart.PendingWrite pending) {
+        Set<Long> deleted = new HashSet<>();
+        pending.upserts().forEach(row -> deleted.add(row.productId()));
+        if (deleted.isEmpty()) {
+            return false;
+        }
+        try {
+            deleted.removeAll(productRepository.findExistingIds(deleted));
+        } catch (RuntimeException e) {
+            return false;
+        }
+        if (deleted.isEmpty()) {
+            return false;
+        }
+        InMemoryCart cart = pending.cart();
+        synchronized (cart) {
+            cart.restore(pending);
+            deleted.forEach(cart::removeProduct);
+        }
+        log.warn("Removed deleted products {} from the cart of customer {}", deleted, cart.getCustomerId());
+        return true;
+    }
+
+    private void evictIfFull() {
+        int excess = carts.size() - maxCarts;
+        if (excess <= 0) {
+            return;
+        }
+        List<InMemoryCart> byLastAccess = new ArrayList<>(carts.values());
+        byLastAccess.sort(Comparator.comparingLong(cart -> cart.lastAccess));
+        for (InMemoryCart cart : byLastAccess) {
+            if (excess <= 0) {
+                break;
+            }
+            synchronized (cart) {
+                if (!cart.isDirty()) {
+                    cart.evicted = true;
+                    carts.remove(cart.getCustomerId(), cart);
+                    excess--;
+                }
+            }
+        }
+    }
+}
@@ -2,6 +2,10 @@
 package com.ecommerce.services.impl;
 
 import com.ecommerce.dto.DtoCart; //
+import com.ecommerce.dto.DtoCartItem;
+import com.ecommerce.dto.DtoCartOperation;
+import com.ecommerce.dto.DtoGuestCart;
+import com.ecommerce.config.TransactionUtils;
 import com.ecommerce.entities.cart.Cart; //
 import com.ecommerce.entities.cart.CartItem; //
 import com.ecommerce.entities.product.Product; //
@@ -15,30 +19,61 @@ import com.ecommerce.repository.CartRepository;
 import com.ecommerce.repository.CustomerRepository;
 import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.services.CartService;
+import com.ecommerce.services.cart.GuestCartStore;
+import com.ecommerce.services.cart.InMemoryCart;
+import com.ecommerce.services.cart.WriteBehindCartStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 @Service
 @RequiredArgsConstructor // Lombok for constructor injection
-@Transactional // Ensure atomicity for cart operations
 public class CartServiceImpl implements CartService {
 
+    // Retries of a memory-mode batch whose cart changed between loading the products and locking the cart
+    private static final int MAX_PRODUCT_RELOADS = 3;
+
+    private final PlatformTransactionManager transactionManager;
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
     private final ProductRepository productRepository;
     private final CustomerRepository customerRepository;
 
+    // cart.store.mode=memory: carts are served from memory and written behind (see WriteBehindCartStore)
+    private final WriteBehindCartStore writeBehindCartStore;
+
+    // Carts of visitors who are not logged in (memory only, see GuestCartStore)
+    private final GuestCartStore guestCartStore;
+
     @Override
     public DtoCart getCartByCustomerId(Long customerId) {
-        Cart cart = findOrCreateCartByCustomerId(customerId);
-        // Use the query that fetches items eagerly
-        Cart cartWithItems = cartRepository.findByCustomerIdWithItems(customerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart not found for customer ID: " + customerId));
-        return CartMapper.toDtoCart(cartWithItems);
+        if (writeBehindCartStore.isEnabled()) {
+            // One product query, before locking the cart, refreshes names and prices shown for the lines
+            Set<Long> productIds = writeBehindCartStore.read(customerId, InMemoryCart::productIds);
+            List<Product> products = productIds.isEmpty() ? List.of() : productRepository.findAllById(productIds);
+            return writeBehindCartStore.update(customerId, cart -> products.forEach(cart::refresh));
+        }
+        return inTransaction(() -> {
+            Cart cart = findOrCreateCartByCustomerId(customerId);
+            // Use the query that fetches items eagerly
+            Cart cartWithItems = cartRepository.findByCustomerIdWithItems(customerId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Cart not found for customer ID: " + customerId));
+            return CartMapper.toDtoCart(cartWithItems);
+        });
     }
 
     @Override
@@ -47,6 +82,22 @@ public class CartServiceImpl implements CartService {
             throw new CartOperationException("Quantity must be positive.");
         }
 
+        if (writeBehindCartStore.isEnabled()) {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + productId));
+            return writeBehindCartStore.update(customerId, cart -> {
+                int newQuantity = cart.quantityOf(productId) + quantity;
+                if (product.getStockQuantity() < newQuantity) {
+                    throw new InsufficientStockException("Insufficient stock for product: " + product.getName() + ". Requested total: " + newQuantity + ", Available: " + product.getStockQuantity());
+                }
+                cart.setQuantity(product, newQuantity);
+            });
+        }
+
+        return inTransaction(() -> addItemToStoredCart(customerId, productId, quantity));
+    }
+
+    private DtoCart addItemToStoredCart(Long customerId, Long productId, int quantity) {
         Cart cart = findOrCreateCartByCustomerId(customerId);
         Product product = productRepository.findById(productId) //
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + productId));
@@ -56,6 +107,8 @@ public class CartServiceImpl implements CartService {
             throw new InsufficientStockException("Insufficient stock for product: " + product.getName() + ". Available: " + product.getStockQuantity()); //
         }
 
+        touch(cart);
+
         // Check if item already exists in cart
         Optional<CartItem> existingItemOpt = cartItemRepository.findByCartCartIdAndProductProductId(cart.getCartId(), productId); //
 
@@ -92,6 +145,27 @@ public class CartServiceImpl implements CartService {
             throw new CartOperationException("Quantity must be positive.");
         }
 
+        if (writeBehindCartStore.isEnabled()) {
+            // An item always holds the same product, so the product read before locking the cart stays valid
+            Long productId = writeBehindCartStore.read(customerId, cart -> cart.productIdOfItem(cartItemId))
+                    .orElseThrow(() -> cartItemNotFound(customerId, cartItemId));
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + productId));
+            return writeBehindCartStore.update(customerId, cart -> {
+                if (cart.productIdOfItem(cartItemId).isEmpty()) { // Removed in the meantime
+                    throw cartItemNotFound(customerId, cartItemId);
+                }
+                if (product.getStockQuantity() < quantity) {
+                    throw new InsufficientStockException("Insufficient stock for product: " + product.getName() + ". Requested: " + quantity + ", Available: " + product.getStockQuantity());
+                }
+                cart.setQuantity(product, quantity);
+            });
+        }
+
+        return inTransaction(() -> updateStoredCartItemQuantity(customerId, cartItemId, quantity));
+    }
+
+    private DtoCart updateStoredCartItemQuantity(Long customerId, Long cartItemId, int quantity) {
         Cart cart = findCartByCustomerId(customerId);
         CartItem item = cartItemRepository.findByCartCartIdAndCartItemId(cart.getCartId(), cartItemId) //
                 .orElseThrow(() -> new ResourceNotFoundException("Cart item not found with ID: " + cartItemId + " in cart for customer " + customerId));
@@ -103,12 +177,25 @@ public class CartServiceImpl implements CartService {
 
         item.setQuantity(quantity); //
         cartItemRepository.save(item);
+        touch(cart);
 
         return getCartByCustomerId(customerId);
     }
 
     @Override
     public DtoCart removeItemFromCart(Long customerId, Long cartItemId) {
+        if (writeBehindCartStore.isEnabled()) {
+            return writeBehindCartStore.update(customerId, cart -> {
+                if (!cart.removeItem(cartItemId)) {
+                    throw cartItemNotFound(customerId, cartItemId);
+                }
+            });
+        }
+
+        return inTransaction(() -> removeStoredCartItem(customerId, cartItemId));
+    }
+
+    private DtoCart removeStoredCartItem(Long customerId, Long cartItemId) {
         Cart cart = findCartByCustomerId(customerId);
         CartItem item = cartItemRepository.findByCartCartIdAndCartItemId(cart.getCartId(), cartItemId) //
                 .orElseThrow(() -> new ResourceNotFoundException("Cart item not found with ID: " + cartItemId + " in cart for customer " + customerId));
@@ -118,12 +205,21 @@ public class CartServiceImpl implements CartService {
         // cartRepository.save(cart);
         // However, explicitly deleting the CartItem is often clearer and safer
         cartItemRepository.delete(item);
+        touch(cart);
 
         return getCartByCustomerId(customerId); // Refetch to get updated total and item list
     }
 
     @Override
     public DtoCart clearCart(Long customerId) {
+        if (writeBehindCartStore.isEnabled()) {
+            return writeBehindCartStore.update(customerId, InMemoryCart::clear);
+        }
+
+        return inTransaction(() -> clearStoredCart(customerId));
+    }
+
+    private DtoCart clearStoredCart(Long customerId) {
         Cart cart = findCartByCustomerId(customerId);
 
         // Efficiently clear items - Option 1: If cascade remove is set on Cart.items
@@ -134,13 +230,315 @@ public class CartServiceImpl implements CartService {
         List<CartItem> itemsToDelete = List.copyOf(cart.getItems()); // Avoid ConcurrentModificationException //
         cartItemRepository.deleteAll(itemsToDelete);
         cart.getItems().clear(); // Clear the collection in the managed entity state //
+        touch(cart);
 
         // Return an empty cart DTO based on the (now empty) cart entity
         return CartMapper.toDtoCart(cart);
     }
 
+    @Override
+    public DtoCart applyCartOperations(Long customerId, List<DtoCartOperation> operations) {
+        return applyOperations(customerId, operations, false);
+    }
+
+    // --- Guest carts ---
+
+    @Override
+    public DtoGuestCart createGuestCart() {
+        String token = guestCartStore.create();
+        return new DtoGuestCart(token, CartMapper.toDtoCart(null, List.of()));
+    }
+
+    @Override
+    public DtoCart getGuestCart(String guestToken) {
+        return toGuestDtoCart(guestCartStore.lines(guestToken));
+    }
+
+    @Override
+    public DtoCart addItemToGuestCart(String guestToken, Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new CartOperationException("Quantity must be positive.");
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + productId));
+        return toGuestDtoCart(guestCartStore.update(guestToken, lines -> {
+            Integer current = lines.get(productId);
+            if (current == null && lines.size() >= GuestCartStore.MAX_LINES) {
+                throw new CartOperationException("A guest cart can hold at most " + GuestCartStore.MAX_LINES + " products.");
+            }
+            int newQuantity = (current != null ? current : 0) + quantity;
+            if (product.getStockQuantity() < newQuantity) {
+                throw new InsufficientStockException("Insufficient stock for product: " + product.getName() + ". Requested total: " + newQuantity + ", Available: " + product.getStockQuantity());
+            }
+            lines.put(productId, newQuantity);
+        }));
+    }
+
+    @Override
+    public DtoCart updateGuestCartItemQuantity(String guestToken, Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new CartOperationException("Quantity must be positive.");
+        }
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with ID: " + productId));
+        return toGuestDtoCart(guestCartStore.update(guestToken, lines -> {
+            if (!lines.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product with ID " + productId + " is not in the guest cart");
+            }
+            if (product.getStockQuantity() < quantity) {
+                throw new InsufficientStockException("Insufficient stock for product: " + product.getName() + ". Requested: " + quantity + ", Available: " + product.getStockQuantity());
+            }
+            lines.put(productId, quantity);
+        }));
+    }
+
+    @Override
+    public DtoCart removeItemFromGuestCart(String guestToken, Long productId) {
+        return toGuestDtoCart(guestCartStore.update(guestToken, lines -> {
+            if (lines.remove(productId) == null) {
+                throw new ResourceNotFoundException("Product with ID " + productId + " is not in the guest cart");
+            }
+        }));
+    }
+
+    @Override
+    public DtoCart mergeGuestCart(Long customerId, String guestToken) {
+        Map<Long, Integer> lines = guestCartStore.lines(guestToken);
+        List<DtoCartOperation> operations = new ArrayList<>(lines.size());
+        lines.forEach((productId, quantity) ->
+                operations.add(new DtoCartOperation(DtoCartOperation.Type.ADD, productId, null, quantity)));
+        if (writeBehindCartStore.isEnabled()) {
+            DtoCart cart = operations.isEmpty()
+                    ? getCartByCustomerId(customerId)
+                    : applyOperations(customerId, operations, true);
+            guestCartStore.remove(guestToken);
+            return cart;
+        }
+        return inTransaction(() -> {
+            DtoCart cart = operations.isEmpty()
+                    ? getCartByCustomerId(customerId)
+                    : applyOperations(customerId, operations, true);
+            // Kept if the merge rolls back, so the visitor does not lose the cart
+            TransactionUtils.afterCommit(() -> guestCartStore.remove(guestToken));
+            return cart;
+        });
+    }
+
     // --- Helper Methods ---
 
+    // clampToStock: cap quantities at the stock and skip missing products instead of rejecting the batch
+    private DtoCart applyOperations(Long customerId, List<DtoCartOperation> operations, boolean clampToStock) {
+        if (writeBehindCartStore.isEnabled()) {
+            return applyInMemoryOperations(customerId, operations, clampToStock);
+        }
+        return inTransaction(() -> applyStoredOperations(customerId, operations, clampToStock));
+    }
+
+    /**
+     * Products are loaded before the cart is locked. If the cart changed in between so that the batch
+     * touches a product that was not loaded (an item added under a new ID), the batch is planned again.
+     */
+    private DtoCart applyInMemoryOperations(Long customerId, List<DtoCartOperation> operations, boolean clampToStock) {
+        for (int attempt = 1; ; attempt++) {
+            Set<Long> productIds = writeBehindCartStore.read(customerId, cart -> touchedProductIds(operations, cart));
+            Map<Long, Product> loaded = findProducts(productIds);
+            try {
+                // Everything is validated before the first change, so a failing batch leaves the cart as it was
+                return writeBehindCartStore.update(customerId, cart -> {
+                    Map<Long, Integer> planned = planCartOperations(customerId, operations, cart::quantityOf, cart::productIdOfItem);
+                    if (!productIds.containsAll(planned.keySet())) {
+                        throw new ProductsOutdatedException();
+                    }
+                    Map<Long, Product> products = checkStock(planned, loaded, clampToStock);
+                    planned.forEach((productId, quantity) -> {
+                        if (quantity == 0) {
+                            cart.removeProduct(productId);
+                        } else {
+                            cart.setQuantity(products.get(productId), quantity);
+                        }
+                    });
+                });
+            } catch (ProductsOutdatedException e) {
+                if (attempt == MAX_PRODUCT_RELOADS) {
+                    throw new CartOperationException("The cart changed while it was being updated; please try again.");
+                }
+            }
+        }
+    }
+
+    // The products the operations may touch in the cart as it is now; unknown items are rejected when planning
+    private Set<Long> touchedProductIds(List<DtoCartOperation> operations, InMemoryCart cart) {
+        Set<Long> productIds = new HashSet<>();
+        for (DtoCartOperation operation : operations) {
+            if (operation.getType() == DtoCartOperation.Type.ADD) {
+                if (operation.getProductId() != null) {
+                    productIds.add(operation.getProductId());
+                }
+            } else if (operation.getCartItemId() != null) {
+                cart.productIdOfItem(operation.getCartItemId()).ifPresent(productIds::add);
+            }
+        }
+        return productIds;
+    }
+
+    private DtoCart applyStoredOperations(Long customerId, List<DtoCartOperation> operations, boolean clampToStock) {
+        // One query for the cart with its items and products
+        Cart cart = cartRepository.findByCustomerIdWithItems(customerId)
+                .orElseGet(() -> createCartForCustomer(customerId));
+        Map<Long, CartItem> itemsByProduct = new HashMap<>();
+        Map<Long, Long> productByItem = new HashMap<>();
+        for (CartItem item : cart.getItems()) {
+            itemsByProduct.put(item.getProduct().getProductId(), item);
+            productByItem.put(item.getCartItemId(), item.getProduct().getProductId());
+        }
+
+        Map<Long, Integer> planned = planCartOperations(customerId, operations,
+                productId -> itemsByProduct.containsKey(productId) ? itemsByProduct.get(productId).getQuantity() : 0,
+                cartItemId -> Optional.ofNullable(productByItem.get(cartItemId)));
+        Map<Long, Product> products = checkStock(planned, findProducts(planned.keySet()), clampToStock);
+
+        List<CartItem> newItems = new ArrayList<>();
+        List<CartItem> removedItems = new ArrayList<>();
+        planned.forEach((productId, quantity) -> {
+            CartItem item = itemsByProduct.get(productId);
+            if (quantity == 0) {
+                if (item != null) {
+                    removedItems.add(item);
+                }
+            } else if (item != null) {
+                item.setQuantity(quantity); // Flushed by dirty checking, batched with the other updates
+            } else {
+                CartItem newItem = new CartItem();
+                newItem.setCart(cart);
+                newItem.setProduct(products.get(productId));
+                newItem.setQuantity(quantity);
+                newItems.add(newItem);
+            }
+        });
+
+        cart.getItems().removeAll(removedItems);
+        cartItemRepository.deleteAllInBatch(removedItems); // A single DELETE ... WHERE id IN (...)
+        cart.getItems().addAll(newItems);
+        cartItemRepository.saveAll(newItems);
+        touch(cart);
+
+        // The managed cart already reflects the changes; no need to read it again
+        return CartMapper.toDtoCart(cart);
+    }
+
+    /**
+     * Folds the operations, in order, into the final quantity of every product they touch (0 = remove).
+     * Nothing is changed here, so an invalid operation anywhere in the list rejects the whole batch.
+     */
+    private Map<Long, Integer> planCartOperations(Long customerId, List<DtoCartOperation> operations,
+                                                  ToIntFunction<Long> currentQuantity,
+                                                  Function<Long, Optional<Long>> productOfItem) {
+        Map<Long, Integer> planned = new LinkedHashMap<>();
+        for (DtoCartOperation operation : operations) {
+            switch (operation.getType()) {
+                case ADD -> {
+                    Long productId = operation.getProductId();
+                    if (productId == null) {
+                        throw new CartOperationException("Product ID is required to add an item.");
+                    }
+                    int quantity = positiveQuantity(operation);
+                    int current = planned.containsKey(productId) ? planned.get(productId) : currentQuantity.applyAsInt(productId);
+                    planned.put(productId, current + quantity);
+                }
+                case UPDATE -> planned.put(plannedProductOfItem(customerId, operation, planned, productOfItem), positiveQuantity(operation));
+                case REMOVE -> planned.put(plannedProductOfItem(customerId, operation, planned, productOfItem), 0);
+            }
+        }
+        return planned;
+    }
+
+    private Long plannedProductOfItem(Long customerId, DtoCartOperation operation, Map<Long, Integer> planned,
+                                      Function<Long, Optional<Long>> productOfItem) {
+        Long cartItemId = operation.getCartItemId();
+        if (cartItemId == null) {
+            throw new CartOperationException("Cart item ID is required to " + operation.getType().name().toLowerCase() + " an item.");
+        }
+        // An item removed earlier in the same batch no longer exists
+        return productOfItem.apply(cartItemId)
+                .filter(productId -> !Integer.valueOf(0).equals(planned.get(productId)))
+                .orElseThrow(() -> new ResourceNotFoundException("Cart item not found with ID: " + cartItemId + " in cart for customer " + customerId));
+    }
+
+    private int positiveQuantity(DtoCartOperation operation) {
+        if (operation.getQuantity() == null || operation.getQuantity() <= 0) {
+            throw new CartOperationException("Quantity must be positive.");
+        }
+        return operation.getQuantity();
+    }
+
+    // Loads the products with one query
+    private Map<Long, Product> findProducts(Set<Long> productIds) {
+        Map<Long, Product> products = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            productRepository.findAllById(productIds).forEach(product -> products.put(product.getProductId(), product));
+        }
+        return products;
+    }
+
+    // Checks the stock of all products that stay in the cart, in memory
+    private Map<Long, Product> checkStock(Map<Long, Integer> planned, Map<Long, Product> products, boolean clampToStock) {
+        List<Long> productIds = planned.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toList();
+        for (Long productId : productIds) {
+            Product product = products.get(productId);
+            if (product == null) {
+                if (clampToStock) {
+                    planned.remove(productId);
+                    continue;
+                }
+                throw new ResourceNotFoundException("Product not found with ID: " + productId);
+            }
+            int quantity = planned.get(productId);
+            if (product.getStockQuantity() < quantity && clampToStock) {
+                if (product.getStockQuantity() > 0) {
+                    planned.put(productId, product.getStockQuantity());
+                } else {
+                    planned.remove(productId); // Leaves an existing line as it is
+                }
+            } else if (product.getStockQuantity() < quantity) {
+                throw new InsufficientStockException("Insufficient stock for product: " + product.getName() + ". Requested total: " + quantity + ", Available: " + product.getStockQuantity());
+            }
+        }
+        return products;
+    }
+
+    // Database mode runs each operation in one transaction; memory mode takes none, so no connection is held
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+    private static ResourceNotFoundException cartItemNotFound(Long customerId, Long cartItemId) {
+        return new ResourceNotFoundException("Cart item not found with ID: " + cartItemId + " in cart for customer " + customerId);
+    }
+
+    // Guest carts hold quantities only; product details are read with one query per view
+    private DtoCart toGuestDtoCart(Map<Long, Integer> lines) {
+        Map<Long, Product> products = new HashMap<>();
+        if (!lines.isEmpty()) {
+            productRepository.findAllById(lines.keySet()).forEach(product -> products.put(product.getProductId(), product));
+        }
+        List<DtoCartItem> items = new ArrayList<>(lines.size());
+        lines.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product != null) { // Skip products deleted since they were added
+                items.add(new DtoCartItem(null, quantity, CartMapper.toDtoProductSummary(product)));
+            }
+        });
+        return CartMapper.toDtoCart(null, items);
+    }
+
+    // Marks the cart as in use; carts untouched for long are removed by AbandonedCartSweeper
+    private void touch(Cart cart) {
+        cart.setUpdatedAt(LocalDateTime.now());
+    }
+
     private Cart findCartByCustomerId(Long customerId) {
         return cartRepository.findByCustomerUserId(customerId) //
                 .orElseThrow(() -> new ResourceNotFoundException("Cart not found for customer ID: " + customerId));
@@ -163,6 +561,14 @@ public class CartServiceImpl implements CartService {
 
         Cart newCart = new Cart(); //
         newCart.setCustomer(customer); //
+        touch(newCart);
         return cartRepository.save(newCart);
     }
+
+    // Signals that the cart changed after its products were loaded (see applyInMemoryOperations)
+    private static final class ProductsOutdatedException extends RuntimeException {
+        ProductsOutdatedException() {
+            super(null, null, false, false);
+        }
+    }
 }
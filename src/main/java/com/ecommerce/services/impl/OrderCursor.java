@@ -0,0 +1,45 @@
+package com.ecommerce.services.impl;
+
+import com.ecommerce.dto.DtoOrderSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for order history lists, which are always ordered newest first by
+ * (createdAt DESC, orderId DESC). Holds the position of the last row of a page; the first page
+ * starts from a position later than any order.
+ */
+record OrderCursor(LocalDateTime createdAt, Long orderId) {
+
+    // Upper bound for the first page; within MySQL's DATETIME range
+    private static final OrderCursor START = new OrderCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+    private static final String SEPARATOR = "|";
+
+    /**
+     * @param cursor The ?after= value; blank means the first page.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    static OrderCursor resolve(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 2);
+            return new OrderCursor(LocalDateTime.parse(parts[1]), Long.valueOf(parts[0]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor", e);
+        }
+    }
+
+    static OrderCursor after(DtoOrderSummary lastRow) {
+        return new OrderCursor(lastRow.getCreatedAt(), lastRow.getOrderId());
+    }
+
+    String encode() {
+        String raw = orderId + SEPARATOR + createdAt;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,6 +1,8 @@
 package com.ecommerce.services.impl;
 
+import com.ecommerce.common.Money;
 import com.ecommerce.dto.*; // Import all DTOs
+import com.ecommerce.entities.OutboxEvent;
 import com.ecommerce.entities.Payment;
 import com.ecommerce.entities.order.*;
 import com.ecommerce.entities.user.*;
@@ -11,18 +13,36 @@ import com.ecommerce.mappers.*; // Import Mappers
 import com.ecommerce.repository.AddressRepository;
 import com.ecommerce.repository.CustomerRepository;
 import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.ProductBatchWriter;
 import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.services.OrderService;
-import com.ecommerce.services.PaymentService;
+import com.ecommerce.services.cache.ProductDetailCache;
+import com.ecommerce.services.inventory.HotSkuLedger;
+import com.ecommerce.services.metrics.SellerSalesRollup;
+import com.ecommerce.services.order.OrderArchiver;
+import com.ecommerce.services.order.OrderNumberGenerator;
+import com.ecommerce.services.outbox.OutboxPublisher;
 import com.ecommerce.exceptions.OrderCreationException;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import lombok.RequiredArgsConstructor;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList; // Keep this import
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -34,15 +54,25 @@ public class OrderServiceImpl implements OrderService {
 
     private static final Logger log = LoggerFactory.getLogger(OrderServiceImpl.class);
 
+    private static final int MAX_SUMMARY_PAGE_SIZE = 100;
+    private static final int STATUS_UPDATE_CHUNK_SIZE = 500;
+
     private final OrderRepository orderRepository;
     // No longer need OrderItemRepository directly if CascadeType.ALL handles items
     // private final OrderItemRepository orderItemRepository;
     private final CustomerRepository customerRepository;
     private final ProductRepository productRepository;
     private final AddressRepository addressRepository;
+    private final ProductBatchWriter productBatchWriter;
+    private final ProductDetailCache productDetailCache;
+    private final HotSkuLedger hotSkuLedger;
+    private final OrderNumberGenerator orderNumberGenerator;
 
-    // --- Inject PaymentService ---
-    private final PaymentService paymentService;
+    // Refunds, shipments and notifications are carried out asynchronously from the outbox
+    private final OutboxPublisher outboxPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final SellerSalesRollup sellerSalesRollup;
+    private final OrderArchiver orderArchiver;
 
     // --- Inject Mappers ---
     private final OrderMapper orderMapper;
@@ -50,26 +80,6 @@ public class OrderServiceImpl implements OrderService {
     // No need to inject OrderItemMapper, ProductMapper etc. directly here if configured correctly
     
     
-    @Override
-    @Transactional(readOnly = true) // Okuma işlemi olduğu için
-    public List<DtoOrderResponse> getOrdersForCurrentSeller(Long sellerId) {
-        log.debug("Fetching orders for seller ID: {}", sellerId); // Loglama ekleyebilirsiniz
-
-        // Opsiyonel: Seller'ın gerçekten var olup olmadığını kontrol etmek iyi bir pratik olabilir
-        // Seller seller = sellerRepository.findById(sellerId)
-        //        .orElseThrow(() -> new UserNotFoundException("Seller not found with ID: " + sellerId));
-
-        // OrderRepository'ye eklediğimiz metodu çağır
-        List<Order> orders = orderRepository.findBySellerUserId(sellerId);
-
-        log.debug("Found {} orders for seller ID: {}", orders.size(), sellerId);
-
-        // Bulunan Order listesini DTO listesine çevir ve döndür
-        return orderMapper.toDtoOrderResponseList(orders);
-    }
-    
-    
-
     @Override
     @Transactional
     public DtoOrderResponse createOrder(DtoOrderRequest requestDTO, Long customerId) {
@@ -89,15 +99,25 @@ public class OrderServiceImpl implements OrderService {
         order.setShippingAddress(shippingAddress);
         order.setBillingAddress(billingAddress);
         order.setStatus(Order.OrderStatus.PENDING); // More specific initial status
-        order.setOrderNumber(generateOrderNumber());
+        order.setOrderNumber(orderNumberGenerator.next());
 
-        BigDecimal totalAmount = BigDecimal.ZERO;
+        Money totalAmount = Money.ZERO; // Summed in cents, converted once below
         List<OrderItem> orderItems = new ArrayList<>();
 
         // 4. Process Order Items
+        // All referenced products (with sellers) are loaded in one query; the lines are then validated in memory
+        Map<Long, Integer> quantitiesByProduct = new TreeMap<>(); // Sorted by product ID for a stable locking order
         for (DtoOrderItemRequest itemDTO : requestDTO.getItems()) {
-            Product product = productRepository.findById(itemDTO.getProductId())
-                    .orElseThrow(() -> new ProductNotFoundException("Product with ID " + itemDTO.getProductId() + " not found"));
+            quantitiesByProduct.merge(itemDTO.getProductId(), itemDTO.getQuantity(), Integer::sum);
+        }
+        Map<Long, Product> productsById = productRepository.findAllWithSellerByIdIn(quantitiesByProduct.keySet()).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        for (DtoOrderItemRequest itemDTO : requestDTO.getItems()) {
+            Product product = productsById.get(itemDTO.getProductId());
+            if (product == null) {
+                throw new ProductNotFoundException("Product with ID " + itemDTO.getProductId() + " not found");
+            }
             
             if (order.getSeller() == null && product.getSeller() != null) { // Henüz atanmadıysa ve ürünün satıcısı varsa
                 order.setSeller(product.getSeller());
@@ -111,13 +131,12 @@ public class OrderServiceImpl implements OrderService {
             
             
 
-            if (product.getStockQuantity() < itemDTO.getQuantity()) {
+            // Early rejection on the loaded snapshot; the guarded update in reserveStock is what actually prevents overselling.
+            // Skipped for hot SKUs, whose row stock lags the in-memory ledger.
+            if (!hotSkuLedger.isHot(product.getProductId())
+                    && product.getStockQuantity() < quantitiesByProduct.get(product.getProductId())) {
                 throw new InsufficientStockException("Insufficient stock for product ID: " + product.getProductId());
             }
-            product.setStockQuantity(product.getStockQuantity() - itemDTO.getQuantity());
-            // No need to save product here if OrderItem cascade includes Product merge/update,
-            // but explicit save is safer.
-            productRepository.save(product);
 
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
@@ -126,12 +145,18 @@ public class OrderServiceImpl implements OrderService {
             orderItem.setPriceAtPurchase(product.getPrice());
 
             orderItems.add(orderItem);
-            totalAmount = totalAmount.add(product.getPrice().multiply(BigDecimal.valueOf(itemDTO.getQuantity())));
+            totalAmount = totalAmount.plus(Money.of(product.getPrice()).times(itemDTO.getQuantity()));
         }
 
+        // 4b. Reserve stock: one guarded UPDATE per product, sent as a single JDBC batch in product ID order
+        // so that concurrent checkouts touching the same products always lock rows in the same order (no deadlocks).
+        // If any product is short, the exception rolls back the decrements already made.
+        reserveStock(quantitiesByProduct);
+
         // 5. Set final order details
         order.setItems(orderItems);
-        order.setTotalAmount(totalAmount);
+        BigDecimal orderTotal = totalAmount.toBigDecimal();
+        order.setTotalAmount(orderTotal);
         
         
      // Satıcı atanmadıysa hata ver (siparişte ürün yoksa veya ürünlerin satıcısı yoksa olabilir)
@@ -143,7 +168,7 @@ public class OrderServiceImpl implements OrderService {
         // ---> 6. Create Initial Payment Record <---
         Payment initialPayment = new Payment();
         initialPayment.setOrder(order); // Link payment to this order
-        initialPayment.setAmount(totalAmount);
+        initialPayment.setAmount(orderTotal);
         initialPayment.setStatus(Payment.PaymentStatus.PENDING);
         initialPayment.setPaymentMethod(null); // Payment method unknown initially
         initialPayment.setGatewayTransactionId(null); // No transaction ID yet
@@ -154,6 +179,8 @@ public class OrderServiceImpl implements OrderService {
 
         // 7. Save the order (and Payment via Cascade, assumed)
         Order savedOrder = orderRepository.save(order);
+        outboxPublisher.publishStatusChanged(savedOrder);
+        sellerSalesRollup.orderPlaced(savedOrder);
 
         // If not cascading Payment from Order, save it explicitly BEFORE saving order:
         // paymentRepository.save(initialPayment);
@@ -169,11 +196,20 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public DtoOrderResponse getOrderById(Long orderId, Long userId, String userRole) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new OrderNotFoundException("Order with ID " + orderId + " not found"));
+        boolean isAdmin = userRole != null && userRole.equals("ROLE_ADMIN"); // userRole'un "ROLE_ADMIN" olup olmadığını kontrol et
+
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null) {
+            // Old completed orders live in the archive
+            ArchivedOrder archive = orderArchiver.findArchive(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException("Order with ID " + orderId + " not found"));
+            if (!isAdmin && !archive.getCustomerId().equals(userId)) {
+                throw new UnauthorizedAccessException("User does not have permission to view this order");
+            }
+            return orderArchiver.readPayload(archive);
+        }
 
         // Authorization Check
-        boolean isAdmin = userRole != null && userRole.equals("ROLE_ADMIN"); // userRole'un "ROLE_ADMIN" olup olmadığını kontrol et
         boolean isOwner = order.getCustomer() != null && order.getCustomer().getUserId().equals(userId);
 
         if (!isAdmin && !isOwner) { // Eğer admin DEĞİLSE ve sahip DEĞİLSE yetkisiz erişim fırlat
@@ -184,17 +220,43 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    public List<DtoOrderResponse> getOrdersByCustomerId(Long customerId) {
-        List<Order> orders = orderRepository.findByCustomerUserId(customerId);
-        return orderMapper.toDtoOrderResponseList(orders); // Use mapper for list
+    @Transactional(readOnly = true)
+    public DtoOrderResponse getOrderForSeller(Long orderId, Long sellerId) {
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null) {
+            ArchivedOrder archive = orderArchiver.findArchive(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException("Order with ID " + orderId + " not found"));
+            if (!sellerId.equals(archive.getSellerId())) {
+                throw new UnauthorizedAccessException("Seller does not have permission to view this order");
+            }
+            return orderArchiver.readPayload(archive);
+        }
+        if (order.getSeller() == null || !order.getSeller().getUserId().equals(sellerId)) {
+            throw new UnauthorizedAccessException("Seller does not have permission to view this order");
+        }
+        return orderMapper.toDtoOrderResponse(order);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DtoCursorPage<DtoOrderSummary> getOrderSummariesForCustomer(Long customerId, String cursor, int size) {
+        return findSummaryPage(cursor, size, (position, page) ->
+                orderRepository.findCustomerSummariesBefore(customerId, position.createdAt(), position.orderId(), page));
     }
 
     @Override
-    public List<DtoOrderResponse> getAllOrders(/* Add Pagination Params */) {
-        List<Order> orders = orderRepository.findAll(/* Pass Pageable object */);
-        return orderMapper.toDtoOrderResponseList(orders); // Use mapper for list
+    @Transactional(readOnly = true)
+    public DtoCursorPage<DtoOrderSummary> getOrderSummariesForSeller(Long sellerId, String cursor, int size) {
+        return findSummaryPage(cursor, size, (position, page) ->
+                orderRepository.findSellerSummariesBefore(sellerId, position.createdAt(), position.orderId(), page));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public DtoCursorPage<DtoOrderSummary> getAllOrderSummaries(String cursor, int size) {
+        return findSummaryPage(cursor, size, (position, page) ->
+                orderRepository.findSummariesBefore(position.createdAt(), position.orderId(), page));
+    }
 
     @Override
     @Transactional
@@ -203,16 +265,67 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new OrderNotFoundException("Order with ID " + orderId + " not found"));
 
         // TODO: Authorization check (who can update status?)
-        // TODO: Status transition validation
 
+        Order.OrderStatus previousStatus = order.getStatus();
+        if (previousStatus != newStatus && !previousStatus.canTransitionTo(newStatus)) {
+            throw new InvalidStatusTransitionException("Cannot change order status from " + previousStatus + " to " + newStatus);
+        }
+        if (newStatus == Order.OrderStatus.CANCELLED && previousStatus != newStatus) {
+            // Same path as cancelOrder, so stock is restored and the payment refunded
+            return orderMapper.toDtoOrderResponse(cancel(order));
+        }
         order.setStatus(newStatus);
         Order updatedOrder = orderRepository.save(order);
 
-        // TODO: Trigger side effects (notify customer, initiate shipment etc.)
+        // Side effects run after commit, from the outbox
+        if (previousStatus != newStatus) {
+            sellerSalesRollup.statusChanged(updatedOrder, previousStatus);
+            outboxPublisher.publishStatusChanged(updatedOrder);
+            if (newStatus == Order.OrderStatus.PROCESSING) {
+                outboxPublisher.publish(OutboxEvent.EventType.SHIPMENT_REQUESTED, orderId, Map.of("orderId", orderId));
+            }
+        }
 
         return orderMapper.toDtoOrderResponse(updatedOrder); // Use mapper
     }
 
+    @Override
+    public DtoBulkOrderStatusResponse updateOrderStatuses(List<Long> orderIds, Order.OrderStatus targetStatus, Long sellerId) {
+        if (targetStatus == Order.OrderStatus.CANCELLED) {
+            // Cancelling restores stock and refunds, which the set-based path does not do
+            throw new InvalidStatusTransitionException("Orders must be cancelled individually");
+        }
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(orderIds));
+        Map<Long, DtoOrderStatusResult> results = new HashMap<>();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // One transaction per chunk: a failing chunk does not undo the chunks before it
+        for (int start = 0; start < distinctIds.size(); start += STATUS_UPDATE_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(start, Math.min(start + STATUS_UPDATE_CHUNK_SIZE, distinctIds.size()));
+            try {
+                results.putAll(transactionTemplate.execute(status -> updateStatusChunk(chunk, targetStatus, sellerId)));
+            } catch (RuntimeException e) {
+                log.error("Bulk status update to {} failed for {} orders", targetStatus, chunk.size(), e);
+                for (Long orderId : chunk) {
+                    results.put(orderId, new DtoOrderStatusResult(orderId, DtoOrderStatusResult.Outcome.ERROR, null, "Update failed; retry"));
+                }
+            }
+        }
+
+        List<DtoOrderStatusResult> ordered = distinctIds.stream().map(results::get).toList();
+        int updated = 0;
+        int failed = 0;
+        for (DtoOrderStatusResult result : ordered) {
+            if (result.getOutcome() == DtoOrderStatusResult.Outcome.UPDATED) {
+                updated++;
+            } else if (result.getOutcome() != DtoOrderStatusResult.Outcome.UNCHANGED) {
+                failed++;
+            }
+        }
+        log.info("Bulk status update to {}: {} updated, {} failed of {} orders", targetStatus, updated, failed, ordered.size());
+        return new DtoBulkOrderStatusResponse(targetStatus, updated, failed, ordered);
+    }
+
     @Override
     @Transactional
     public DtoOrderResponse cancelOrder(Long orderId, Long userId, String userRole) {
@@ -233,57 +346,187 @@ public class OrderServiceImpl implements OrderService {
             return orderMapper.toDtoOrderResponse(order); // Already cancelled
         }
 
+        return orderMapper.toDtoOrderResponse(cancel(order)); // Use mapper
+    }
+
+
+    // convertToDto method is now handled by the injected OrderMapper
+
+    // --- Helper Methods ---
+
+    // Cancels an order that may still be cancelled: restores its stock, queues the refund and moves it to CANCELLED
+    private Order cancel(Order order) {
+        Long orderId = order.getOrderId();
+
         // Check if a refund is required (i.e., payment was successful)
         boolean requiresRefund = order.getPayment() != null &&
                                  order.getPayment().getStatus() == Payment.PaymentStatus.SUCCESS;
 
         log.info("Cancelling order {}. Requires refund: {}", orderId, requiresRefund);
 
-        // Restore stock
+        // Restore stock (atomic increments, in product ID order like createOrder)
         log.debug("Restoring stock for order {}", orderId);
+        Map<Long, Integer> quantitiesByProduct = new TreeMap<>();
         for (OrderItem item : order.getItems()) {
-             Product product = item.getProduct();
-             int quantityToRestore = item.getQuantity();
-             product.setStockQuantity(product.getStockQuantity() + quantityToRestore);
-             productRepository.save(product);
-             log.debug("Restored {} units for product {}", quantityToRestore, product.getProductId());
+             quantitiesByProduct.merge(item.getProduct().getProductId(), item.getQuantity(), Integer::sum);
         }
+        restoreStock(quantitiesByProduct);
 
-        // Trigger Refund Process if required
+        // Refund through the outbox: the gateway call happens after commit, outside this transaction
         if (requiresRefund) {
-            Payment paymentToRefund = order.getPayment();
-            log.info("Initiating refund for payment {} associated with order {}", paymentToRefund.getPaymentId(), orderId);
-            try {
-                // Delegate refund initiation to PaymentService
-                paymentService.initiateRefund(paymentToRefund.getPaymentId());
-                log.info("Refund successfully initiated for payment {}", paymentToRefund.getPaymentId());
-                // Optional: You might set the payment status to REFUND_PENDING here if needed
-                // paymentToRefund.setStatus(Payment.PaymentStatus.REFUND_PENDING); // Example
-                // paymentRepository.save(paymentToRefund); // Save if status changed
-            } catch (Exception e) {
-                // Log the error, but allow order cancellation to proceed
-                log.error("Failed to initiate refund for payment {} (Order {}). Order will still be cancelled. Error: {}",
-                          paymentToRefund.getPaymentId(), orderId, e.getMessage(), e);
-                // Depending on requirements, you might:
-                // 1. Throw a specific exception to indicate partial failure.
-                // 2. Store a flag indicating refund needs manual attention.
-                // For now, we log and continue cancellation.
-            }
+            Long paymentId = order.getPayment().getPaymentId();
+            log.info("Queueing refund for payment {} associated with order {}", paymentId, orderId);
+            outboxPublisher.publish(OutboxEvent.EventType.REFUND_REQUESTED, orderId, Map.of("paymentId", paymentId));
         }
 
         // Update order status
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(Order.OrderStatus.CANCELLED);
         Order cancelledOrder = orderRepository.save(order);
+        outboxPublisher.publishStatusChanged(cancelledOrder);
+        sellerSalesRollup.statusChanged(cancelledOrder, previousStatus);
         log.info("Order {} successfully cancelled.", orderId);
+        return cancelledOrder;
+    }
+
+    /**
+     * Runs a keyset page of order summaries, fetching one extra row to detect whether a next page exists.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or the size is not between 1 and 100.
+     */
+    private DtoCursorPage<DtoOrderSummary> findSummaryPage(String cursor, int size, SummaryQuery query) {
+        if (size < 1 || size > MAX_SUMMARY_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SUMMARY_PAGE_SIZE);
+        }
+        OrderCursor position = OrderCursor.resolve(cursor);
+        List<DtoOrderSummary> rows = query.find(position, PageRequest.of(0, size + 1));
+
+        boolean hasNext = rows.size() > size;
+        List<DtoOrderSummary> pageRows = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? OrderCursor.after(pageRows.get(pageRows.size() - 1)).encode() : null;
+        return new DtoCursorPage<>(new ArrayList<>(pageRows), size, hasNext, nextCursor);
+    }
+
+    /**
+     * Validates one chunk against the order lifecycle and moves the valid orders with one guarded
+     * UPDATE per current status. Reads only [id, status, seller, customer], never the order graph.
+     */
+    private Map<Long, DtoOrderStatusResult> updateStatusChunk(List<Long> orderIds, Order.OrderStatus target, Long sellerId) {
+        Map<Long, Object[]> rows = new HashMap<>();
+        for (Object[] row : orderRepository.findStatusRowsByIdIn(orderIds)) {
+            rows.put((Long) row[0], row);
+        }
+
+        Map<Long, DtoOrderStatusResult> results = new HashMap<>();
+        Map<Order.OrderStatus, List<Long>> movableByStatus = new EnumMap<>(Order.OrderStatus.class);
+        Map<Long, Long> customerByOrder = new HashMap<>();
+        Map<Long, Long> sellerByOrder = new HashMap<>();
+        for (Long orderId : orderIds) {
+            Object[] row = rows.get(orderId);
+            if (row == null) {
+                results.put(orderId, new DtoOrderStatusResult(orderId, DtoOrderStatusResult.Outcome.NOT_FOUND, null, "Order not found"));
+                continue;
+            }
+            Order.OrderStatus current = (Order.OrderStatus) row[1];
+            if (sellerId != null && !sellerId.equals(row[2])) {
+                results.put(orderId, new DtoOrderStatusResult(orderId, DtoOrderStatusResult.Outcome.FORBIDDEN, null, "Order belongs to another seller"));
+            } else if (current == target) {
+                results.put(orderId, new DtoOrderStatusResult(orderId, DtoOrderStatusResult.Outcome.UNCHANGED, current, null));
+            } else if (!current.canTransitionTo(target)) {
+                results.put(orderId, new DtoOrderStatusResult(orderId, DtoOrderStatusResult.Outcome.INVALID_TRANSITION, current,
+                        "Cannot change order status from " + current + " to " + target));
+            } else {
+                movableByStatus.computeIfAbsent(current, status -> new ArrayList<>()).add(orderId);
+                customerByOrder.put(orderId, (Long) row[3]);
+                sellerByOrder.put(orderId, (Long) row[2]);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Map<String, Object>> notifications = new LinkedHashMap<>();
+        for (Map.Entry<Order.OrderStatus, List<Long>> group : movableByStatus.entrySet()) {
+            List<Long> ids = group.getValue();
+            int count = orderRepository.updateStatusWhereStatus(ids, group.getKey(), target, now);
+            // If some rows changed since they were read, find out which ones we actually moved
+            Set<Long> moved = count == ids.size() ? new HashSet<>(ids) : new HashSet<>(orderRepository.findIdsByIdInAndStatus(ids, target));
+            for (Long orderId : ids) {
+                if (moved.contains(orderId)) {
+                    results.put(orderId, new DtoOrderStatusResult(orderId, DtoOrderStatusResult.Outcome.UPDATED, group.getKey(), null));
+                    sellerSalesRollup.statusChanged(sellerByOrder.get(orderId), group.getKey(), target);
+                    Map<String, Object> payload = new HashMap<>();
+                    payload.put("status", target.name());
+                    payload.put("customerId", customerByOrder.get(orderId));
+                    notifications.put(orderId, payload);
+                } else {
+                    results.put(orderId, new DtoOrderStatusResult(orderId, DtoOrderStatusResult.Outcome.CONFLICT, group.getKey(),
+                            "Order status changed concurrently; retry"));
+                }
+            }
+        }
+
+        outboxPublisher.publishAll(OutboxEvent.EventType.ORDER_STATUS_CHANGED, notifications);
+        if (target == Order.OrderStatus.PROCESSING) {
+            Map<Long, Map<String, Object>> shipments = new LinkedHashMap<>();
+            notifications.keySet().forEach(orderId -> shipments.put(orderId, Map.of("orderId", orderId)));
+            outboxPublisher.publishAll(OutboxEvent.EventType.SHIPMENT_REQUESTED, shipments);
+        }
+        return results;
+    }
 
-        return orderMapper.toDtoOrderResponse(cancelledOrder); // Use mapper
+    @FunctionalInterface
+    private interface SummaryQuery {
+        List<DtoOrderSummary> find(OrderCursor position, PageRequest page);
     }
 
+    /**
+     * Takes stock for all products of an order: hot SKUs from the in-memory ledger, all other products
+     * in one batch of guarded UPDATEs.
+     *
+     * @param quantitiesByProduct Units per product ID; must be sorted by product ID.
+     * @throws InsufficientStockException if a product does not have enough stock left.
+     */
+    private void reserveStock(Map<Long, Integer> quantitiesByProduct) {
+        Map<Long, Integer> rowQuantities = new TreeMap<>();
+        for (Map.Entry<Long, Integer> entry : quantitiesByProduct.entrySet()) {
+            if (!hotSkuLedger.isHot(entry.getKey())) {
+                rowQuantities.put(entry.getKey(), entry.getValue());
+            } else if (!hotSkuLedger.reserve(entry.getKey(), entry.getValue())) {
+                // Reservations already taken are returned when the transaction rolls back
+                throw new InsufficientStockException("Insufficient stock for product ID: " + entry.getKey());
+            }
+        }
+        if (rowQuantities.isEmpty()) {
+            return; // The ledger's flusher invalidates the detail cache
+        }
 
-    private String generateOrderNumber() {
-        // Simple example: timestamp + random part
-        return "ORD-" + System.currentTimeMillis() + "-" + UUID.randomUUID().toString().substring(0, 4).toUpperCase();
+        List<Long> insufficient = productBatchWriter.decrementStockIfAvailable(rowQuantities);
+        if (!insufficient.isEmpty()) {
+            throw new InsufficientStockException("Insufficient stock for product ID: " + insufficient.get(0));
+        }
+        // A product switched to hot mode while we waited for its row lock was seeded without our decrement
+        for (Long productId : rowQuantities.keySet()) {
+            if (hotSkuLedger.isHot(productId)) {
+                throw new OrderCreationException("Stock mode of product " + productId + " changed during checkout; please retry");
+            }
+        }
+        productDetailCache.invalidateAll(rowQuantities.keySet()); // Detail view shows stock
     }
 
-    // convertToDto method is now handled by the injected OrderMapper
+    /**
+     * Returns stock for all products of an order: hot SKUs to the in-memory ledger, all other products
+     * in one batch of increment UPDATEs.
+     *
+     * @param quantitiesByProduct Units per product ID; must be sorted by product ID.
+     */
+    private void restoreStock(Map<Long, Integer> quantitiesByProduct) {
+        Map<Long, Integer> rowQuantities = new TreeMap<>(quantitiesByProduct);
+        rowQuantities.entrySet().removeIf(entry -> hotSkuLedger.returnUnits(entry.getKey(), entry.getValue()));
+
+        List<Long> missing = productBatchWriter.incrementStock(rowQuantities);
+        if (!missing.isEmpty()) {
+            log.warn("Could not restore stock for products {}: they no longer exist", missing);
+        }
+        productDetailCache.invalidateAll(rowQuantities.keySet());
+        log.debug("Restored stock for products {}", quantitiesByProduct);
+    }
 }
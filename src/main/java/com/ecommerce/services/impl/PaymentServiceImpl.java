@@ -1,12 +1,16 @@
 package com.ecommerce.services.impl;
 
+import com.ecommerce.common.Money;
 import com.ecommerce.dto.DtoPaymentInitiationResponse;
+import com.ecommerce.entities.OutboxEvent;
 import com.ecommerce.entities.Payment;
 import com.ecommerce.entities.order.Order; // Assuming OrderStatus lives here
 import com.ecommerce.exceptions.*;
 import com.ecommerce.repository.OrderRepository;
 import com.ecommerce.repository.PaymentRepository;
 import com.ecommerce.services.PaymentService;
+import com.ecommerce.services.metrics.SellerSalesRollup;
+import com.ecommerce.services.outbox.OutboxPublisher;
 
 // --- Stripe Imports ---
 import com.stripe.Stripe;
@@ -28,7 +32,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.util.Map; // For PayPal headers
 
 @Service
@@ -38,6 +41,8 @@ public class PaymentServiceImpl implements PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final SellerSalesRollup sellerSalesRollup;
     // Inject Mappers if needed for DTO conversion
 
     // --- API Keys and Secrets (Load from application.properties/.yml) ---
@@ -85,7 +90,7 @@ public class PaymentServiceImpl implements PaymentService {
             if (paymentMethod == Payment.PaymentMethod.STRIPE) {
                 // --- Stripe PaymentIntent Creation ---
                 PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
-                        .setAmount(payment.getAmount().multiply(BigDecimal.valueOf(100)).longValue()) // Amount in cents
+                        .setAmount(Money.of(payment.getAmount()).minorUnits()) // Amount in cents, exact
                         .setCurrency("usd") // Or get from config/order
                         .addPaymentMethodType("card") // Or other types
                         .putMetadata("order_id", payment.getOrder().getOrderId().toString())
@@ -245,6 +250,7 @@ public class PaymentServiceImpl implements PaymentService {
             Order order = orderRepository.findById(orderId)
                      .orElseThrow(() -> new OrderNotFoundException("Order not found for ID from webhook: " + orderId));
 
+            Order.OrderStatus previousStatus = order.getStatus();
             if (status == Payment.PaymentStatus.SUCCESS) {
                 order.setStatus(Order.OrderStatus.PROCESSING); // Or PAID, ready for shipment
                  log.info("Updating order {} status to PROCESSING", orderId);
@@ -255,8 +261,13 @@ public class PaymentServiceImpl implements PaymentService {
                  // This requires careful consideration of transaction boundaries and idempotency
             }
             orderRepository.save(order);
+            sellerSalesRollup.statusChanged(order, previousStatus);
 
-            // Optional: Publish events (e.g., PaymentSuccessEvent) for further processing
+            // Notify the customer and, once paid, start the shipment (both from the outbox, after commit)
+            outboxPublisher.publishStatusChanged(order);
+            if (order.getStatus() == Order.OrderStatus.PROCESSING) {
+                outboxPublisher.publish(OutboxEvent.EventType.SHIPMENT_REQUESTED, orderId, Map.of("orderId", orderId));
+            }
 
         } catch (NumberFormatException e) {
             log.error("Invalid payment_id ({}) or order_id ({}) in webhook metadata.", paymentIdStr, orderIdStr, e);
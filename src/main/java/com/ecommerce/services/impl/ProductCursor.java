@@ -0,0 +1,148 @@
+package com.ecommerce.services.impl;
+
+import com.ecommerce.entities.product.Product;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset cursor for product listings.
+ * Encodes the sort key, direction and the (sort value, productId) of the last row of a page,
+ * and turns that back into a seek predicate: (key > v) OR (key = v AND productId > id).
+ * Only non-null sort keys are supported so the seek predicate stays index-friendly.
+ */
+final class ProductCursor {
+
+    enum SortKey {
+        PRODUCT_ID("productId", Product::getProductId, Long::valueOf),
+        PRICE("price", Product::getPrice, BigDecimal::new),
+        NAME("name", Product::getName, value -> value),
+        CREATED_AT("createdAt", Product::getCreatedAt, LocalDateTime::parse);
+
+        private final String property;
+        private final Function<Product, Comparable<?>> extractor;
+        private final Function<String, Comparable<?>> parser;
+
+        SortKey(String property, Function<Product, Comparable<?>> extractor, Function<String, Comparable<?>> parser) {
+            this.property = property;
+            this.extractor = extractor;
+            this.parser = parser;
+        }
+
+        static SortKey fromProperty(String property) {
+            for (SortKey key : values()) {
+                if (key.property.equals(property)) {
+                    return key;
+                }
+            }
+            throw new IllegalArgumentException("Cursor pagination does not support sorting by: " + property);
+        }
+    }
+
+    private static final String SEPARATOR = "|";
+
+    private final SortKey sortKey;
+    private final boolean ascending;
+    private final Comparable<?> lastValue; // null on the first page
+    private final Long lastId;             // null on the first page
+
+    private ProductCursor(SortKey sortKey, boolean ascending, Comparable<?> lastValue, Long lastId) {
+        this.sortKey = sortKey;
+        this.ascending = ascending;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    /**
+     * Resolves the cursor for a request. A non-blank cursor wins over the request sort,
+     * so a client cannot change ordering in the middle of a scroll.
+     *
+     * @param cursor The ?after= value; blank means "first page in cursor mode".
+     * @param sort   Sort requested via Pageable; only the first order is used. Defaults to productId ASC.
+     * @throws IllegalArgumentException if the cursor is malformed or the sort key unsupported.
+     */
+    static ProductCursor resolve(String cursor, Sort sort) {
+        if (cursor != null && !cursor.isBlank()) {
+            return decode(cursor);
+        }
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc("productId"));
+        return new ProductCursor(SortKey.fromProperty(order.getProperty()), order.isAscending(), null, null);
+    }
+
+    /**
+     * @return Cursor pointing just after the given product, with the same ordering.
+     */
+    ProductCursor after(Product lastRow) {
+        return new ProductCursor(sortKey, ascending, sortKey.extractor.apply(lastRow), lastRow.getProductId());
+    }
+
+    /**
+     * @return Sort on (sort key, productId) in the cursor's direction.
+     */
+    Sort toSort() {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        if (sortKey == SortKey.PRODUCT_ID) {
+            return Sort.by(direction, "productId");
+        }
+        return Sort.by(direction, sortKey.property).and(Sort.by(direction, "productId"));
+    }
+
+    /**
+     * @return Seek predicate restricting rows to those after the cursor, or null on the first page.
+     */
+    Specification<Product> toSpecification() {
+        if (lastId == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> {
+            Path<Long> idPath = root.get("productId");
+            Predicate idBeyond = beyond(criteriaBuilder, idPath, lastId);
+            if (sortKey == SortKey.PRODUCT_ID) {
+                return idBeyond;
+            }
+            Path<Comparable<Object>> keyPath = root.get(sortKey.property);
+            return criteriaBuilder.or(
+                    beyond(criteriaBuilder, keyPath, asComparable(lastValue)),
+                    criteriaBuilder.and(criteriaBuilder.equal(keyPath, lastValue), idBeyond));
+        };
+    }
+
+    String encode() {
+        String raw = sortKey.name() + SEPARATOR + (ascending ? "a" : "d") + SEPARATOR + lastId + SEPARATOR + format(lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ProductCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 4); // The value is last, so it may contain the separator
+            SortKey key = SortKey.valueOf(parts[0]);
+            return new ProductCursor(key, "a".equals(parts[1]), key.parser.apply(parts[3]), Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor", e);
+        }
+    }
+
+    private <Y extends Comparable<? super Y>> Predicate beyond(CriteriaBuilder criteriaBuilder, Path<Y> path, Y value) {
+        return ascending ? criteriaBuilder.greaterThan(path, value) : criteriaBuilder.lessThan(path, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> asComparable(Comparable<?> value) {
+        return (Comparable<Object>) value;
+    }
+
+    private static String format(Comparable<?> value) {
+        return value instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(value);
+    }
+}
@@ -0,0 +1,469 @@
+package com.ecommerce.services.impl;
+
+import com.ecommerce.dto.DtoAttribute;
+import com.ecommerce.dto.DtoCategory;
+import com.ecommerce.dto.DtoImportResult;
+import com.ecommerce.dto.DtoImportRowError;
+import com.ecommerce.dto.DtoProduct;
+import com.ecommerce.dto.DtoProductImage;
+import com.ecommerce.dto.DtoVariant;
+import com.ecommerce.entities.product.Product;
+import com.ecommerce.entities.product.ProductAttribute;
+import com.ecommerce.entities.product.ProductImage;
+import com.ecommerce.entities.product.ProductVariant;
+import com.ecommerce.entities.user.Seller;
+import com.ecommerce.repository.ProductBatchWriter;
+import com.ecommerce.repository.SellerRepository;
+import com.ecommerce.services.ProductImportService;
+import com.ecommerce.services.cache.CategoryCache;
+import com.ecommerce.services.search.ProductFacetIndex;
+import com.ecommerce.services.search.ProductSearchIndex;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Bulk product import: streams the body row by row, validates each row, and writes valid rows in
+ * chunks through ProductBatchWriter (one transaction and a handful of batched statements per chunk).
+ * If a chunk fails to write, its rows are retried one at a time so that only the offending rows fail.
+ *
+ * CSV columns (header required, order free, unknown columns ignored):
+ * name, price (required); description, stockQuantity, brand, model, dimensions, weight, color, warranty;
+ * categoryIds, imageUrls, keyFeatures (each ';'-separated; the first image becomes primary).
+ * Variants are only supported in NDJSON, where each line is a DtoProduct.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportServiceImpl.class);
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99"); // precision 10, scale 2
+    private static final String LIST_SEPARATOR = ";";
+
+    private final SellerRepository sellerRepository;
+    private final ProductBatchWriter productBatchWriter;
+    private final CategoryCache categoryCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public DtoImportResult importProducts(Long sellerId, InputStream input, Format format) {
+        Seller seller = sellerRepository.findById(sellerId)
+                .orElseThrow(() -> new NoSuchElementException("Seller not found with id: " + sellerId));
+
+        DtoImportResult result = new DtoImportResult();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RowSource rows = format == Format.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader);
+
+        try {
+            rows.open();
+            long rowNumber = 0;
+            while (true) {
+                DtoProduct dto;
+                try {
+                    dto = rows.next();
+                } catch (RowException e) {
+                    rowNumber++;
+                    result.setTotalRows(result.getTotalRows() + 1);
+                    reject(result, rowNumber, e.getMessage());
+                    continue;
+                } catch (IllegalArgumentException e) {
+                    // Structural CSV error (e.g. unterminated quote): the rest of the input cannot be trusted
+                    reject(result, rowNumber + 1, e.getMessage() + "; import stopped");
+                    break;
+                }
+                if (dto == null) {
+                    break;
+                }
+                rowNumber++;
+                result.setTotalRows(result.getTotalRows() + 1);
+
+                String error = validate(dto);
+                if (error != null) {
+                    reject(result, rowNumber, error);
+                    continue;
+                }
+                chunk.add(new ImportRow(rowNumber, dto));
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(seller, chunk, result);
+                    chunk.clear();
+                }
+            }
+            flush(seller, chunk, result);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import body", e);
+        }
+
+        log.info("Bulk import for seller {}: {} rows, {} imported, {} failed",
+                sellerId, result.getTotalRows(), result.getImported(), result.getFailed());
+        return result;
+    }
+
+    // --- Helper Methods ---
+
+    private void flush(Seller seller, List<ImportRow> chunk, DtoImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            write(seller, chunk);
+            result.setImported(result.getImported() + chunk.size());
+        } catch (RuntimeException chunkFailure) {
+            log.warn("Bulk import chunk of {} rows failed ({}); retrying rows individually",
+                    chunk.size(), chunkFailure.getMessage());
+            for (ImportRow row : chunk) {
+                try {
+                    write(seller, List.of(row));
+                    result.setImported(result.getImported() + 1);
+                } catch (RuntimeException rowFailure) {
+                    reject(result, row.number(), "Could not be saved: " + rootMessage(rowFailure));
+                }
+            }
+        }
+    }
+
+    private void write(Seller seller, List<ImportRow> rows) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Product> products = new ArrayList<>(rows.size());
+            for (ImportRow row : rows) {
+                products.add(toProduct(row.dto(), seller, now));
+            }
+            productBatchWriter.insertProducts(products);
+
+            List<ProductImage> images = new ArrayList<>();
+            List<ProductVariant> variants = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                images.addAll(toImages(rows.get(i).dto(), products.get(i)));
+                variants.addAll(toVariants(rows.get(i).dto(), products.get(i)));
+            }
+            productBatchWriter.insertImages(images);
+            productBatchWriter.insertVariants(variants);
+
+            // Published after commit, same as ProductServiceImpl.createProduct
+            for (Product product : products) {
+                productSearchIndex.index(product);
+                productFacetIndex.index(product);
+            }
+        });
+    }
+
+    private static void reject(DtoImportResult result, long rowNumber, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new DtoImportRowError(rowNumber, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    /**
+     * @return An error message, or null if the row can be imported.
+     */
+    private String validate(DtoProduct dto) {
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            return "name is required";
+        }
+        if (dto.getName().length() > 100) {
+            return "name must be at most 100 characters";
+        }
+        if (dto.getPrice() == null) {
+            return "price is required";
+        }
+        if (dto.getPrice().signum() < 0 || dto.getPrice().compareTo(MAX_PRICE) > 0 || dto.getPrice().stripTrailingZeros().scale() > 2) {
+            return "price must be between 0 and " + MAX_PRICE + " with at most 2 decimals";
+        }
+        if (dto.getStockQuantity() < 0) {
+            return "stockQuantity must not be negative";
+        }
+        if (tooLong(dto.getBrand(), 50) || tooLong(dto.getModel(), 50)) {
+            return "brand and model must be at most 50 characters";
+        }
+        if (tooLong(dto.getDimensions(), 255) || tooLong(dto.getWeight(), 255)
+                || tooLong(dto.getColor(), 255) || tooLong(dto.getWarranty(), 255)) {
+            return "dimensions, weight, color and warranty must be at most 255 characters";
+        }
+        Set<Long> categoryIds = categoryIds(dto);
+        if (!categoryIds.isEmpty()) {
+            Set<Long> missing = categoryCache.findMissing(categoryIds);
+            if (!missing.isEmpty()) {
+                return "unknown category ids: " + missing;
+            }
+        }
+        if (dto.getImages() != null) {
+            for (DtoProductImage image : dto.getImages()) {
+                if (image == null || image.getImageUrl() == null || image.getImageUrl().isBlank() || tooLong(image.getImageUrl(), 255)) {
+                    return "image urls must be non-blank and at most 255 characters";
+                }
+            }
+        }
+        if (dto.getVariants() != null) {
+            for (DtoVariant variant : dto.getVariants()) {
+                if (variant == null || variant.getStockQuantity() < 0 || tooLong(variant.getSku(), 255)) {
+                    return "variants must have a non-negative stockQuantity and a sku of at most 255 characters";
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean tooLong(String value, int max) {
+        return value != null && value.length() > max;
+    }
+
+    private static Set<Long> categoryIds(DtoProduct dto) {
+        Set<Long> ids = new HashSet<>();
+        if (dto.getCategories() != null) {
+            for (DtoCategory category : dto.getCategories()) {
+                if (category != null && category.getCategoryId() != null) {
+                    ids.add(category.getCategoryId());
+                }
+            }
+        }
+        return ids;
+    }
+
+    private Product toProduct(DtoProduct dto, Seller seller, LocalDateTime now) {
+        Product product = new Product();
+        product.setName(dto.getName().trim());
+        product.setDescription(dto.getDescription());
+        product.setPrice(dto.getPrice());
+        product.setStockQuantity(dto.getStockQuantity());
+        product.setSeller(seller);
+        product.setBrand(dto.getBrand());
+        product.setModel(dto.getModel());
+        product.setDimensions(dto.getDimensions());
+        product.setWeight(dto.getWeight());
+        product.setColor(dto.getColor());
+        product.setWarranty(dto.getWarranty());
+        product.setKeyFeatures(dto.getKeyFeatures() != null ? new HashSet<>(dto.getKeyFeatures()) : new HashSet<>());
+        product.setSpecifications(dto.getSpecifications() != null ? new HashMap<>(dto.getSpecifications()) : new HashMap<>());
+        product.setApproved(false); // New products are not approved by default
+        product.setCreatedAt(now);
+        product.setUpdatedAt(now);
+        Set<Long> categoryIds = categoryIds(dto);
+        for (Long categoryId : categoryIds) {
+            product.getCategories().add(categoryCache.toReference(categoryId));
+        }
+        return product;
+    }
+
+    private static List<ProductImage> toImages(DtoProduct dto, Product product) {
+        List<ProductImage> images = new ArrayList<>();
+        if (dto.getImages() == null) {
+            return images;
+        }
+        for (DtoProductImage imageDto : dto.getImages()) {
+            ProductImage image = new ProductImage();
+            image.setProduct(product);
+            image.setImageUrl(imageDto.getImageUrl());
+            image.setPrimary(imageDto.isPrimary());
+            image.setAltText(imageDto.getAltText());
+            images.add(image);
+        }
+        return images;
+    }
+
+    private static List<ProductVariant> toVariants(DtoProduct dto, Product product) {
+        List<ProductVariant> variants = new ArrayList<>();
+        if (dto.getVariants() == null) {
+            return variants;
+        }
+        for (DtoVariant variantDto : dto.getVariants()) {
+            ProductVariant variant = new ProductVariant();
+            variant.setProduct(product);
+            variant.setSku(variantDto.getSku());
+            variant.setPriceAdjustment(variantDto.getPriceAdjustment());
+            variant.setStockQuantity(variantDto.getStockQuantity());
+            if (variantDto.getAttributes() != null) {
+                for (DtoAttribute attrDto : variantDto.getAttributes()) {
+                    ProductAttribute attr = new ProductAttribute();
+                    attr.setProduct(product);
+                    attr.setVariant(variant);
+                    attr.setName(attrDto.getName());
+                    attr.setValue(attrDto.getValue());
+                    attr.setUnit(attrDto.getUnit());
+                    attr.setAttributeGroup(attrDto.getAttributeGroup());
+                    variant.getAttributes().add(attr);
+                }
+            }
+            variants.add(variant);
+        }
+        return variants;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private record ImportRow(long number, DtoProduct dto) {
+    }
+
+    /**
+     * A row that could be read but not parsed; the import continues with the next row.
+     */
+    private static final class RowException extends Exception {
+        RowException(String message) {
+            super(message);
+        }
+    }
+
+    private interface RowSource {
+        /**
+         * Reads any preamble (the CSV header).
+         * @throws IllegalArgumentException if the preamble is invalid.
+         */
+        default void open() throws IOException {
+        }
+
+        /**
+         * @return The next row, or null at end of input.
+         */
+        DtoProduct next() throws IOException, RowException;
+    }
+
+    private final class NdjsonRowSource implements RowSource {
+        private final BufferedReader reader;
+
+        NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public DtoProduct next() throws IOException, RowException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            try {
+                DtoProduct dto = objectMapper.readValue(line, DtoProduct.class);
+                if (dto == null) {
+                    throw new RowException("line is not a JSON object");
+                }
+                return dto;
+            } catch (JsonProcessingException e) {
+                throw new RowException("invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static final class CsvRowSource implements RowSource {
+        private final CsvRecordReader reader;
+        private Map<String, Integer> columns;
+
+        CsvRowSource(BufferedReader reader) {
+            this.reader = new CsvRecordReader(reader);
+        }
+
+        @Override
+        public DtoProduct next() throws IOException, RowException {
+            List<String> record = reader.next();
+            if (record == null) {
+                return null;
+            }
+            DtoProduct dto = new DtoProduct();
+            try {
+                dto.setName(field(record, "name"));
+                dto.setDescription(field(record, "description"));
+                String price = field(record, "price");
+                dto.setPrice(price != null ? new BigDecimal(price) : null);
+                String stock = field(record, "stockquantity");
+                dto.setStockQuantity(stock != null ? Integer.parseInt(stock) : 0);
+                dto.setBrand(field(record, "brand"));
+                dto.setModel(field(record, "model"));
+                dto.setDimensions(field(record, "dimensions"));
+                dto.setWeight(field(record, "weight"));
+                dto.setColor(field(record, "color"));
+                dto.setWarranty(field(record, "warranty"));
+
+                Set<DtoCategory> categories = new LinkedHashSet<>();
+                for (String id : list(record, "categoryids")) {
+                    categories.add(new DtoCategory(Long.valueOf(id), null, null));
+                }
+                dto.setCategories(categories);
+
+                List<DtoProductImage> images = new ArrayList<>();
+                for (String url : list(record, "imageurls")) {
+                    images.add(new DtoProductImage(null, url, images.isEmpty(), null));
+                }
+                dto.setImages(images);
+                dto.setKeyFeatures(new LinkedHashSet<>(list(record, "keyfeatures")));
+            } catch (NumberFormatException e) {
+                throw new RowException("invalid number: " + e.getMessage());
+            }
+            return dto;
+        }
+
+        @Override
+        public void open() throws IOException {
+            List<String> header = reader.next();
+            if (header == null) {
+                columns = Map.of();
+                return;
+            }
+            columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("name") || !columns.containsKey("price")) {
+                throw new IllegalArgumentException("CSV header must contain at least the columns 'name' and 'price'");
+            }
+        }
+
+        private String field(List<String> record, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size()) {
+                return null;
+            }
+            String value = record.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private List<String> list(List<String> record, String column) {
+            String value = field(record, column);
+            if (value == null) {
+                return List.of();
+            }
+            return Arrays.stream(value.split(LIST_SEPARATOR)).map(String::trim).filter(s -> !s.isEmpty()).toList();
+        }
+    }
+}
@@ -3,14 +3,19 @@ package com.ecommerce.services.impl;
 // Using user-provided DTOs
 import com.ecommerce.dto.DtoAttribute;
 import com.ecommerce.dto.DtoCategory;
+import com.ecommerce.dto.DtoCursorPage;
 import com.ecommerce.dto.DtoProduct;
 import com.ecommerce.dto.DtoProductImage;
+import com.ecommerce.dto.DtoProductDetailCacheStats;
+import com.ecommerce.dto.DtoProductFacets;
 import com.ecommerce.dto.DtoProductSummary;
+import com.ecommerce.dto.DtoSuggestion;
 import com.ecommerce.dto.DtoUserSummary; // Assuming this DTO exists
 import com.ecommerce.dto.DtoVariant;
 
 import com.ecommerce.entities.product.*;
 import com.ecommerce.entities.user.Seller; // Assuming Seller entity exists
+import com.ecommerce.mappers.ProductSummaryAssembler;
 // Using standard exceptions
 import java.util.NoSuchElementException; // Standard exception for not found
 
@@ -22,6 +27,11 @@ import com.ecommerce.repository.ProductVariantRepository;
 import com.ecommerce.repository.SellerRepository;
 
 import com.ecommerce.services.ProductService;
+import com.ecommerce.services.cache.CategoryCache;
+import com.ecommerce.services.cache.ProductDetailCache;
+import com.ecommerce.services.search.ProductFacetIndex;
+import com.ecommerce.services.search.ProductSearchIndex;
+import com.ecommerce.services.search.ProductSuggestIndex;
 
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
@@ -33,7 +43,9 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import lombok.RequiredArgsConstructor; // Using Lombok for constructor injection
 
 import java.math.BigDecimal;
@@ -43,7 +55,10 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.Optional;
 
@@ -57,13 +72,26 @@ import java.util.Optional;
 @RequiredArgsConstructor // Lombok annotation for constructor injection of final fields
 public class ProductServiceImpl implements ProductService { // Implement the updated interface
 
+    // Page size used in cursor mode when the request is unpaged
+    private static final int DEFAULT_CURSOR_PAGE_SIZE = 20;
+
+    // Most matching products pushed into SQL as "product_id IN (...)"; beyond that the LIKE predicate is used
+    private static final int MAX_FILTER_SEARCH_HITS = 1000;
+
     // Inject necessary repositories via constructor
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
     private final SellerRepository sellerRepository; // Assuming this exists
     private final ProductImageRepository productImageRepository;
     private final ProductVariantRepository productVariantRepository;
     private final ProductAttributeRepository productAttributeRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductDetailCache productDetailCache;
+    private final PlatformTransactionManager transactionManager;
+    private final ProductSummaryAssembler productSummaryAssembler;
     
     
     
@@ -71,23 +99,60 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
     @Override
     @Transactional(readOnly = true)
     public Page<DtoProductSummary> searchProducts(String searchTerm, Pageable pageable) {
+        // Relevance-ranked path: the inverted index returns ordered ids, one query hydrates the page.
+        // An explicit sort from the client, a blank term or an index that is still warming up
+        // fall back to the Specification path.
+        if (searchTerm != null && !searchTerm.isBlank() && productSearchIndex.isReady() && pageable.getSort().isUnsorted()) {
+            List<Long> rankedIds = productSearchIndex.search(searchTerm);
+            List<Long> pageIds = pageable.isUnpaged() ? rankedIds : rankedIds.subList(
+                    (int) Math.min(pageable.getOffset(), rankedIds.size()),
+                    (int) Math.min(pageable.getOffset() + pageable.getPageSize(), rankedIds.size()));
+
+            Map<Long, Product> productsById = productRepository.findAllById(pageIds).stream()
+                    .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+            List<Product> rankedProducts = pageIds.stream()
+                    .map(productsById::get)
+                    .filter(Objects::nonNull) // Deleted between index lookup and hydration
+                    .collect(Collectors.toList());
+            return new PageImpl<>(productSummaryAssembler.toSummaries(rankedProducts), pageable, rankedIds.size());
+        }
+
         // Sadece arama terimine göre specification oluştur
-        Specification<Product> spec = Specification.where(matchesSearchTerm(searchTerm));
+        Specification<Product> spec = Specification.where(matchesSearchTerm(searchTerm, null, null, null));
 
         // Specification'ı kullanarak ürünleri bul
         Page<Product> productPage = productRepository.findAll(spec, pageable);
 
-        // Sonuçları DTO'ya map et
-        List<DtoProductSummary> summaries = productPage.getContent().stream()
-                .map(this::mapProductToDtoProductSummary) // Mevcut map'leme metodunu kullan
-                .collect(Collectors.toList());
-
-        return new PageImpl<>(summaries, pageable, productPage.getTotalElements());
+        // Sonuçları DTO'ya map et (tek sorguda tüm sayfanın görselleri)
+        return productSummaryAssembler.toSummaryPage(productPage);
     }
     
     
     
-    private static Specification<Product> matchesSearchTerm(String searchTerm) {
+    /**
+     * Restricts products to those matching the search term.
+     * Once the in-memory indexes are built, the full set of products matching the term and the other
+     * filters is resolved in memory (ProductFacetIndex, so the list agrees with the facet counts) and
+     * pushed into SQL as product_id IN (...), so MySQL never evaluates LIKE '%term%'. The set is never
+     * cut: if it is larger than MAX_FILTER_SEARCH_HITS, or the indexes are still warming up, the
+     * LIKE-based predicate is used instead. The other filters are still applied in SQL as well.
+     */
+    private Specification<Product> matchesSearchTerm(String searchTerm, Long categoryId, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (searchTerm == null || searchTerm.isBlank() || !productSearchIndex.isReady()) {
+            return matchesSearchTermLike(searchTerm);
+        }
+        List<Long> matchingIds = productFacetIndex.isReady()
+                ? productFacetIndex.matchingProductIds(searchTerm, categoryId, minPrice, maxPrice)
+                : productSearchIndex.search(searchTerm);
+        if (matchingIds.size() > MAX_FILTER_SEARCH_HITS) {
+            return matchesSearchTermLike(searchTerm);
+        }
+        return (root, query, criteriaBuilder) -> matchingIds.isEmpty()
+                ? criteriaBuilder.disjunction() // No hits: match nothing
+                : root.get("productId").in(matchingIds);
+    }
+
+    private static Specification<Product> matchesSearchTermLike(String searchTerm) {
         return (root, query, criteriaBuilder) -> {
             if (searchTerm == null || searchTerm.isBlank()) {
                 // Arama terimi yoksa hiçbir filtre uygulama (veya bir "aktif/onaylı ürün" filtresi eklenebilir)
@@ -162,18 +227,27 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
         // Use a fetch method that joins related entities if needed, or rely on transaction context
         Product fullyLoadedProduct = productRepository.findById(savedProduct.getProductId())
              .orElseThrow(() -> new NoSuchElementException("Failed to reload product after creation: " + savedProduct.getProductId())); // Should not happen
+        productSearchIndex.index(fullyLoadedProduct);
+        productFacetIndex.index(fullyLoadedProduct);
 
         // 8. Map the final saved entity (with associations) to the response DTO
         return mapProductToDtoProduct(fullyLoadedProduct);
     }
 
     @Override
-    @Transactional(readOnly = true)
+    public List<DtoSuggestion> suggestProducts(String prefix, int limit) {
+        return productSuggestIndex.suggest(prefix, limit);
+    }
+
+    @Override
     public DtoProduct getProductById(Long productId) {
-        // Use a repository method that potentially fetches associations eagerly if needed for mapping
-        Product product = productRepository.findById(productId) // Or findProductWithAssociationsById(productId)
-                .orElseThrow(() -> new NoSuchElementException("Product not found with id: " + productId));
-        return mapProductToDtoProduct(product);
+        // Cache hits need no transaction; a miss assembles the DTO in a read-only transaction
+        return productDetailCache.get(productId, this::loadProductDetail);
+    }
+
+    @Override
+    public DtoProductDetailCacheStats getProductDetailCacheStats() {
+        return productDetailCache.getStats();
     }
 
     @Override
@@ -182,10 +256,7 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
         // Use the repository method that supports pagination
         Page<Product> productPage = productRepository.findAll(pageable);
         // Map the Page<Product> to Page<DtoProductSummary>
-        List<DtoProductSummary> summaries = productPage.getContent().stream()
-                .map(this::mapProductToDtoProductSummary)
-                .collect(Collectors.toList());
-        return new PageImpl<>(summaries, pageable, productPage.getTotalElements());
+        return productSummaryAssembler.toSummaryPage(productPage);
     }
 
      @Override
@@ -196,25 +267,53 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
          }
          // Assuming repository method supports pagination
          Page<Product> productPage = productRepository.findBySellerUserId(sellerId, pageable);
-         List<DtoProductSummary> summaries = productPage.getContent().stream()
-                 .map(this::mapProductToDtoProductSummary)
-                 .collect(Collectors.toList());
-         return new PageImpl<>(summaries, pageable, productPage.getTotalElements());
+         return productSummaryAssembler.toSummaryPage(productPage);
      }
 
      @Override
      @Transactional(readOnly = true)
      public Page<DtoProductSummary> getProductsByCategory(Long categoryId, Pageable pageable) {
-         Category category = categoryRepository.findById(categoryId)
-                 .orElseThrow(() -> new NoSuchElementException("Category not found with id: " + categoryId));
+         if (!categoryCache.exists(categoryId)) {
+             throw new NoSuchElementException("Category not found with id: " + categoryId);
+         }
+         Category category = categoryCache.toReference(categoryId);
          // Assuming repository method supports pagination
           Page<Product> productPage = productRepository.findByCategoriesContains(category, pageable);
-          List<DtoProductSummary> summaries = productPage.getContent().stream()
-                 .map(this::mapProductToDtoProductSummary)
-                 .collect(Collectors.toList());
-          return new PageImpl<>(summaries, pageable, productPage.getTotalElements());
+          return productSummaryAssembler.toSummaryPage(productPage);
      }
 
+    @Override
+    @Transactional(readOnly = true)
+    public DtoCursorPage<DtoProductSummary> getAllProductsAfter(String cursor, Pageable pageable) {
+        return findPageAfter(null, cursor, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DtoCursorPage<DtoProductSummary> getProductsByCategoryAfter(Long categoryId, String cursor, Pageable pageable) {
+        if (!categoryCache.exists(categoryId)) {
+            throw new NoSuchElementException("Category not found with id: " + categoryId);
+        }
+        return findPageAfter(hasCategory(categoryId), cursor, pageable);
+    }
+
+    /**
+     * Runs a keyset page: filter AND seek predicate, ordered by (sort key, productId),
+     * fetching one extra row to detect whether a next page exists.
+     */
+    private DtoCursorPage<DtoProductSummary> findPageAfter(Specification<Product> filter, String cursor, Pageable pageable) {
+        ProductCursor position = ProductCursor.resolve(cursor, pageable.getSort());
+        int size = pageable.isPaged() ? pageable.getPageSize() : DEFAULT_CURSOR_PAGE_SIZE;
+
+        Specification<Product> spec = Specification.where(filter).and(position.toSpecification());
+        List<Product> rows = productRepository.findSeekPage(spec, position.toSort(), size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<Product> pageRows = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? position.after(pageRows.get(pageRows.size() - 1)).encode() : null;
+        return new DtoCursorPage<>(productSummaryAssembler.toSummaries(pageRows), size, hasNext, nextCursor);
+    }
+
 
     @Override
     @Transactional
@@ -228,7 +327,7 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
         // 2. Update basic fields from DTO
         mapDtoToProduct(existingProduct, dtoProduct); // Reuse mapping logic
 
-        // 3. Update Categories
+        // 3. Update Categories (only links that actually changed are inserted/deleted)
          Set<Long> categoryIds = dtoProduct.getCategories() != null ?
                                  dtoProduct.getCategories().stream()
                                     .map(DtoCategory::getCategoryId)
@@ -236,31 +335,17 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
                                     .collect(Collectors.toSet())
                                  : Collections.emptySet();
         Set<Category> categories = findAndValidateCategories(categoryIds);
-        existingProduct.setCategories(categories); // Update the association
+        existingProduct.getCategories().removeIf(category -> !categoryIds.contains(category.getCategoryId()));
+        Set<Long> linkedIds = existingProduct.getCategories().stream().map(Category::getCategoryId).collect(Collectors.toSet());
+        categories.stream()
+                .filter(category -> !linkedIds.contains(category.getCategoryId()))
+                .forEach(existingProduct.getCategories()::add);
 
-        // 4. Update Images (Simplistic approach: Remove old, add new)
-        productImageRepository.deleteByProductProductId(existingProduct.getProductId()); // Assumes this method exists
-        List<ProductImage> newImages = mapDtoImageToImage(dtoProduct.getImages(), existingProduct);
-        if (newImages != null && !newImages.isEmpty()) {
-            productImageRepository.saveAll(newImages);
-        }
-        // Note: For JPA relationships, clearing and adding to the collection on the entity side
-        // (e.g., existingProduct.getImages().clear(); existingProduct.getImages().addAll(newImages);)
-        // might be needed depending on cascade settings and how JPA manages the relationship.
-        // Managing via repository delete/saveAll is often simpler if cascading isn't fully relied upon.
-
-        // 5. Update Variants (Simplistic approach: Remove old, add new)
-        // First delete attributes associated with old variants of this product
-        List<ProductVariant> oldVariants = productVariantRepository.findByProductProductId(existingProduct.getProductId());
-        oldVariants.forEach(variant -> productAttributeRepository.deleteByVariantVariantId(variant.getVariantId())); // Assumes method exists
-        // Then delete the old variants
-        productVariantRepository.deleteByProductProductId(existingProduct.getProductId()); // Assumes method exists
-
-        List<ProductVariant> newVariants = mapDtoVariantToVariant(dtoProduct.getVariants(), existingProduct);
-         if (newVariants != null && !newVariants.isEmpty()) {
-            productVariantRepository.saveAll(newVariants); // Saves variants and cascades to attributes
-         }
-        // Similar note as for images regarding managing the collection on the entity side.
+        // 4. Update Images: diff against the stored images instead of delete-and-recreate
+        syncImages(existingProduct, dtoProduct.getImages());
+
+        // 5. Update Variants and their Attributes the same way, keeping variant ids stable
+        syncVariants(existingProduct, dtoProduct.getVariants());
 
         // 6. Save the updated product
         Product updatedProduct = productRepository.save(existingProduct);
@@ -269,6 +354,9 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
         // Fetching again ensures we get the state after all saves/cascades
         Product fullyLoadedProduct = productRepository.findById(updatedProduct.getProductId())
              .orElseThrow(() -> new NoSuchElementException("Failed to reload product after update: " + updatedProduct.getProductId()));
+        productSearchIndex.index(fullyLoadedProduct);
+        productFacetIndex.index(fullyLoadedProduct);
+        productDetailCache.invalidate(fullyLoadedProduct.getProductId());
 
         return mapProductToDtoProduct(fullyLoadedProduct);
     }
@@ -291,6 +379,9 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
 
         // 3. Delete the product itself
         productRepository.delete(product);
+        productSearchIndex.remove(productId);
+        productFacetIndex.remove(productId);
+        productDetailCache.invalidate(productId);
     }
 
     @Override
@@ -308,6 +399,9 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
         // Fetching again to ensure the updated state is mapped
         Product fullyLoadedProduct = productRepository.findById(savedProduct.getProductId())
              .orElseThrow(() -> new NoSuchElementException("Failed to reload product after approval: " + savedProduct.getProductId()));
+        productSearchIndex.index(fullyLoadedProduct);
+        productFacetIndex.index(fullyLoadedProduct);
+        productDetailCache.invalidate(fullyLoadedProduct.getProductId());
 
         return mapProductToDtoProduct(fullyLoadedProduct);
     }
@@ -315,18 +409,18 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
     // --- New Category Method Implementation ---
 
     /**
-     * Retrieves all categories from the repository and maps them to DTOs.
+     * Retrieves all categories from the category cache.
      *
      * @return A List of DtoCategory.
      */
     @Override
-    @Transactional(readOnly = true) // Use read-only transaction
     public List<DtoCategory> getAllCategories() {
-        List<Category> categories = categoryRepository.findAll(); // Fetch all categories
-        // Map Category entities to DtoCategory objects
-        return categories.stream()
-                .map(this::mapCategoryToDtoCategory) // Use a helper mapping method
-                .collect(Collectors.toList());
+        return categoryCache.getAll(); // Served from memory; reloaded only after a category change
+    }
+
+    @Override
+    public long getCategoriesVersion() {
+        return categoryCache.getVersion();
     }
     
     
@@ -352,6 +446,7 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
 
 
         Category savedCategory = categoryRepository.save(category);
+        categoryCache.invalidate();
         return mapCategoryToDtoCategory(savedCategory); // Use existing or create a new private helper method if mapCategoryToDtoCategory is not suitable or accessible
     }
 
@@ -361,6 +456,21 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
 
     // --- Helper Methods for Mapping (Largely unchanged, ensure they fetch data if needed) ---
 
+    /**
+     * Loads a product with its associations and assembles the detail DTO, in a read-only transaction.
+     * Used by the product detail cache on a miss.
+     */
+    private DtoProduct loadProductDetail(Long productId) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        return readOnlyTransaction.execute(status -> {
+            // Seller and categories come with the product; see mapProductToDtoProduct for the rest of the graph
+            Product product = productRepository.findProductWithAssociationsById(productId)
+                    .orElseThrow(() -> new NoSuchElementException("Product not found with id: " + productId));
+            return mapProductToDtoProduct(product);
+        });
+    }
+
     /**
      * Helper method to map a Category entity to a DtoCategory.
      *
@@ -377,8 +487,9 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
 
     /**
      * Maps a Product entity to a full DtoProduct.
-     * Assumes associations (categories, images, variants, attributes, seller) might need explicit fetching
-     * if not loaded eagerly or within the current transaction context.
+     * The graph is loaded in a bounded number of queries regardless of variant count:
+     * keyFeatures and specifications (one each, if not yet initialized), images (one),
+     * and variants with their attributes fetch-joined (one).
      */
     private DtoProduct mapProductToDtoProduct(Product product) {
         DtoProduct dto = new DtoProduct();
@@ -420,13 +531,11 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
                 .map(img -> new DtoProductImage(img.getImageId(), img.getImageUrl(), img.isPrimary(), img.getAltText()))
                 .collect(Collectors.toList()));
 
-        // Map Variants and their Attributes - Explicit fetch recommended
-        List<ProductVariant> variants = productVariantRepository.findByProductProductId(product.getProductId());
+        // Map Variants and their Attributes - attributes are fetch-joined, no per-variant query
+        List<ProductVariant> variants = productVariantRepository.findWithAttributesByProductId(product.getProductId());
         dto.setVariants(variants.stream()
                 .map(var -> {
-                    // Fetch attributes for *this* variant explicitly
-                    List<ProductAttribute> attributes = productAttributeRepository.findByVariantVariantId(var.getVariantId());
-                    List<DtoAttribute> attributeDTOs = attributes.stream()
+                    List<DtoAttribute> attributeDTOs = var.getAttributes().stream()
                             .map(attr -> new DtoAttribute(
                                     attr.getAttributeId(),
                                     attr.getName(),
@@ -449,33 +558,6 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
         return dto;
     }
 
-    /**
-     * Maps a Product entity to a DtoProductSummary.
-     */
-     private DtoProductSummary mapProductToDtoProductSummary(Product product) {
-         DtoProductSummary summary = new DtoProductSummary();
-         summary.setProductId(product.getProductId());
-         summary.setName(product.getName());
-         summary.setPrice(product.getPrice());
-         summary.setAverageRating(product.getAverageRating());
-         summary.setBrand(product.getBrand());
-         summary.setModel(product.getModel());
-
-         // Find primary image URL efficiently
-         // Consider optimizing this (e.g., denormalization or specific query)
-         String primaryImageUrl = productImageRepository.findByProductProductIdAndIsPrimary(product.getProductId(), true)
-                                     .map(ProductImage::getImageUrl)
-                                     .orElseGet(() ->
-                                         productImageRepository.findFirstByProductProductIdOrderByImageIdAsc(product.getProductId())
-                                             .map(ProductImage::getImageUrl)
-                                             .orElse(null) // Or a placeholder URL
-                                     );
-         summary.setPrimaryImageUrl(primaryImageUrl);
-
-         return summary;
-     }
-
-
     /**
      * Maps a DtoProduct to a Product entity (for creation or update).
      * Does NOT handle associations like Seller, Categories, Images, Variants.
@@ -491,11 +573,180 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
         product.setWeight(dto.getWeight());
         product.setColor(dto.getColor());
         product.setWarranty(dto.getWarranty());
-        product.setKeyFeatures(dto.getKeyFeatures() != null ? new HashSet<>(dto.getKeyFeatures()) : new HashSet<>());
-        product.setSpecifications(dto.getSpecifications() != null ? new HashMap<>(dto.getSpecifications()) : new HashMap<>());
+        // Modify the collections in place so that, on update, Hibernate only writes the rows that changed
+        Set<String> keyFeatures = dto.getKeyFeatures() != null ? new HashSet<>(dto.getKeyFeatures()) : new HashSet<>();
+        product.getKeyFeatures().retainAll(keyFeatures);
+        product.getKeyFeatures().addAll(keyFeatures);
+        Map<String, String> specifications = dto.getSpecifications() != null ? new HashMap<>(dto.getSpecifications()) : new HashMap<>();
+        product.getSpecifications().keySet().retainAll(specifications.keySet());
+        specifications.forEach((key, value) -> {
+            if (!Objects.equals(product.getSpecifications().get(key), value)) {
+                product.getSpecifications().put(key, value);
+            }
+        });
         return product;
     }
 
+    /**
+     * Brings the stored images of a product in line with the incoming list.
+     * Incoming images are matched to stored ones by imageId, then by imageUrl; matches are updated
+     * only if a field changed, unmatched incoming images are inserted, and unmatched stored images deleted.
+     */
+    private void syncImages(Product product, List<DtoProductImage> imageDtos) {
+        List<ProductImage> stored = productImageRepository.findByProductProductId(product.getProductId());
+        Map<Long, ProductImage> storedById = new HashMap<>();
+        Map<String, ProductImage> storedByUrl = new HashMap<>();
+        for (ProductImage image : stored) {
+            storedById.put(image.getImageId(), image);
+            storedByUrl.putIfAbsent(image.getImageUrl(), image);
+        }
+
+        List<ProductImage> toInsert = new ArrayList<>();
+        Set<Long> keptIds = new HashSet<>();
+        for (DtoProductImage dto : imageDtos != null ? imageDtos : Collections.<DtoProductImage>emptyList()) {
+            ProductImage match = dto.getImageId() != null ? storedById.get(dto.getImageId()) : null;
+            if (match == null || keptIds.contains(match.getImageId())) {
+                match = storedByUrl.get(dto.getImageUrl());
+            }
+            if (match == null || keptIds.contains(match.getImageId())) {
+                toInsert.addAll(mapDtoImageToImage(List.of(dto), product));
+                continue;
+            }
+            keptIds.add(match.getImageId());
+            // Setters on a managed entity; Hibernate issues an UPDATE only if a value changed
+            if (!Objects.equals(match.getImageUrl(), dto.getImageUrl())) {
+                match.setImageUrl(dto.getImageUrl());
+            }
+            if (match.isPrimary() != dto.isPrimary()) {
+                match.setPrimary(dto.isPrimary());
+            }
+            if (!Objects.equals(match.getAltText(), dto.getAltText())) {
+                match.setAltText(dto.getAltText());
+            }
+        }
+
+        List<ProductImage> toDelete = stored.stream().filter(image -> !keptIds.contains(image.getImageId())).toList();
+        if (!toDelete.isEmpty()) {
+            productImageRepository.deleteAllInBatch(toDelete);
+        }
+        if (!toInsert.isEmpty()) {
+            productImageRepository.saveAll(toInsert);
+        }
+    }
+
+    /**
+     * Brings the stored variants (and their attributes) of a product in line with the incoming list.
+     * Variants are matched by variantId, then by SKU; attributes within a matched variant by attributeId,
+     * then by name. Only changed fields are written, so unchanged variants cost no statements and
+     * variant ids referenced elsewhere stay valid.
+     */
+    private void syncVariants(Product product, List<DtoVariant> variantDtos) {
+        List<ProductVariant> stored = productVariantRepository.findWithAttributesByProductId(product.getProductId());
+        Map<Long, ProductVariant> storedById = new HashMap<>();
+        Map<String, ProductVariant> storedBySku = new HashMap<>();
+        for (ProductVariant variant : stored) {
+            storedById.put(variant.getVariantId(), variant);
+            if (variant.getSku() != null && !variant.getSku().isBlank()) {
+                storedBySku.putIfAbsent(variant.getSku(), variant);
+            }
+        }
+
+        List<ProductVariant> toInsert = new ArrayList<>();
+        List<ProductAttribute> attributesToDelete = new ArrayList<>();
+        Set<Long> keptIds = new HashSet<>();
+        for (DtoVariant dto : variantDtos != null ? variantDtos : Collections.<DtoVariant>emptyList()) {
+            ProductVariant match = dto.getVariantId() != null ? storedById.get(dto.getVariantId()) : null;
+            if ((match == null || keptIds.contains(match.getVariantId())) && dto.getSku() != null) {
+                match = storedBySku.get(dto.getSku());
+            }
+            if (match == null || keptIds.contains(match.getVariantId())) {
+                toInsert.addAll(mapDtoVariantToVariant(List.of(dto), product));
+                continue;
+            }
+            keptIds.add(match.getVariantId());
+            if (!Objects.equals(match.getSku(), dto.getSku())) {
+                match.setSku(dto.getSku());
+            }
+            if (!sameAmount(match.getPriceAdjustment(), dto.getPriceAdjustment())) {
+                match.setPriceAdjustment(dto.getPriceAdjustment());
+            }
+            if (match.getStockQuantity() != dto.getStockQuantity()) {
+                match.setStockQuantity(dto.getStockQuantity());
+            }
+            attributesToDelete.addAll(syncAttributes(product, match, dto.getAttributes()));
+        }
+
+        if (!attributesToDelete.isEmpty()) {
+            productAttributeRepository.deleteAllInBatch(attributesToDelete);
+        }
+        List<ProductVariant> toDelete = stored.stream().filter(variant -> !keptIds.contains(variant.getVariantId())).toList();
+        if (!toDelete.isEmpty()) {
+            List<ProductAttribute> orphanedAttributes = toDelete.stream().flatMap(variant -> variant.getAttributes().stream()).toList();
+            if (!orphanedAttributes.isEmpty()) {
+                productAttributeRepository.deleteAllInBatch(orphanedAttributes);
+            }
+            productVariantRepository.deleteAllInBatch(toDelete);
+        }
+        if (!toInsert.isEmpty()) {
+            productVariantRepository.saveAll(toInsert); // Cascades to the new variants' attributes
+        }
+    }
+
+    // BigDecimal#equals also compares the scale, so 5.0 and 5.00 would look like a change
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    /**
+     * Updates the attributes of a stored variant in place and adds new ones to its collection
+     * (persisted by cascade).
+     *
+     * @return Attributes that are no longer present and must be deleted by the caller.
+     */
+    private List<ProductAttribute> syncAttributes(Product product, ProductVariant variant, List<DtoAttribute> attributeDtos) {
+        Map<Long, ProductAttribute> storedById = new HashMap<>();
+        Map<String, ProductAttribute> storedByName = new HashMap<>();
+        for (ProductAttribute attr : variant.getAttributes()) {
+            storedById.put(attr.getAttributeId(), attr);
+            if (attr.getName() != null) {
+                storedByName.putIfAbsent(attr.getName(), attr);
+            }
+        }
+
+        List<ProductAttribute> toAdd = new ArrayList<>();
+        Set<Long> keptIds = new HashSet<>();
+        for (DtoAttribute dto : attributeDtos != null ? attributeDtos : Collections.<DtoAttribute>emptyList()) {
+            ProductAttribute match = dto.getAttributeId() != null ? storedById.get(dto.getAttributeId()) : null;
+            if ((match == null || keptIds.contains(match.getAttributeId())) && dto.getName() != null) {
+                match = storedByName.get(dto.getName());
+            }
+            if (match == null || keptIds.contains(match.getAttributeId())) {
+                toAdd.addAll(mapDtoAttributeToAttribute(List.of(dto), product, variant));
+                continue;
+            }
+            keptIds.add(match.getAttributeId());
+            if (!Objects.equals(match.getName(), dto.getName())) {
+                match.setName(dto.getName());
+            }
+            if (!Objects.equals(match.getValue(), dto.getValue())) {
+                match.setValue(dto.getValue());
+            }
+            if (!Objects.equals(match.getUnit(), dto.getUnit())) {
+                match.setUnit(dto.getUnit());
+            }
+            if (!Objects.equals(match.getAttributeGroup(), dto.getAttributeGroup())) {
+                match.setAttributeGroup(dto.getAttributeGroup());
+            }
+        }
+
+        List<ProductAttribute> removed = variant.getAttributes().stream()
+                .filter(attr -> !keptIds.contains(attr.getAttributeId()))
+                .toList();
+        variant.getAttributes().removeAll(removed);
+        variant.getAttributes().addAll(toAdd);
+        return removed;
+    }
+
      /**
       * Finds categories by ID and validates their existence.
       */
@@ -503,15 +754,13 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
          if (categoryIds == null || categoryIds.isEmpty()) {
              return new HashSet<>();
          }
-         Set<Category> categories = new HashSet<>(categoryRepository.findAllById(categoryIds));
-         if (categories.size() != categoryIds.size()) {
-             Set<Long> foundIds = categories.stream().map(Category::getCategoryId).collect(Collectors.toSet());
-             Set<Long> missingIds = new HashSet<>(categoryIds);
-             missingIds.removeAll(foundIds);
+         Set<Long> missingIds = categoryCache.findMissing(categoryIds);
+         if (!missingIds.isEmpty()) {
              // Use standard exception
              throw new NoSuchElementException("Could not find categories with IDs: " + missingIds);
          }
-         return categories;
+         // Detached references built from the cache; only the ids are needed to write the join table
+         return categoryIds.stream().map(categoryCache::toReference).collect(Collectors.toSet());
      }
 
      /**
@@ -582,7 +831,7 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
         // Conditionally add filters by chaining specifications with AND
         spec = spec.and(hasCategory(categoryId));
         spec = spec.and(priceBetween(minPrice, maxPrice));
-        spec = spec.and(matchesSearchTerm(searchTerm));
+        spec = spec.and(matchesSearchTerm(searchTerm, categoryId, minPrice, maxPrice));
 
         // Add other filters similarly:
         // spec = spec.and(hasBrand(brand));
@@ -592,12 +841,35 @@ public class ProductServiceImpl implements ProductService { // Implement the upd
         // Execute the combined specification
         Page<Product> productPage = productRepository.findAll(spec, pageable);
 
-        // Map results to DTOs
-        List<DtoProductSummary> summaries = productPage.getContent().stream()
-                .map(this::mapProductToDtoProductSummary)
-                .collect(Collectors.toList());
+        // Map results to DTOs (primary images resolved for the whole page in one query)
+        return productSummaryAssembler.toSummaryPage(productPage);
+    }
 
-        return new PageImpl<>(summaries, pageable, productPage.getTotalElements());
+    @Override
+    @Transactional(readOnly = true)
+    public DtoCursorPage<DtoProductSummary> filterProductsAfter(
+            String searchTerm,
+            Long categoryId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            String cursor,
+            Pageable pageable) {
+        Specification<Product> spec = Specification.where(hasCategory(categoryId))
+                .and(priceBetween(minPrice, maxPrice))
+                .and(matchesSearchTerm(searchTerm, categoryId, minPrice, maxPrice));
+        return findPageAfter(spec, cursor, pageable);
+    }
+
+    @Override
+    public DtoProductFacets getFilterFacets(
+            String searchTerm,
+            Long categoryId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice) {
+        if (!productFacetIndex.isReady()) {
+            throw new IllegalStateException("Product facet index is not ready yet");
+        }
+        return productFacetIndex.count(searchTerm, categoryId, minPrice, maxPrice);
     }
 
     // Inside ProductServiceImpl.java (or a new class ProductSpecifications)
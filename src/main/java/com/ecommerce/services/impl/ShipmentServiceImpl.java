@@ -12,6 +12,8 @@ import com.ecommerce.exceptions.ShipmentNotFoundException;
 import com.ecommerce.repository.OrderRepository;
 import com.ecommerce.repository.ShipmentRepository;
 import com.ecommerce.services.ShipmentService;
+import com.ecommerce.services.metrics.SellerSalesRollup;
+import com.ecommerce.services.outbox.OutboxPublisher;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +39,12 @@ public class ShipmentServiceImpl implements ShipmentService {
     @Autowired
     private ExternalShippingApiClient externalApiClient; // Inject the client
 
+    @Autowired
+    private OutboxPublisher outboxPublisher; // Customer notifications for SHIPPED / DELIVERED
+
+    @Autowired
+    private SellerSalesRollup sellerSalesRollup; // Seller dashboard status counts
+
     @Override
     @Transactional // Make this transactional
     public Shipment createShipmentForOrder(Order order, LogisticsProvider logisticsProvider /*, ShipmentDetails details */) throws ShipmentCreationException {
@@ -77,8 +85,11 @@ public class ShipmentServiceImpl implements ShipmentService {
             log.info("Shipment created locally with ID: {} and Tracking: {}", savedShipment.getShipmentId(), savedShipment.getTrackingNumber());
 
             // 5. Update the Order status (optional, but common)
+            Order.OrderStatus previousStatus = order.getStatus();
             order.setStatus(Order.OrderStatus.SHIPPED);
             orderRepository.save(order); // Save the updated order
+            outboxPublisher.publishStatusChanged(order);
+            sellerSalesRollup.statusChanged(order, previousStatus);
 
             // TODO: Store label URL somewhere if needed
 
@@ -141,8 +152,11 @@ public class ShipmentServiceImpl implements ShipmentService {
                  Order order = shipment.getOrder();
                  if (order.getStatus() != Order.OrderStatus.DELIVERED && order.getStatus() != Order.OrderStatus.CANCELLED) {
                      log.info("Updating Order {} status to DELIVERED", order.getOrderId());
+                     Order.OrderStatus previousStatus = order.getStatus();
                      order.setStatus(Order.OrderStatus.DELIVERED);
                      orderRepository.save(order);
+                     outboxPublisher.publishStatusChanged(order);
+                     sellerSalesRollup.statusChanged(order, previousStatus);
                  }
              }
             // Handle other statuses like FAILED_DELIVERY, RETURNED etc.
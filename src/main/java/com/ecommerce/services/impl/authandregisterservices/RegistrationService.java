@@ -14,12 +14,14 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // <<< Import Transactional
 
+import com.ecommerce.config.securityconfig.UserPrincipal;
 import com.ecommerce.entities.user.Admin;
 import com.ecommerce.entities.user.Customer;
 import com.ecommerce.entities.user.LogisticsProvider;
 import com.ecommerce.entities.user.Seller;
 import com.ecommerce.entities.user.User;
 import com.ecommerce.repository.authandregisterrepo.RegistrationRepo;
+import com.ecommerce.services.CartService;
 import com.ecommerce.services.IRegistrationService;
 
 // Removed unused import: jakarta.transaction.Transactional;
@@ -41,6 +43,9 @@ public class RegistrationService implements IRegistrationService {
     // +++ MODIFIED: Inject PasswordEncoder Bean +++
     @Autowired
     private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private CartService cartService;
     // --- REMOVED: private BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(12);
     // ++++++++++++++++++++++++++++++++++++++++++++
 
@@ -76,8 +81,12 @@ public class RegistrationService implements IRegistrationService {
         return registrationRepo.save(seller);
     }
 
-    // --- MODIFIED: verify method with basic exception handling ---
     public String verify(User user) {
+        return verify(user, null);
+    }
+
+    // --- MODIFIED: verify method with basic exception handling ---
+    public String verify(User user, String guestCartToken) {
         log.debug("Attempting authentication for user: {}", user.getUsername()); // Use debug for potentially sensitive info
         try {
             Authentication authentication =
@@ -86,6 +95,9 @@ public class RegistrationService implements IRegistrationService {
             if (authentication.isAuthenticated()) {
                 UserDetails userDetails = (UserDetails) authentication.getPrincipal(); // Authenticated UserDetails'i al
                 log.info("Authentication successful for user: {}", userDetails.getUsername());
+                if (guestCartToken != null) {
+                    mergeGuestCart(userDetails, guestCartToken);
+                }
                 return jwtService.generateToken(userDetails); // UserDetails'i generateToken'a gönder
             } else {
                 // This case might be rare if authenticate throws exceptions correctly
@@ -108,4 +120,16 @@ public class RegistrationService implements IRegistrationService {
         // --- Removed: return "Login failed!"; (Now throws exceptions)
     }
     // --- End Modification ---
+
+    // A guest cart that cannot be merged (expired, not a customer) must not fail the login
+    private void mergeGuestCart(UserDetails userDetails, String guestCartToken) {
+        if (!(userDetails instanceof UserPrincipal principal) || !"CUSTOMER".equals(principal.getUser().getRoleType())) {
+            return;
+        }
+        try {
+            cartService.mergeGuestCart(principal.getId(), guestCartToken);
+        } catch (RuntimeException e) {
+            log.warn("Could not merge guest cart into the cart of customer {}: {}", principal.getId(), e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,372 @@
+package com.ecommerce.services.inventory;
+
+import com.ecommerce.config.TransactionUtils;
+import com.ecommerce.dto.DtoHotSkuStatus;
+import com.ecommerce.exceptions.InsufficientStockException;
+import com.ecommerce.exceptions.OrderCreationException;
+import com.ecommerce.repository.ProductBatchWriter;
+import com.ecommerce.services.cache.ProductDetailCache;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory reservation ledger for "hot" products (flash sales), enabled per product by an admin.
+ *
+ * For a hot product, checkout does not update the product row. Its available stock is split across
+ * a few striped counters and a reservation is a CAS decrement on one of them, so concurrent buyers
+ * of the same product do not queue on a single MySQL row lock. Units sold are accumulated and
+ * written to product.stock_quantity by a write-behind flusher every few hundred milliseconds
+ * ({@code stock = stock - n}); the database therefore lags the ledger by at most one flush interval.
+ *
+ * A reservation is settled by the order transaction: on commit its units become sold, on rollback
+ * they go back to the counters. Reservations that are never settled (e.g. a stuck transaction) are
+ * returned after a TTL; if such a transaction does reach its commit later, it must take the units
+ * again and rolls back when they are gone, so an expired reservation never oversells. Cancelled
+ * orders return their units to the counters as well.
+ *
+ * The ledger is not shared between application instances; hot mode is only safe with a single
+ * instance serving checkouts.
+ */
+@Component
+@RequiredArgsConstructor
+public class HotSkuLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(HotSkuLedger.class);
+
+    // One counter per 64-byte cache line, so stripes updated by different cores do not false-share
+    private static final int PADDING = 8;
+
+    private final ProductBatchWriter productBatchWriter;
+    private final ProductDetailCache productDetailCache;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${inventory.hot-sku.stripes:8}")
+    private int stripeCount;
+
+    @Value("${inventory.hot-sku.reservation-ttl-ms:120000}")
+    private long reservationTtlMs;
+
+    private final Map<Long, Sku> active = new ConcurrentHashMap<>();
+    private final Map<Long, Sku> retiring = new ConcurrentHashMap<>();
+    private final Map<Long, Reservation> openReservations = new ConcurrentHashMap<>();
+    private final AtomicLong reservationSequence = new AtomicLong();
+    private final Object flushLock = new Object();
+
+    /**
+     * @return true if checkouts of this product are served by the ledger.
+     */
+    public boolean isHot(Long productId) {
+        return active.containsKey(productId);
+    }
+
+    /**
+     * Switches a product to hot mode, seeding the counters with its current stock. The row is locked
+     * while the stock is read and the product is registered before the lock is released, so a
+     * concurrent row-path checkout either finishes before the read or sees the product as hot.
+     *
+     * @throws NoSuchElementException if the product does not exist.
+     * @throws IllegalStateException  if the product is already hot or still settling a previous hot period.
+     */
+    @Transactional
+    public DtoHotSkuStatus enable(Long productId) {
+        if (active.containsKey(productId) || retiring.containsKey(productId)) {
+            throw new IllegalStateException("Product " + productId + " is already in hot SKU mode or still being settled");
+        }
+        Integer stock = productBatchWriter.lockStockQuantity(productId);
+        if (stock == null) {
+            throw new NoSuchElementException("Product not found with ID: " + productId);
+        }
+        Sku sku = new Sku(productId, Math.max(1, stripeCount), Math.max(0, stock));
+        if (active.putIfAbsent(productId, sku) != null) {
+            throw new IllegalStateException("Product " + productId + " is already in hot SKU mode");
+        }
+        log.info("Product {} switched to hot SKU mode with {} units across {} stripes", productId, stock, sku.stripes);
+        return sku.toStatus();
+    }
+
+    /**
+     * Switches a product back to row updates and flushes what it sold. Reservations still open at this
+     * point are settled as usual and written by the next flush; the product row may overstate stock by
+     * those units until then, so disable hot mode once the sale traffic has subsided.
+     *
+     * @throws NoSuchElementException if the product is not in hot mode.
+     */
+    public void disable(Long productId) {
+        Sku sku = active.remove(productId);
+        if (sku == null) {
+            throw new NoSuchElementException("Product " + productId + " is not in hot SKU mode");
+        }
+        sku.retiring = true;
+        retiring.put(productId, sku);
+        flush();
+        log.info("Product {} switched back to row-level stock updates", productId);
+    }
+
+    /**
+     * Takes units of a hot product for the current order transaction. On commit the units count as
+     * sold; on rollback they are returned.
+     *
+     * @return false if the product does not have enough units left (nothing is taken).
+     * @throws OrderCreationException if the product left hot mode since the caller checked {@link #isHot(Long)}.
+     */
+    public boolean reserve(Long productId, int quantity) {
+        Sku sku = active.get(productId);
+        if (sku == null) {
+            throw new OrderCreationException("Stock mode of product " + productId + " changed during checkout; please retry");
+        }
+        if (!sku.tryTake(quantity)) {
+            return false;
+        }
+        Long reservationId = reservationSequence.incrementAndGet();
+        Reservation reservation = new Reservation(sku, quantity, System.currentTimeMillis() + reservationTtlMs);
+        sku.open.incrementAndGet();
+        openReservations.put(reservationId, reservation);
+        TransactionUtils.afterCompletion(
+                () -> hold(reservation),
+                () -> confirm(reservationId, reservation),
+                () -> release(reservationId, reservation));
+        return true;
+    }
+
+    /**
+     * Returns units of a cancelled order to a hot product once the cancellation commits.
+     *
+     * @return false if the product is not in hot mode; the caller then restores stock on the row.
+     */
+    public boolean returnUnits(Long productId, int quantity) {
+        Sku sku = active.get(productId);
+        if (sku == null) {
+            return false;
+        }
+        TransactionUtils.afterCommit(() -> {
+            sku.put(quantity);
+            sku.pending.add(-quantity);
+        });
+        return true;
+    }
+
+    /**
+     * @return The state of every product currently in (or leaving) hot mode, by product ID.
+     */
+    public List<DtoHotSkuStatus> getStatus() {
+        List<DtoHotSkuStatus> status = new ArrayList<>();
+        active.values().forEach(sku -> status.add(sku.toStatus()));
+        retiring.values().forEach(sku -> status.add(sku.toStatus()));
+        status.sort(Comparator.comparing(DtoHotSkuStatus::getProductId));
+        return status;
+    }
+
+    /**
+     * Write-behind: applies the units sold (net of returns) since the last run to the product rows in
+     * one batch. Each update is guarded, so a row whose stock was lowered below the units sold (e.g. by
+     * a manual edit) is left alone and reported instead of going negative. On failure, or for guarded
+     * rows, the deltas are kept for the next run.
+     */
+    @Scheduled(fixedDelayString = "${inventory.hot-sku.flush-interval-ms:500}")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<Long, Sku> skus = new HashMap<>(active);
+            skus.putAll(retiring);
+            Map<Long, Long> deltas = new TreeMap<>(); // Product ID order, like the checkout path
+            for (Sku sku : skus.values()) {
+                long sold = sku.pending.sumThenReset();
+                if (sold != 0) {
+                    deltas.put(sku.productId, sold);
+                }
+            }
+
+            if (!deltas.isEmpty()) {
+                try {
+                    Map<Long, Long> rejected = new TreeMap<>();
+                    List<Long> missing = new TransactionTemplate(transactionManager).execute(status -> {
+                        List<Long> notFound = new ArrayList<>();
+                        for (Long productId : productBatchWriter.applyStockDeltas(deltas)) {
+                            if (productBatchWriter.lockStockQuantity(productId) == null) {
+                                notFound.add(productId);
+                            } else {
+                                rejected.put(productId, deltas.get(productId));
+                            }
+                        }
+                        return notFound;
+                    });
+                    for (Long productId : missing) {
+                        log.warn("Hot SKU product {} no longer exists; dropping it from the ledger", productId);
+                        active.remove(productId);
+                        retiring.remove(productId);
+                    }
+                    rejected.forEach((productId, sold) -> {
+                        log.error("Stock of hot SKU product {} is below the {} units sold; keeping them for the next flush", productId, sold);
+                        skus.get(productId).pending.add(sold);
+                    });
+                    productDetailCache.invalidateAll(deltas.keySet()); // Detail view shows stock
+                } catch (RuntimeException e) {
+                    deltas.forEach((productId, sold) -> skus.get(productId).pending.add(sold));
+                    log.error("Hot SKU flush of {} products failed; will retry", deltas.size(), e);
+                }
+            }
+
+            retiring.values().removeIf(sku -> sku.open.get() == 0 && sku.pending.sum() == 0);
+        }
+    }
+
+    /**
+     * Returns the units of reservations whose transaction has not completed within the TTL.
+     */
+    @Scheduled(fixedDelayString = "${inventory.hot-sku.expiry-interval-ms:30000}")
+    public void expireReservations() {
+        long now = System.currentTimeMillis();
+        openReservations.forEach((reservationId, reservation) -> {
+            if (reservation.expiresAt < now && reservation.state.compareAndSet(Reservation.OPEN, Reservation.EXPIRED)) {
+                log.warn("Hot SKU reservation {} of {} units for product {} expired; returning units",
+                        reservationId, reservation.quantity, reservation.sku.productId);
+                openReservations.remove(reservationId);
+                reservation.sku.open.decrementAndGet();
+                reservation.sku.put(reservation.quantity);
+            }
+        });
+    }
+
+    // --- Helper Methods ---
+
+    // Before commit: exempts the reservation from expiry, or takes its units again if it already expired
+    private void hold(Reservation reservation) {
+        if (reservation.state.compareAndSet(Reservation.OPEN, Reservation.HELD)) {
+            return;
+        }
+        Sku sku = reservation.sku;
+        if (!sku.tryTake(reservation.quantity)) {
+            log.warn("Hot SKU reservation for product {} expired and its units are gone; rolling back", sku.productId);
+            throw new InsufficientStockException("Insufficient stock for product ID: " + sku.productId);
+        }
+        sku.open.incrementAndGet();
+        reservation.state.set(Reservation.HELD);
+    }
+
+    private void confirm(Long reservationId, Reservation reservation) {
+        reservation.state.set(Reservation.SETTLED);
+        openReservations.remove(reservationId);
+        reservation.sku.pending.add(reservation.quantity);
+        reservation.sku.open.decrementAndGet();
+    }
+
+    private void release(Long reservationId, Reservation reservation) {
+        int previous = reservation.state.getAndSet(Reservation.SETTLED);
+        if (previous == Reservation.OPEN || previous == Reservation.HELD) {
+            openReservations.remove(reservationId);
+            reservation.sku.open.decrementAndGet();
+            reservation.sku.put(reservation.quantity);
+        }
+    }
+
+    private static final class Sku {
+        final Long productId;
+        final int stripes;
+        final AtomicLongArray cells;
+        final LongAdder pending = new LongAdder(); // Net units sold, not yet flushed
+        final AtomicInteger open = new AtomicInteger();
+        volatile boolean retiring;
+
+        Sku(Long productId, int stripes, long units) {
+            this.productId = productId;
+            this.stripes = stripes;
+            this.cells = new AtomicLongArray(stripes * PADDING);
+            for (int i = 0; i < stripes; i++) {
+                cells.set(i * PADDING, units / stripes + (i < units % stripes ? 1 : 0));
+            }
+        }
+
+        /**
+         * Takes units from a single stripe if one has enough (starting at a random stripe to spread
+         * contention), otherwise gathers them from several. Near sell-out, concurrent gatherers can
+         * each hold part of the remainder and fail although the total would have sufficed.
+         */
+        boolean tryTake(long quantity) {
+            int start = ThreadLocalRandom.current().nextInt(stripes);
+            for (int i = 0; i < stripes; i++) {
+                int index = ((start + i) % stripes) * PADDING;
+                long value;
+                while ((value = cells.get(index)) >= quantity) {
+                    if (cells.compareAndSet(index, value, value - quantity)) {
+                        return true;
+                    }
+                }
+            }
+
+            long taken = 0;
+            for (int i = 0; i < stripes && taken < quantity; i++) {
+                int index = ((start + i) % stripes) * PADDING;
+                long value;
+                while ((value = cells.get(index)) > 0) {
+                    long part = Math.min(value, quantity - taken);
+                    if (cells.compareAndSet(index, value, value - part)) {
+                        taken += part;
+                        break;
+                    }
+                }
+            }
+            if (taken == quantity) {
+                return true;
+            }
+            if (taken > 0) {
+                put(taken);
+            }
+            return false;
+        }
+
+        void put(long quantity) {
+            cells.getAndAdd(ThreadLocalRandom.current().nextInt(stripes) * PADDING, quantity);
+        }
+
+        long available() {
+            long sum = 0;
+            for (int i = 0; i < stripes; i++) {
+                sum += cells.get(i * PADDING);
+            }
+            return sum;
+        }
+
+        DtoHotSkuStatus toStatus() {
+            return new DtoHotSkuStatus(productId, available(), pending.sum(), open.get(), stripes, retiring);
+        }
+    }
+
+    private static final class Reservation {
+        static final int OPEN = 0;     // Units taken, transaction running; may expire
+        static final int EXPIRED = 1;  // Units returned by the expiry job
+        static final int HELD = 2;     // Transaction committing; units taken and no longer subject to expiry
+        static final int SETTLED = 3;  // Committed or rolled back
+
+        final Sku sku;
+        final int quantity;
+        final long expiresAt;
+        final AtomicInteger state = new AtomicInteger(OPEN);
+
+        Reservation(Sku sku, int quantity, long expiresAt) {
+            this.sku = sku;
+            this.quantity = quantity;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.ecommerce.services.metrics;
+
+import com.ecommerce.config.TransactionUtils;
+import com.ecommerce.dto.DtoSellerMetrics;
+import com.ecommerce.entities.order.Order;
+import com.ecommerce.entities.order.OrderItem;
+import com.ecommerce.repository.SellerMetricsRepository;
+import com.ecommerce.repository.SellerMetricsRepository.DailySalesDelta;
+import com.ecommerce.repository.SellerMetricsRepository.ProductSalesDelta;
+import com.ecommerce.repository.SellerMetricsRepository.StatusCountDelta;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the seller sales rollup tables in step with the orders and serves the seller dashboard from
+ * them, so the dashboard no longer loads every order of the seller.
+ *
+ * Every code path that creates an order or changes its status reports it here. The changes of one
+ * transaction are coalesced in memory and written as additive upserts just before it commits: the
+ * rollup commits or rolls back with the order, and the shared per-seller rows are only locked for the
+ * commit itself rather than for the whole checkout.
+ */
+@Component
+@RequiredArgsConstructor
+public class SellerSalesRollup {
+
+    private static final Logger log = LoggerFactory.getLogger(SellerSalesRollup.class);
+
+    private static final int MAX_TOP_PRODUCTS = 100;
+
+    private final SellerMetricsRepository sellerMetricsRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Object bufferKey = new Object();
+
+    /**
+     * Counts a newly saved order: its status, the day's orders and revenue, and units per product.
+     */
+    public void orderPlaced(Order order) {
+        Long sellerId = sellerIdOf(order);
+        if (sellerId == null) {
+            return;
+        }
+        record(buffer -> {
+            buffer.addStatus(sellerId, order.getStatus(), 1);
+            buffer.addDay(sellerId, placedOn(order), 1, 0, order.getTotalAmount());
+            addItems(buffer, sellerId, order, 1);
+        });
+    }
+
+    /**
+     * Counts a status change of one order. A change to CANCELLED also takes the order's revenue and
+     * units off the day it was placed.
+     */
+    public void statusChanged(Order order, Order.OrderStatus previousStatus) {
+        Long sellerId = sellerIdOf(order);
+        Order.OrderStatus newStatus = order.getStatus();
+        if (sellerId == null || previousStatus == newStatus) {
+            return;
+        }
+        record(buffer -> {
+            buffer.addStatus(sellerId, previousStatus, -1);
+            buffer.addStatus(sellerId, newStatus, 1);
+            if (newStatus == Order.OrderStatus.CANCELLED) {
+                buffer.addDay(sellerId, placedOn(order), 0, 1, order.getTotalAmount().negate());
+                addItems(buffer, sellerId, order, -1);
+            }
+        });
+    }
+
+    /**
+     * Counts status changes made without loading the orders (bulk updates). Cancellations are not
+     * supported here since they need the order's amounts.
+     */
+    public void statusChanged(Long sellerId, Order.OrderStatus previousStatus, Order.OrderStatus newStatus) {
+        if (newStatus == Order.OrderStatus.CANCELLED) {
+            throw new IllegalArgumentException("Cancellations must be recorded with the order");
+        }
+        if (sellerId == null || previousStatus == newStatus) {
+            return;
+        }
+        record(buffer -> {
+            buffer.addStatus(sellerId, previousStatus, -1);
+            buffer.addStatus(sellerId, newStatus, 1);
+        });
+    }
+
+    /**
+     * Reads the seller's dashboard from the rollup tables.
+     *
+     * @param top Number of best-selling products to include (1-100).
+     * @throws IllegalArgumentException if {@code top} is out of range.
+     */
+    public DtoSellerMetrics getMetrics(Long sellerId, int top) {
+        if (top < 1 || top > MAX_TOP_PRODUCTS) {
+            throw new IllegalArgumentException("top must be between 1 and " + MAX_TOP_PRODUCTS);
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> {
+            BigDecimal[] revenue = sellerMetricsRepository.findRevenue(sellerId, LocalDate.now());
+            return new DtoSellerMetrics(sellerMetricsRepository.findStatusCounts(sellerId),
+                    revenue[0], revenue[1], revenue[2], sellerMetricsRepository.findTopProducts(sellerId, top));
+        });
+    }
+
+    /**
+     * Backfills the rollup from the existing orders the first time the application starts with it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (sellerMetricsRepository.isEmpty()) {
+                log.info("Seller sales rollup is empty; rebuilding it from existing orders");
+                sellerMetricsRepository.rebuild();
+            }
+        });
+    }
+
+    // --- Helper Methods ---
+
+    private void record(Consumer<Buffer> change) {
+        Buffer buffer = TransactionUtils.bufferUntilCommit(bufferKey, Buffer::new, this::write);
+        if (buffer != null) {
+            change.accept(buffer);
+            return;
+        }
+        // No surrounding transaction: write right away in one of our own
+        Buffer immediate = new Buffer();
+        change.accept(immediate);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> write(immediate));
+    }
+
+    private void write(Buffer buffer) {
+        sellerMetricsRepository.applyDeltas(buffer.statusDeltas(), buffer.dailyDeltas(), buffer.productDeltas());
+    }
+
+    private static void addItems(Buffer buffer, Long sellerId, Order order, int sign) {
+        for (OrderItem item : order.getItems()) {
+            if (item.getProduct() != null) {
+                BigDecimal lineTotal = item.getPriceAtPurchase().multiply(BigDecimal.valueOf(item.getQuantity()));
+                buffer.addProduct(sellerId, item.getProduct().getProductId(), (long) sign * item.getQuantity(),
+                        sign < 0 ? lineTotal.negate() : lineTotal);
+            }
+        }
+    }
+
+    private static Long sellerIdOf(Order order) {
+        return order.getSeller() != null ? order.getSeller().getUserId() : null;
+    }
+
+    private static LocalDate placedOn(Order order) {
+        return order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now();
+    }
+
+    /**
+     * Net changes of one transaction, keyed (seller, status|day|product) in sorted order so every
+     * transaction upserts rows in the same order.
+     */
+    private static final class Buffer {
+        final Map<Long, Map<Order.OrderStatus, Long>> statuses = new TreeMap<>();
+        final Map<Long, Map<LocalDate, DailySalesDelta>> days = new TreeMap<>();
+        final Map<Long, Map<Long, ProductSalesDelta>> products = new TreeMap<>();
+
+        void addStatus(Long sellerId, Order.OrderStatus status, long count) {
+            statuses.computeIfAbsent(sellerId, id -> new EnumMap<>(Order.OrderStatus.class)).merge(status, count, Long::sum);
+        }
+
+        void addDay(Long sellerId, LocalDate day, long placed, long cancelled, BigDecimal revenue) {
+            days.computeIfAbsent(sellerId, id -> new TreeMap<>()).merge(day,
+                    new DailySalesDelta(sellerId, day, placed, cancelled, revenue),
+                    (a, b) -> new DailySalesDelta(sellerId, day, a.ordersPlaced() + b.ordersPlaced(),
+                            a.ordersCancelled() + b.ordersCancelled(), a.revenue().add(b.revenue())));
+        }
+
+        void addProduct(Long sellerId, Long productId, long units, BigDecimal revenue) {
+            products.computeIfAbsent(sellerId, id -> new TreeMap<>()).merge(productId,
+                    new ProductSalesDelta(sellerId, productId, units, revenue),
+                    (a, b) -> new ProductSalesDelta(sellerId, productId, a.unitsSold() + b.unitsSold(), a.revenue().add(b.revenue())));
+        }
+
+        List<StatusCountDelta> statusDeltas() {
+            List<StatusCountDelta> deltas = new ArrayList<>();
+            statuses.forEach((sellerId, counts) -> counts.forEach((status, count) -> {
+                if (count != 0) {
+                    deltas.add(new StatusCountDelta(sellerId, status, count));
+                }
+            }));
+            return deltas;
+        }
+
+        List<DailySalesDelta> dailyDeltas() {
+            List<DailySalesDelta> deltas = new ArrayList<>();
+            days.values().forEach(byDay -> deltas.addAll(byDay.values()));
+            return deltas;
+        }
+
+        List<ProductSalesDelta> productDeltas() {
+            List<ProductSalesDelta> deltas = new ArrayList<>();
+            products.values().forEach(byProduct -> byProduct.values().forEach(delta -> {
+                if (delta.unitsSold() != 0 || delta.revenue().signum() != 0) {
+                    deltas.add(delta);
+                }
+            }));
+            return deltas;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.ecommerce.services.order;
+
+import com.ecommerce.config.SchedulingConfig;
+import com.ecommerce.dto.DtoOrderResponse;
+import com.ecommerce.entities.order.ArchivedOrder;
+import com.ecommerce.entities.order.Order;
+import com.ecommerce.mappers.OrderMapper;
+import com.ecommerce.repository.ArchivedOrderRepository;
+import com.ecommerce.repository.OrderArchiveWriter;
+import com.ecommerce.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves completed orders out of the live tables (orders, order_item, payment, shipment) into
+ * archived_orders, so the indexes behind the customer and seller order queries only hold recent and
+ * open orders. Reads of a single order fall back to the archive through {@link #find(Long)}.
+ *
+ * The job walks DELIVERED and CANCELLED orders placed more than order.archive.min-age-days ago, oldest
+ * first, in small batches. Each batch is its own short transaction: candidates are found with a
+ * non-locking read, and only the rows of those orders are deleted (by key), so checkout and status
+ * updates on the hot tables are not blocked. Both statuses are final, so a candidate cannot change
+ * between the read and the delete. The job, pauses included, runs on a scheduler thread of its own.
+ * Disabled unless order.archive.enabled=true.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiver.class);
+
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderArchiveWriter orderArchiveWriter;
+    private final OrderMapper orderMapper;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${order.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${order.archive.min-age-days:365}")
+    private int minAgeDays;
+
+    @Value("${order.archive.batch-size:200}")
+    private int batchSize;
+
+    @Value("${order.archive.pause-ms:100}")
+    private long pauseMs;
+
+    /**
+     * Archives all eligible orders, batch by batch.
+     */
+    @Scheduled(scheduler = SchedulingConfig.ORDER_ARCHIVE_SCHEDULER, cron = "${order.archive.cron:0 0 4 * * *}")
+    public void archiveCompletedOrders() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minusDays(minAgeDays);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Cursor cursor = new Cursor(START, 0L);
+        int archived = 0;
+        while (cursor != null && !Thread.currentThread().isInterrupted()) {
+            Cursor after = cursor;
+            BatchResult result = transactionTemplate.execute(status -> archiveBatch(before, after));
+            if (result == null) {
+                break;
+            }
+            archived += result.archived();
+            cursor = result.next();
+            pause();
+        }
+        log.info("Archived {} orders placed before {}", archived, before);
+    }
+
+    /**
+     * @return The archived order as the API returned it, if the order was archived.
+     */
+    public Optional<DtoOrderResponse> find(Long orderId) {
+        return findArchive(orderId).map(this::readPayload);
+    }
+
+    /**
+     * @return The archive row (for ownership checks), if the order was archived.
+     */
+    public Optional<ArchivedOrder> findArchive(Long orderId) {
+        return archivedOrderRepository.findById(orderId);
+    }
+
+    public DtoOrderResponse readPayload(ArchivedOrder archive) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(archive.getPayload()))) {
+            return objectMapper.readValue(in, DtoOrderResponse.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archived order " + archive.getOrderId(), e);
+        }
+    }
+
+    // --- Helper Methods ---
+
+    // Returns null when there is nothing left to archive
+    private BatchResult archiveBatch(LocalDateTime before, Cursor after) {
+        List<Long> candidateIds = orderRepository.findArchivableIds(before, after.createdAt(), after.orderId(), batchSize);
+        if (candidateIds.isEmpty()) {
+            return null;
+        }
+        List<Order> orders = new ArrayList<>(orderRepository.findAllWithItemsByIdIn(candidateIds));
+        orders.sort(Comparator.comparing(Order::getCreatedAt).thenComparing(Order::getOrderId));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ArchivedOrder> archives = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            if (order.getStatus() == Order.OrderStatus.DELIVERED || order.getStatus() == Order.OrderStatus.CANCELLED) {
+                archives.add(toArchive(order, now));
+            }
+        }
+        orderArchiveWriter.insertArchives(archives);
+        orderArchiveWriter.deleteOrders(archives.stream().map(ArchivedOrder::getOrderId).toList());
+
+        Cursor next = candidateIds.size() < batchSize || orders.isEmpty()
+                ? null
+                : new Cursor(orders.get(orders.size() - 1).getCreatedAt(), orders.get(orders.size() - 1).getOrderId());
+        return new BatchResult(archives.size(), next);
+    }
+
+    private ArchivedOrder toArchive(Order order, LocalDateTime now) {
+        ArchivedOrder archive = new ArchivedOrder();
+        archive.setOrderId(order.getOrderId());
+        archive.setOrderNumber(order.getOrderNumber());
+        archive.setCustomerId(order.getCustomer().getUserId());
+        archive.setSellerId(order.getSeller() != null ? order.getSeller().getUserId() : null);
+        archive.setStatus(order.getStatus().name());
+        archive.setTotalAmount(order.getTotalAmount());
+        archive.setCreatedAt(order.getCreatedAt());
+        archive.setArchivedAt(now);
+        archive.setPayload(compress(orderMapper.toDtoOrderResponse(order)));
+        return archive;
+    }
+
+    private byte[] compress(DtoOrderResponse response) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, response);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize order " + response.getOrderId(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // Gives the hot tables room between batches
+    private void pause() {
+        if (pauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Cursor(LocalDateTime createdAt, Long orderId) {}
+
+    private record BatchResult(int archived, Cursor next) {}
+}
@@ -0,0 +1,259 @@
+package com.ecommerce.services.order;
+
+import com.ecommerce.dto.DtoOrderRequest;
+import com.ecommerce.dto.DtoOrderResponse;
+import com.ecommerce.entities.order.OrderIdempotencyRecord;
+import com.ecommerce.exceptions.IdempotencyConflictException;
+import com.ecommerce.repository.OrderIdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes order creation idempotent per (customer, Idempotency-Key).
+ *
+ * Two tiers: an in-memory map of in-flight and recently completed requests, and the
+ * order_idempotency_keys table. A duplicate arriving while the first request is still running on
+ * this instance waits for its result instead of checking out again. The table row is written in the
+ * order's own transaction; a duplicate on another instance blocks on the unique key until the first
+ * transaction ends and then reads the stored response. Failed requests are not remembered, so the
+ * client can retry them with the same key.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderIdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIdempotencyStore.class);
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final long WAIT_TIMEOUT_SECONDS = 30;
+
+    private final OrderIdempotencyRecordRepository recordRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${order.idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+
+    @Value("${order.idempotency.memory-max-entries:10000}")
+    private int memoryMaxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the order creation once per key and returns the stored response for repeats.
+     *
+     * @param customerId     The customer placing the order; keys are scoped per customer.
+     * @param idempotencyKey The Idempotency-Key header, or null to run without idempotency.
+     * @param request        The order request; a repeat must carry the same request.
+     * @param createOrder    The actual order creation.
+     * @return The response of the first successful execution.
+     * @throws IllegalArgumentException     if the key is blank or too long.
+     * @throws IdempotencyConflictException if the key was used for a different request, or the first
+     *                                      request is still running after the wait time.
+     */
+    public DtoOrderResponse execute(Long customerId, String idempotencyKey, DtoOrderRequest request,
+                                    Supplier<DtoOrderResponse> createOrder) {
+        if (idempotencyKey == null) {
+            return createOrder.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String scope = customerId + ":" + idempotencyKey;
+        String requestHash = hash(request);
+
+        Entry mine = new Entry(requestHash);
+        while (true) {
+            Entry existing = entries.putIfAbsent(scope, mine);
+            if (existing == null) {
+                break;
+            }
+            if (existing.isExpired()) {
+                entries.remove(scope, existing);
+                continue;
+            }
+            checkSameRequest(existing.requestHash, requestHash);
+            return await(existing);
+        }
+
+        try {
+            DtoOrderResponse response = executeOnce(customerId, idempotencyKey, requestHash, createOrder);
+            mine.expiresAt = System.currentTimeMillis() + ttlMs;
+            mine.result.complete(response);
+            evictIfFull();
+            return response;
+        } catch (RuntimeException e) {
+            entries.remove(scope, mine); // Not remembered; a retry with the same key runs again
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes expired keys from memory and from the table.
+     */
+    @Scheduled(fixedDelayString = "${order.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        entries.values().removeIf(Entry::isExpired);
+        Integer deleted = new TransactionTemplate(transactionManager)
+                .execute(status -> recordRepository.deleteAllExpired(LocalDateTime.now()));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} expired order idempotency keys", deleted);
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private DtoOrderResponse executeOnce(Long customerId, String idempotencyKey, String requestHash,
+                                         Supplier<DtoOrderResponse> createOrder) {
+        Optional<DtoOrderResponse> stored = findStored(customerId, idempotencyKey, requestHash);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                recordRepository.deleteExpired(customerId, idempotencyKey, now);
+
+                // Claim the key first: a concurrent claim on another instance blocks here until we finish
+                OrderIdempotencyRecord record = new OrderIdempotencyRecord();
+                record.setCustomerId(customerId);
+                record.setIdempotencyKey(idempotencyKey);
+                record.setRequestHash(requestHash);
+                record.setCreatedAt(now);
+                record.setExpiresAt(now.plusNanos(TimeUnit.MILLISECONDS.toNanos(ttlMs)));
+                try {
+                    recordRepository.saveAndFlush(record);
+                } catch (DataIntegrityViolationException e) {
+                    throw new KeyClaimedException(e);
+                }
+
+                DtoOrderResponse response = createOrder.get(); // Joins this transaction
+                record.setOrderId(response.getOrderId());
+                record.setResponseBody(toJson(response));
+                return response;
+            });
+        } catch (KeyClaimedException e) {
+            // Another instance committed an order for this key while we waited on the unique index
+            return findStored(customerId, idempotencyKey, requestHash)
+                    .orElseThrow(() -> new IdempotencyConflictException("Request with this Idempotency-Key is already being processed"));
+        }
+    }
+
+    private Optional<DtoOrderResponse> findStored(Long customerId, String idempotencyKey, String requestHash) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        OrderIdempotencyRecord record = readOnly.execute(status ->
+                recordRepository.findByCustomerIdAndIdempotencyKey(customerId, idempotencyKey).orElse(null));
+        if (record == null || record.getExpiresAt().isBefore(LocalDateTime.now()) || record.getResponseBody() == null) {
+            return Optional.empty();
+        }
+        checkSameRequest(record.getRequestHash(), requestHash);
+        return Optional.of(fromJson(record.getResponseBody()));
+    }
+
+    private static DtoOrderResponse await(Entry entry) {
+        try {
+            return entry.result.get(WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime; // The duplicate fails the same way as the request it waited for
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("Request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for the request with this Idempotency-Key");
+        }
+    }
+
+    private static void checkSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyConflictException("Idempotency-Key was already used for a different request");
+        }
+    }
+
+    // Completed entries can be dropped at any time: the table still answers for them
+    private void evictIfFull() {
+        if (entries.size() <= memoryMaxEntries) {
+            return;
+        }
+        entries.values().removeIf(Entry::isExpired);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > memoryMaxEntries && iterator.hasNext()) {
+            if (iterator.next().result.isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private String hash(DtoOrderRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint order request", e);
+        }
+    }
+
+    private String toJson(DtoOrderResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize order response", e);
+        }
+    }
+
+    private DtoOrderResponse fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, DtoOrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored order response", e);
+        }
+    }
+
+    private static final class KeyClaimedException extends RuntimeException {
+        KeyClaimedException(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    private static final class Entry {
+        final String requestHash;
+        final CompletableFuture<DtoOrderResponse> result = new CompletableFuture<>();
+        volatile long expiresAt = Long.MAX_VALUE; // Set once the result is known
+
+        Entry(String requestHash) {
+            this.requestHash = requestHash;
+        }
+
+        boolean isExpired() {
+            return expiresAt < System.currentTimeMillis();
+        }
+    }
+}
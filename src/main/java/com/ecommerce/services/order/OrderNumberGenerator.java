@@ -0,0 +1,104 @@
+package com.ecommerce.services.order;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Snowflake-style order number generator: a 64-bit ID made of milliseconds since 2024-01-01 (41 bits),
+ * the node ID of this instance (10 bits) and a per-millisecond sequence (12 bits), rendered as
+ * "ORD-" plus 13 zero-padded base-36 characters. Numbers sort by creation time and are unique as long
+ * as every application instance is configured with a distinct order.number.node-id. With the "prod"
+ * profile active the application does not start without one; otherwise (local development, a single
+ * instance) it falls back to node 0 with a warning.
+ *
+ * The timestamp and sequence share one AtomicLong and are advanced with a single CAS, so no lock is
+ * taken. When the sequence of a millisecond is exhausted, or the clock moves backwards, the generator
+ * keeps counting from the last issued value (borrowing from the next millisecond) instead of waiting,
+ * but never more than MAX_LEAD_MILLIS ahead of the clock; beyond that it waits for the clock. A new
+ * instance treats everything up to MAX_LEAD_MILLIS past its start as already issued, so IDs borrowed
+ * by the previous run of the same node are never issued again (assuming the clock did not go back
+ * across the restart).
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderNumberGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderNumberGenerator.class);
+
+    public static final String PRODUCTION_PROFILE = "prod";
+
+    private static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13; // Long.MAX_VALUE in base 36
+    private static final String PREFIX = "ORD-";
+    private static final long MAX_LEAD_MILLIS = 100;
+
+    private final Environment environment;
+
+    @Value("${order.number.node-id:#{null}}")
+    private Long nodeId;
+
+    // (milliseconds since epoch << SEQUENCE_BITS) | sequence of the last issued ID
+    private final AtomicLong lastState = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (nodeId == null) {
+            if (environment.acceptsProfiles(Profiles.of(PRODUCTION_PROFILE))) {
+                throw new IllegalStateException("order.number.node-id is not set; every application instance needs its own (0-" + MAX_NODE_ID + ")");
+            }
+            log.warn("order.number.node-id is not set; using 0. Set a distinct ID per instance before running more than one");
+            nodeId = 0L;
+        }
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("order.number.node-id must be between 0 and " + MAX_NODE_ID + " but was " + nodeId);
+        }
+        lastState.set(((currentMillis() + MAX_LEAD_MILLIS) << SEQUENCE_BITS) | SEQUENCE_MASK);
+    }
+
+    /**
+     * @return A new order number, e.g. "ORD-0000A1B2C3D4E".
+     */
+    public String next() {
+        String encoded = Long.toString(nextId(), 36).toUpperCase(Locale.ROOT);
+        return PREFIX + "0".repeat(ENCODED_LENGTH - encoded.length()) + encoded;
+    }
+
+    /**
+     * @return A new unique, time-ordered 63-bit ID.
+     */
+    public long nextId() {
+        while (true) {
+            long now = currentMillis();
+            long previous = lastState.get();
+            long candidate = now << SEQUENCE_BITS;
+            long next = candidate > previous ? candidate : previous + 1;
+            long timestamp = next >>> SEQUENCE_BITS;
+            if (timestamp - now > MAX_LEAD_MILLIS) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1)); // Too far ahead; let the clock catch up
+            } else if (lastState.compareAndSet(previous, next)) {
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private static long currentMillis() {
+        return System.currentTimeMillis() - EPOCH_MILLIS;
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.services.outbox;
+
+import com.ecommerce.entities.OutboxEvent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Notifies the customer of an order status change.
+ * Payload: {"status": ..., "customerId": ...}.
+ *
+ * There is no e-mail or push integration yet, so the notification is only logged; this is the
+ * place to call it once there is one.
+ */
+@Component
+public class NotificationOutboxHandler implements OutboxEventHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxHandler.class);
+
+    @Override
+    public OutboxEvent.EventType getEventType() {
+        return OutboxEvent.EventType.ORDER_STATUS_CHANGED;
+    }
+
+    @Override
+    public void handle(OutboxEvent event, Map<String, Object> payload) {
+        log.info("Notify customer {}: order {} is now {}", payload.get("customerId"), event.getAggregateId(), payload.get("status"));
+    }
+}
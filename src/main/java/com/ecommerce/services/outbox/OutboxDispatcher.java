@@ -0,0 +1,156 @@
+package com.ecommerce.services.outbox;
+
+import com.ecommerce.config.SchedulingConfig;
+import com.ecommerce.entities.OutboxEvent;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the outbox: claims due events in batches and hands each to the handler for its type.
+ *
+ * Claiming locks the rows with SKIP LOCKED and marks them IN_PROGRESS with a lease, in a short
+ * transaction; handlers then run outside any transaction, so slow third-party calls hold no locks
+ * or connections. A failed event is retried with exponential backoff and marked FAILED after the
+ * maximum number of attempts. An event whose lease runs out (e.g. the instance died mid-batch) is
+ * claimed again, so delivery is at-least-once. Dispatching runs on a scheduler thread of its own, so
+ * slow handlers do not hold up the other scheduled jobs.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final Map<OutboxEvent.EventType, OutboxEventHandler> handlers = new EnumMap<>(OutboxEvent.EventType.class);
+
+    @Value("${outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.initial-backoff-seconds:5}")
+    private long initialBackoffSeconds;
+
+    @Value("${outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper,
+                            List<OutboxEventHandler> handlerBeans) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionManager = transactionManager;
+        this.objectMapper = objectMapper;
+        for (OutboxEventHandler handler : handlerBeans) {
+            if (handlers.put(handler.getEventType(), handler) != null) {
+                throw new IllegalStateException("More than one outbox handler for " + handler.getEventType());
+            }
+        }
+    }
+
+    /**
+     * Claims and processes due events until a batch comes back short.
+     */
+    @Scheduled(scheduler = SchedulingConfig.OUTBOX_SCHEDULER, fixedDelayString = "${outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        List<OutboxEvent> batch;
+        do {
+            batch = claimBatch();
+            for (OutboxEvent event : batch) {
+                process(event);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Deletes delivered events after the retention period. Failed events are kept for inspection.
+     */
+    @Scheduled(cron = "${outbox.cleanup-cron:0 30 3 * * *}")
+    public void purgeDelivered() {
+        LocalDateTime before = LocalDateTime.now().minusDays(7);
+        Integer deleted = new TransactionTemplate(transactionManager)
+                .execute(status -> outboxEventRepository.deleteDoneBefore(before));
+        log.info("Purged {} delivered outbox events", deleted);
+    }
+
+    // --- Helper Methods ---
+
+    private List<OutboxEvent> claimBatch() {
+        List<OutboxEvent> claimed = new TransactionTemplate(transactionManager).execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> due = outboxEventRepository.lockDueEvents(now, batchSize);
+            for (OutboxEvent event : due) {
+                event.setStatus(OutboxEvent.Status.IN_PROGRESS);
+                event.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+            }
+            return due; // Dirty-checked and written on commit
+        });
+        return claimed != null ? claimed : Collections.emptyList();
+    }
+
+    private void process(OutboxEvent event) {
+        OutboxEvent.EventType type = event.getEventType();
+        OutboxEventHandler handler = handlers.get(type);
+        try {
+            if (handler == null) {
+                throw new IllegalStateException("No outbox handler registered for " + type);
+            }
+            Map<String, Object> payload = event.getPayload() != null
+                    ? objectMapper.readValue(event.getPayload(), PAYLOAD_TYPE)
+                    : Collections.emptyMap();
+            handler.handle(event, payload);
+            event.setStatus(OutboxEvent.Status.DONE);
+            event.setProcessedAt(LocalDateTime.now());
+            event.setLastError(null);
+        } catch (Exception e) {
+            int attempts = event.getAttempts() + 1;
+            event.setAttempts(attempts);
+            event.setLastError(truncate(e.getClass().getSimpleName() + ": " + e.getMessage()));
+            if (attempts >= maxAttempts) {
+                event.setStatus(OutboxEvent.Status.FAILED);
+                log.error("Outbox event {} ({}) for order {} failed permanently after {} attempts",
+                        event.getEventId(), type, event.getAggregateId(), attempts, e);
+            } else {
+                event.setStatus(OutboxEvent.Status.PENDING);
+                event.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds(attempts)));
+                log.warn("Outbox event {} ({}) for order {} failed (attempt {}), retrying at {}: {}",
+                        event.getEventId(), type, event.getAggregateId(), attempts, event.getNextAttemptAt(), e.getMessage());
+            }
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> outboxEventRepository.save(event));
+    }
+
+    // initial * 2^(attempts-1), capped
+    private long backoffSeconds(int attempts) {
+        long backoff = initialBackoffSeconds << Math.min(attempts - 1, 30);
+        return Math.min(backoff, maxBackoffSeconds);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.services.outbox;
+
+import com.ecommerce.entities.OutboxEvent;
+
+import java.util.Map;
+
+/**
+ * Carries out one type of outbox event. Implementations are Spring beans picked up by the dispatcher.
+ * Delivery is at-least-once, so handlers must tolerate seeing the same event twice.
+ */
+public interface OutboxEventHandler {
+
+    OutboxEvent.EventType getEventType();
+
+    /**
+     * @param event   The event being delivered.
+     * @param payload The event's JSON payload as a map.
+     * @throws Exception to have the event retried with backoff.
+     */
+    void handle(OutboxEvent event, Map<String, Object> payload) throws Exception;
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.services.outbox;
+
+import com.ecommerce.entities.OutboxEvent;
+import com.ecommerce.entities.order.Order;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records outbox events in the caller's transaction, so an event exists if and only if the change
+ * that caused it was committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO outbox_events (event_type, aggregate_id, payload, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    /**
+     * @param eventType   What should happen.
+     * @param aggregateId The order the event belongs to.
+     * @param payload     Handler-specific data; serialized as JSON.
+     * @throws org.springframework.transaction.IllegalTransactionStateException if called outside a transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEvent.EventType eventType, Long aggregateId, Map<String, Object> payload) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(eventType);
+        event.setAggregateId(aggregateId);
+        event.setPayload(toJson(payload));
+        event.setCreatedAt(now);
+        event.setNextAttemptAt(now);
+        outboxEventRepository.save(event);
+    }
+
+    /**
+     * Publishes one event per aggregate in a single JDBC batch (bulk operations).
+     *
+     * @param eventType          What should happen.
+     * @param payloadByAggregate Payload per order ID.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(OutboxEvent.EventType eventType, Map<Long, Map<String, Object>> payloadByAggregate) {
+        if (payloadByAggregate.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(payloadByAggregate.size());
+        payloadByAggregate.forEach((aggregateId, payload) ->
+                rows.add(new Object[]{eventType.name(), aggregateId, toJson(payload), now, now}));
+        jdbcTemplate.batchUpdate(INSERT_EVENT, rows);
+    }
+
+    /**
+     * Publishes the customer notification for the order's current status.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishStatusChanged(Order order) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("status", order.getStatus().name());
+        payload.put("customerId", order.getCustomer() != null ? order.getCustomer().getUserId() : null);
+        publish(OutboxEvent.EventType.ORDER_STATUS_CHANGED, order.getOrderId(), payload);
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload is not serializable", e);
+        }
+    }
+}
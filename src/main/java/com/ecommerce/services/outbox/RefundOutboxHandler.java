@@ -0,0 +1,46 @@
+package com.ecommerce.services.outbox;
+
+import com.ecommerce.entities.OutboxEvent;
+import com.ecommerce.entities.Payment;
+import com.ecommerce.exceptions.PaymentNotFoundException;
+import com.ecommerce.repository.PaymentRepository;
+import com.ecommerce.services.PaymentService;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Refunds the payment of a cancelled order through the payment gateway.
+ * Payload: {"paymentId": ...}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RefundOutboxHandler implements OutboxEventHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(RefundOutboxHandler.class);
+
+    private final PaymentService paymentService;
+    private final PaymentRepository paymentRepository;
+
+    @Override
+    public OutboxEvent.EventType getEventType() {
+        return OutboxEvent.EventType.REFUND_REQUESTED;
+    }
+
+    @Override
+    public void handle(OutboxEvent event, Map<String, Object> payload) {
+        Long paymentId = ((Number) payload.get("paymentId")).longValue();
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new PaymentNotFoundException("Payment not found with ID: " + paymentId));
+        if (payment.getStatus() == Payment.PaymentStatus.REFUNDED) {
+            log.info("Payment {} of order {} is already refunded", paymentId, event.getAggregateId());
+            return; // Redelivery after a refund that succeeded
+        }
+        paymentService.initiateRefund(paymentId);
+        log.info("Refund initiated for payment {} of order {}", paymentId, event.getAggregateId());
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.services.outbox;
+
+import com.ecommerce.entities.OutboxEvent;
+import com.ecommerce.entities.order.Order;
+import com.ecommerce.entities.user.LogisticsProvider;
+import com.ecommerce.exceptions.OrderNotFoundException;
+import com.ecommerce.repository.LogisticsProviderRepository;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.services.ShipmentService;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+/**
+ * Creates the shipment of an order that moved to PROCESSING with the configured logistics provider.
+ * Payload: {"orderId": ...}.
+ *
+ * Without shipping.default-logistics-provider-id, shipments are created by hand: events are marked
+ * delivered with a warning rather than retried until they fail.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShipmentOutboxHandler implements OutboxEventHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ShipmentOutboxHandler.class);
+
+    private final ShipmentService shipmentService;
+    private final OrderRepository orderRepository;
+    private final LogisticsProviderRepository logisticsProviderRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${shipping.default-logistics-provider-id:#{null}}")
+    private Long defaultLogisticsProviderId;
+
+    @Override
+    public OutboxEvent.EventType getEventType() {
+        return OutboxEvent.EventType.SHIPMENT_REQUESTED;
+    }
+
+    @Override
+    public void handle(OutboxEvent event, Map<String, Object> payload) {
+        Long orderId = ((Number) payload.get("orderId")).longValue();
+        if (defaultLogisticsProviderId == null) {
+            log.warn("No shipment created for order {}: shipping.default-logistics-provider-id is not configured", orderId);
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new OrderNotFoundException("Order with ID " + orderId + " not found"));
+            if (!order.getShipments().isEmpty()) {
+                log.info("Order {} already has a shipment", orderId);
+                return; // Redelivery after a shipment that was created
+            }
+            if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+                log.info("Order {} was cancelled before its shipment was created", orderId);
+                return;
+            }
+            LogisticsProvider provider = logisticsProviderRepository.findById(defaultLogisticsProviderId)
+                    .orElseThrow(() -> new IllegalStateException("Logistics provider " + defaultLogisticsProviderId + " not found"));
+            shipmentService.createShipmentForOrder(order, provider);
+        });
+    }
+}
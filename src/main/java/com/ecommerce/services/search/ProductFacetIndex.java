@@ -0,0 +1,355 @@
+package com.ecommerce.services.search;
+
+import com.ecommerce.config.TransactionUtils;
+import com.ecommerce.dto.DtoFacetCount;
+import com.ecommerce.dto.DtoProductFacets;
+import com.ecommerce.entities.product.Category;
+import com.ecommerce.entities.product.Product;
+import com.ecommerce.repository.ProductRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory columnar facet index over Product.
+ * Each product occupies a row; brand, price, rating bucket, category ordinals and approval
+ * are stored column-wise in primitive arrays / bitsets. A facet request applies the same filters
+ * as filterProducts (category, price range, search term) and computes every facet count in a
+ * single pass over the live rows, without touching MySQL.
+ *
+ * Built at startup and refreshed incrementally by ProductServiceImpl after each committed mutation.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    private static final int REBUILD_CHUNK_SIZE = 500;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_VALUE = -1;
+
+    // Lower bounds (in cents) of the price buckets; the last bucket is open-ended
+    private static final long[] PRICE_BUCKET_BOUNDS = {0, 5_000, 10_000, 25_000, 50_000, 100_000};
+    private static final String[] PRICE_BUCKET_LABELS = {"0-50", "50-100", "100-250", "250-500", "500-1000", "1000+"};
+    // Rating buckets are floor(averageRating) clamped to 0..5
+    private static final String[] RATING_BUCKET_LABELS = {"0-1", "1-2", "2-3", "3-4", "4-5", "5"};
+    private static final String UNRATED = "unrated";
+
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+
+    private final Object lock = new Object();
+
+    // Row bookkeeping; rows of deleted products are cleared from 'live' and reused
+    private final Map<Long, Integer> rowByProductId = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet approved = new BitSet();
+    private long[] productIds = new long[INITIAL_CAPACITY];
+    private int[] brandOrdinals = new int[INITIAL_CAPACITY];
+    private long[] priceCents = new long[INITIAL_CAPACITY];
+    private int[] ratingBuckets = new int[INITIAL_CAPACITY];
+    private int[][] categoryOrdinals = new int[INITIAL_CAPACITY][];
+    private int rowCount = 0;
+    private final List<Integer> freeRows = new ArrayList<>();
+
+    // Dictionaries (value <-> ordinal)
+    private final Map<String, Integer> brandOrdinalByName = new HashMap<>();
+    private final List<String> brandNames = new ArrayList<>();
+    private final Map<Long, Integer> categoryOrdinalById = new HashMap<>();
+    private final List<Long> categoryIds = new ArrayList<>();
+    private final List<String> categoryNames = new ArrayList<>();
+
+    private volatile boolean ready = false;
+
+    /**
+     * Loads every product in id order, in chunks, and fills the columns.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int indexed = productRepository.forEachChunkWithCategories(REBUILD_CHUNK_SIZE, chunk -> {
+            List<Row> rows = chunk.stream().map(Row::of).toList();
+            synchronized (lock) {
+                rows.forEach(this::apply);
+            }
+        });
+        ready = true;
+        log.info("Product facet index built: {} products, {} brands, {} categories in {} ms",
+                indexed, brandNames.size(), categoryIds.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @return true once this index and the search index (used for search-term facets) are built.
+     */
+    public boolean isReady() {
+        return ready && productSearchIndex.isReady();
+    }
+
+    /**
+     * Captures the product's facet values now and applies them after the current transaction commits.
+     */
+    public void index(Product product) {
+        Row row = Row.of(product);
+        TransactionUtils.afterCommit(() -> {
+            synchronized (lock) {
+                apply(row);
+            }
+        });
+    }
+
+    /**
+     * Drops a product from the index once the surrounding transaction commits.
+     */
+    public void remove(Long productId) {
+        TransactionUtils.afterCommit(() -> {
+            synchronized (lock) {
+                Integer row = rowByProductId.remove(productId);
+                if (row != null) {
+                    live.clear(row);
+                    approved.clear(row);
+                    freeRows.add(row);
+                }
+            }
+        });
+    }
+
+    /**
+     * Computes brand, category, price-range, rating and approval counts for the products
+     * matching the filter, in one pass over the matching rows.
+     *
+     * @param searchTerm Optional keyword (resolved through ProductSearchIndex).
+     * @param categoryId Optional category ID.
+     * @param minPrice   Optional minimum price (inclusive).
+     * @param maxPrice   Optional maximum price (inclusive).
+     * @return Facet counts; zero-count brands and categories are omitted.
+     */
+    public DtoProductFacets count(String searchTerm, Long categoryId, BigDecimal minPrice, BigDecimal maxPrice) {
+        Filter filter = Filter.of(searchTerm, categoryId, minPrice, maxPrice, productSearchIndex);
+
+        synchronized (lock) {
+            BitSet matching = matchingRows(filter);
+
+            long total = 0;
+            long[] brandCounts = new long[brandNames.size()];
+            long[] categoryCounts = new long[categoryIds.size()];
+            long[] priceCounts = new long[PRICE_BUCKET_BOUNDS.length];
+            long[] ratingCounts = new long[RATING_BUCKET_LABELS.length];
+            long unrated = 0;
+            long approvedCount = 0;
+
+            for (int row = matching.nextSetBit(0); row >= 0; row = matching.nextSetBit(row + 1)) {
+                total++;
+                if (brandOrdinals[row] != NO_VALUE) {
+                    brandCounts[brandOrdinals[row]]++;
+                }
+                for (int category : categoryOrdinals[row]) {
+                    categoryCounts[category]++;
+                }
+                priceCounts[priceBucket(priceCents[row])]++;
+                if (ratingBuckets[row] == NO_VALUE) {
+                    unrated++;
+                } else {
+                    ratingCounts[ratingBuckets[row]]++;
+                }
+                if (approved.get(row)) {
+                    approvedCount++;
+                }
+            }
+
+            List<DtoFacetCount> brands = new ArrayList<>();
+            for (int i = 0; i < brandCounts.length; i++) {
+                if (brandCounts[i] > 0) {
+                    brands.add(new DtoFacetCount(brandNames.get(i), brandNames.get(i), brandCounts[i]));
+                }
+            }
+            List<DtoFacetCount> categories = new ArrayList<>();
+            for (int i = 0; i < categoryCounts.length; i++) {
+                if (categoryCounts[i] > 0) {
+                    categories.add(new DtoFacetCount(String.valueOf(categoryIds.get(i)), categoryNames.get(i), categoryCounts[i]));
+                }
+            }
+            brands.sort(Comparator.comparingLong(DtoFacetCount::getCount).reversed());
+            categories.sort(Comparator.comparingLong(DtoFacetCount::getCount).reversed());
+
+            List<DtoFacetCount> priceRanges = new ArrayList<>();
+            for (int i = 0; i < priceCounts.length; i++) {
+                priceRanges.add(new DtoFacetCount(PRICE_BUCKET_LABELS[i], PRICE_BUCKET_LABELS[i], priceCounts[i]));
+            }
+            List<DtoFacetCount> ratings = new ArrayList<>();
+            for (int i = 0; i < ratingCounts.length; i++) {
+                ratings.add(new DtoFacetCount(RATING_BUCKET_LABELS[i], RATING_BUCKET_LABELS[i], ratingCounts[i]));
+            }
+            ratings.add(new DtoFacetCount(UNRATED, UNRATED, unrated));
+
+            List<DtoFacetCount> approval = List.of(
+                    new DtoFacetCount("true", "approved", approvedCount),
+                    new DtoFacetCount("false", "pending approval", total - approvedCount));
+
+            return new DtoProductFacets(total, brands, categories, priceRanges, ratings, approval);
+        }
+    }
+
+    /**
+     * Returns every product matching the filter, applying the same filters as {@link #count}. The
+     * search term is resolved to all of its hits, never a top-N, so the result and the facet counts
+     * always describe the same products.
+     *
+     * @return IDs of the matching products, in ascending order.
+     */
+    public List<Long> matchingProductIds(String searchTerm, Long categoryId, BigDecimal minPrice, BigDecimal maxPrice) {
+        Filter filter = Filter.of(searchTerm, categoryId, minPrice, maxPrice, productSearchIndex);
+
+        List<Long> ids = new ArrayList<>();
+        synchronized (lock) {
+            BitSet matching = matchingRows(filter);
+            for (int row = matching.nextSetBit(0); row >= 0; row = matching.nextSetBit(row + 1)) {
+                ids.add(productIds[row]);
+            }
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    // --- Helper Methods ---
+
+    // Rows of live products passing every filter; caller must hold the lock
+    private BitSet matchingRows(Filter filter) {
+        BitSet candidates = (BitSet) live.clone();
+        if (filter.searchHits() != null) {
+            BitSet hitRows = new BitSet();
+            for (Long productId : filter.searchHits()) {
+                Integer row = rowByProductId.get(productId);
+                if (row != null) {
+                    hitRows.set(row);
+                }
+            }
+            candidates.and(hitRows);
+        }
+        int categoryFilter = NO_VALUE;
+        if (filter.categoryId() != null) {
+            Integer ordinal = categoryOrdinalById.get(filter.categoryId());
+            if (ordinal == null) {
+                candidates.clear();
+            } else {
+                categoryFilter = ordinal;
+            }
+        }
+        for (int row = candidates.nextSetBit(0); row >= 0; row = candidates.nextSetBit(row + 1)) {
+            long price = priceCents[row];
+            if (price < filter.minCents() || price > filter.maxCents()
+                    || categoryFilter != NO_VALUE && !contains(categoryOrdinals[row], categoryFilter)) {
+                candidates.clear(row);
+            }
+        }
+        return candidates;
+    }
+
+    // Caller must hold the lock
+    private void apply(Row values) {
+        Integer row = rowByProductId.get(values.productId);
+        if (row == null) {
+            row = freeRows.isEmpty() ? rowCount++ : freeRows.remove(freeRows.size() - 1);
+            ensureCapacity(row + 1);
+            rowByProductId.put(values.productId, row);
+        }
+        productIds[row] = values.productId;
+        brandOrdinals[row] = values.brand == null ? NO_VALUE : brandOrdinalByName.computeIfAbsent(values.brand, name -> {
+            brandNames.add(name);
+            return brandNames.size() - 1;
+        });
+        priceCents[row] = values.priceCents;
+        ratingBuckets[row] = values.ratingBucket;
+        int[] ordinals = new int[values.categoryIds.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            int index = i;
+            ordinals[i] = categoryOrdinalById.computeIfAbsent(values.categoryIds[i], id -> {
+                categoryIds.add(id);
+                categoryNames.add(values.categoryNames[index]);
+                return categoryIds.size() - 1;
+            });
+        }
+        categoryOrdinals[row] = ordinals;
+        live.set(row);
+        approved.set(row, values.approved);
+    }
+
+    // Caller must hold the lock
+    private void ensureCapacity(int required) {
+        if (required <= productIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, productIds.length * 2);
+        productIds = Arrays.copyOf(productIds, capacity);
+        brandOrdinals = Arrays.copyOf(brandOrdinals, capacity);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        ratingBuckets = Arrays.copyOf(ratingBuckets, capacity);
+        categoryOrdinals = Arrays.copyOf(categoryOrdinals, capacity);
+    }
+
+    private static int priceBucket(long cents) {
+        int bucket = Arrays.binarySearch(PRICE_BUCKET_BOUNDS, cents);
+        bucket = bucket >= 0 ? bucket : -bucket - 2;
+        return Math.max(bucket, 0);
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int candidate : values) {
+            if (candidate == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Filter of a facet request; the search term is resolved outside the lock.
+     */
+    private record Filter(List<Long> searchHits, Long categoryId, long minCents, long maxCents) {
+
+        static Filter of(String searchTerm, Long categoryId, BigDecimal minPrice, BigDecimal maxPrice,
+                         ProductSearchIndex searchIndex) {
+            long minCents = minPrice != null ? minPrice.movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact() : Long.MIN_VALUE;
+            long maxCents = maxPrice != null ? maxPrice.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValueExact() : Long.MAX_VALUE;
+            List<Long> searchHits = searchTerm != null && !searchTerm.isBlank() ? searchIndex.search(searchTerm) : null;
+            return new Filter(searchHits, categoryId, minCents, maxCents);
+        }
+    }
+
+    /**
+     * Snapshot of the facet-relevant values of one product, taken inside the caller's transaction.
+     */
+    private record Row(long productId, String brand, long priceCents, int ratingBucket, boolean approved,
+                       long[] categoryIds, String[] categoryNames) {
+
+        static Row of(Product product) {
+            List<Category> categories = product.getCategories() != null ? new ArrayList<>(product.getCategories()) : List.of();
+            long[] ids = new long[categories.size()];
+            String[] names = new String[categories.size()];
+            for (int i = 0; i < categories.size(); i++) {
+                ids[i] = categories.get(i).getCategoryId();
+                names[i] = categories.get(i).getName();
+            }
+            String brand = product.getBrand() != null && !product.getBrand().isBlank() ? product.getBrand().trim() : null;
+            long cents = product.getPrice() != null ? product.getPrice().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue() : 0;
+            int rating = product.getAverageRating() != null
+                    ? (int) Math.max(0, Math.min(5, Math.floor(product.getAverageRating())))
+                    : NO_VALUE;
+            return new Row(product.getProductId(), brand, cents, rating, product.isApproved(), ids, names);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.ecommerce.services.search;
+
+import com.ecommerce.config.TransactionUtils;
+import com.ecommerce.entities.product.Category;
+import com.ecommerce.entities.product.Product;
+import com.ecommerce.repository.ProductRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product name, description, brand, model and category names.
+ * Replaces the LIKE '%term%' scan used by product search: queries are tokenized, each token
+ * is prefix-matched against the term dictionary and products are ranked by field-weighted hits.
+ *
+ * The index is built once at startup from ProductRepository and kept current by
+ * ProductServiceImpl, which calls {@link #index(Product)} / {@link #remove(Long)} on mutations.
+ * Updates made inside a transaction are applied only after that transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int REBUILD_CHUNK_SIZE = 500;
+
+    // Field weights used for ranking; a name hit matters more than a description hit
+    private static final int NAME_WEIGHT = 5;
+    private static final int BRAND_WEIGHT = 4;
+    private static final int MODEL_WEIGHT = 4;
+    private static final int CATEGORY_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final ProductRepository productRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> (productId -> weight)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // productId -> terms currently indexed for it (needed to unlink on update/delete)
+    private final Map<Long, Set<String>> termsByProduct = new HashMap<>();
+
+    private volatile boolean ready = false;
+
+    /**
+     * Loads every product in id order, in chunks, and indexes it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int indexed = productRepository.forEachChunkWithCategories(REBUILD_CHUNK_SIZE, chunk -> {
+            Map<Long, Map<String, Integer>> documents = new HashMap<>();
+            for (Product product : chunk) {
+                documents.put(product.getProductId(), buildDocument(product));
+            }
+            lock.writeLock().lock();
+            try {
+                documents.forEach(this::apply);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+
+        ready = true;
+        log.info("Product search index built: {} products, {} terms in {} ms",
+                indexed, postings.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @return true once the startup build has finished and the index can answer queries.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * (Re)indexes a product. The document is captured immediately (so lazy associations are read
+     * inside the caller's transaction) and published after commit.
+     */
+    public void index(Product product) {
+        Long productId = product.getProductId();
+        Map<String, Integer> document = buildDocument(product);
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                apply(productId, document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes a product from the index once the surrounding transaction commits.
+     */
+    public void remove(Long productId) {
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                unlink(productId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Runs a query against the index.
+     * Every query token must match (as a prefix of some indexed term); results are ordered by
+     * descending score, ties broken by newest product id first.
+     *
+     * @param query Free text entered by the user.
+     * @return Ranked product ids; empty if nothing matches or the query has no tokens.
+     */
+    public List<Long> search(String query) {
+        Set<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Integer> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String token : queryTokens) {
+                Map<Long, Integer> tokenScores = new HashMap<>();
+                for (Map<Long, Integer> posting : postings.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                    posting.forEach((id, weight) -> tokenScores.merge(id, weight, Integer::sum));
+                }
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    // AND semantics: keep only products matched by every token so far
+                    Map<Long, Integer> current = scores;
+                    current.keySet().retainAll(tokenScores.keySet());
+                    current.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int byScore = Integer.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Long.compare(b.getKey(), a.getKey());
+        });
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Integer> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    // --- Helper Methods ---
+
+    /**
+     * Splits text into lower-cased letter/digit tokens.
+     */
+    static Set<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptySet();
+        }
+        Set<String> tokens = new HashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Map<String, Integer> buildDocument(Product product) {
+        Map<String, Integer> document = new HashMap<>();
+        addField(document, product.getName(), NAME_WEIGHT);
+        addField(document, product.getBrand(), BRAND_WEIGHT);
+        addField(document, product.getModel(), MODEL_WEIGHT);
+        addField(document, product.getDescription(), DESCRIPTION_WEIGHT);
+        if (product.getCategories() != null) {
+            for (Category category : product.getCategories()) {
+                addField(document, category.getName(), CATEGORY_WEIGHT);
+            }
+        }
+        return document;
+    }
+
+    private static void addField(Map<String, Integer> document, String text, int weight) {
+        for (String token : tokenize(text)) {
+            document.merge(token, weight, Integer::sum);
+        }
+    }
+
+    // Caller must hold the write lock
+    private void apply(Long productId, Map<String, Integer> document) {
+        unlink(productId);
+        document.forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(productId, weight));
+        termsByProduct.put(productId, new HashSet<>(document.keySet()));
+    }
+
+    // Caller must hold the write lock
+    private void unlink(Long productId) {
+        Set<String> terms = termsByProduct.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.ecommerce.services.search;
+
+import com.ecommerce.config.SchedulingConfig;
+import com.ecommerce.dto.DtoSuggestion;
+import com.ecommerce.entities.order.Order;
+import com.ecommerce.entities.product.Category;
+import com.ecommerce.entities.product.Product;
+import com.ecommerce.repository.OrderItemRepository;
+import com.ecommerce.repository.ProductRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Typeahead index over product names, brands, models and category names.
+ * Suggestions live in a prefix trie whose every node keeps the top-K suggestions below it, ranked by
+ * popularity (review count plus units ordered), so a lookup is a walk down the prefix and a copy of
+ * at most K entries. Each suggestion is reachable from the start of every word it contains, so
+ * "pho" finds "Apple iPhone 15".
+ *
+ * The trie is immutable. It is rebuilt periodically on its own scheduler thread and swapped in with a
+ * single volatile write; readers never block and never touch MySQL.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSuggestIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggestIndex.class);
+
+    private static final int TOP_K = 10;
+    private static final int REBUILD_CHUNK_SIZE = 500;
+    private static final int MAX_PREFIX_LENGTH = 64;
+
+    private final ProductRepository productRepository;
+    private final OrderItemRepository orderItemRepository;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * Rebuilds the trie from the database and swaps it in. Runs shortly after startup and then
+     * every product.suggest.rebuild-interval-ms (default 10 minutes).
+     */
+    @Scheduled(scheduler = SchedulingConfig.SUGGEST_INDEX_SCHEDULER,
+               initialDelayString = "${product.suggest.initial-delay-ms:5000}",
+               fixedDelayString = "${product.suggest.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            Map<Long, Long> unitsOrdered = new HashMap<>();
+            for (Object[] row : orderItemRepository.sumOrderedQuantityByProduct(Order.OrderStatus.CANCELLED)) {
+                unitsOrdered.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+
+            // (type, display text) -> suggestion; brands/models/categories aggregate popularity over products
+            Map<String, Candidate> candidates = new HashMap<>();
+            int products = productRepository.forEachChunkWithCategories(REBUILD_CHUNK_SIZE, chunk -> {
+                for (Product product : chunk) {
+                    long popularity = (product.getReviewCount() != null ? product.getReviewCount() : 0)
+                            + unitsOrdered.getOrDefault(product.getProductId(), 0L);
+                    addCandidate(candidates, "PRODUCT", product.getName(), product.getProductId(), popularity);
+                    addCandidate(candidates, "BRAND", product.getBrand(), null, popularity);
+                    addCandidate(candidates, "MODEL", product.getModel(), null, popularity);
+                    if (product.getCategories() != null) {
+                        for (Category category : product.getCategories()) {
+                            addCandidate(candidates, "CATEGORY", category.getName(), null, popularity);
+                        }
+                    }
+                }
+            });
+
+            snapshot = Snapshot.build(new ArrayList<>(candidates.values()));
+            log.info("Product suggest index rebuilt: {} products, {} suggestions in {} ms",
+                    products, candidates.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            // Keep serving the previous snapshot; the next scheduled run retries
+            log.error("Product suggest index rebuild failed", e);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} suggestions starting with the prefix (at any word start), most popular first.
+     *
+     * @param prefix Text typed so far; case-insensitive.
+     * @param limit  Maximum number of suggestions; capped at the per-node top-K.
+     * @return Suggestions, or an empty list for a blank prefix or before the first build.
+     */
+    public List<DtoSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        if (key.length() > MAX_PREFIX_LENGTH) {
+            key = key.substring(0, MAX_PREFIX_LENGTH);
+        }
+        Snapshot current = snapshot;
+        Node node = current.root.find(key);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        int count = Math.min(limit, node.top.length);
+        List<DtoSuggestion> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Candidate candidate = current.candidates[node.top[i]];
+            result.add(new DtoSuggestion(candidate.text, candidate.type, candidate.productId));
+        }
+        return result;
+    }
+
+    // --- Helper Methods ---
+
+    private static void addCandidate(Map<String, Candidate> candidates, String type, String text, Long productId, long popularity) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        String display = text.trim();
+        // Product names stay distinct per product; other types merge case-insensitively
+        String key = productId != null ? type + ":" + productId : type + ":" + display.toLowerCase(Locale.ROOT);
+        candidates.computeIfAbsent(key, k -> new Candidate(display, type, productId)).popularity += popularity;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static final class Candidate {
+        final String text;
+        final String type;
+        final Long productId;
+        long popularity;
+
+        Candidate(String text, String type, Long productId) {
+            this.text = text;
+            this.type = type;
+            this.productId = productId;
+        }
+    }
+
+    /**
+     * Immutable trie node. Children are kept in parallel sorted arrays to keep nodes small;
+     * {@code top} holds candidate indexes of the best suggestions in this subtree, best first.
+     */
+    private static final class Node {
+        final char[] labels;
+        final Node[] children;
+        final int[] top;
+
+        Node(char[] labels, Node[] children, int[] top) {
+            this.labels = labels;
+            this.children = children;
+            this.top = top;
+        }
+
+        Node find(String key) {
+            Node node = this;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                int index = Arrays.binarySearch(node.labels, key.charAt(i));
+                node = index >= 0 ? node.children[index] : null;
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Mutable node used only while building.
+     */
+    private static final class BuilderNode {
+        final TreeMap<Character, BuilderNode> children = new TreeMap<>();
+        final List<Integer> terminals = new ArrayList<>(1);
+    }
+
+    private record Snapshot(Node root, Candidate[] candidates) {
+
+        static final Snapshot EMPTY = new Snapshot(new Node(new char[0], new Node[0], new int[0]), new Candidate[0]);
+
+        static Snapshot build(List<Candidate> candidateList) {
+            // Sort by popularity so "best first" is simply "lowest index first"
+            candidateList.sort((a, b) -> {
+                int byPopularity = Long.compare(b.popularity, a.popularity);
+                return byPopularity != 0 ? byPopularity : a.text.compareToIgnoreCase(b.text);
+            });
+            Candidate[] candidates = candidateList.toArray(new Candidate[0]);
+
+            BuilderNode root = new BuilderNode();
+            for (int i = 0; i < candidates.length; i++) {
+                String text = normalize(candidates[i].text);
+                // Index the phrase from every word start
+                for (int start = 0; start < text.length(); start++) {
+                    if (start == 0 || text.charAt(start - 1) == ' ') {
+                        insert(root, text.substring(start, Math.min(text.length(), start + MAX_PREFIX_LENGTH)), i);
+                    }
+                }
+            }
+            return new Snapshot(freeze(root), candidates);
+        }
+
+        private static void insert(BuilderNode root, String key, int candidate) {
+            BuilderNode node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new BuilderNode());
+            }
+            node.terminals.add(candidate);
+        }
+
+        // Post-order: a node's top-K is the K smallest distinct indexes among its terminals and its children's top-K
+        private static Node freeze(BuilderNode node) {
+            char[] labels = new char[node.children.size()];
+            Node[] children = new Node[labels.length];
+            int i = 0;
+            List<int[]> sources = new ArrayList<>(labels.length + 1);
+            for (Map.Entry<Character, BuilderNode> entry : node.children.entrySet()) {
+                labels[i] = entry.getKey();
+                children[i] = freeze(entry.getValue());
+                sources.add(children[i].top);
+                i++;
+            }
+            sources.add(node.terminals.stream().mapToInt(Integer::intValue).toArray());
+            return new Node(labels, children, topK(sources));
+        }
+
+        private static int[] topK(List<int[]> sources) {
+            int total = 0;
+            for (int[] source : sources) {
+                total += source.length;
+            }
+            int[] all = new int[total];
+            int offset = 0;
+            for (int[] source : sources) {
+                System.arraycopy(source, 0, all, offset, source.length);
+                offset += source.length;
+            }
+            Arrays.sort(all);
+            int[] top = new int[Math.min(TOP_K, all.length)];
+            int size = 0;
+            for (int k = 0; k < all.length && size < top.length; k++) {
+                if (size == 0 || top[size - 1] != all[k]) {
+                    top[size++] = all[k];
+                }
+            }
+            return size == top.length ? top : Arrays.copyOf(top, size);
+        }
+    }
+}
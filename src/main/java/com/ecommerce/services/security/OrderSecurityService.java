@@ -3,6 +3,7 @@ package com.ecommerce.services.security; // Paket adını kendi yapınıza göre
 import com.ecommerce.config.securityconfig.UserPrincipal;
 import com.ecommerce.entities.order.Order;
 import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.services.order.OrderArchiver;
 import lombok.RequiredArgsConstructor; // Eğer Lombok kullanıyorsanız
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // Okuma işlemi için
@@ -12,6 +13,7 @@ import org.springframework.transaction.annotation.Transactional; // Okuma işlem
 public class OrderSecurityService {
 
     private final OrderRepository orderRepository; // Gerekli repository
+    private final OrderArchiver orderArchiver; // Arşivlenmiş (eski, tamamlanmış) siparişler için
 
     /**
      * Belirtilen siparişin, o anki kimliği doğrulanmış kullanıcıya ait olup olmadığını kontrol eder.
@@ -30,6 +32,13 @@ public class OrderSecurityService {
         // Siparişi veritabanından bul
         Order order = orderRepository.findById(orderId).orElse(null);
 
+        // Canlı tablolarda yoksa arşive bak
+        if (order == null) {
+            return orderArchiver.findArchive(orderId)
+                    .map(archive -> archive.getCustomerId().equals(currentUser.getUser().getUserId()))
+                    .orElse(false);
+        }
+
         // Sipariş bulundu mu ve siparişin bir müşterisi var mı diye kontrol et
         if (order == null || order.getCustomer() == null) {
             System.err.println("OrderSecurityService: Order not found or has no associated customer for orderId: " + orderId); // Hata ayıklama
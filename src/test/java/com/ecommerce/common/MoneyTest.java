@@ -0,0 +1,55 @@
+package com.ecommerce.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    @Test
+    void convertsExactlyBothWays() {
+        assertThat(Money.of(new BigDecimal("19.99")).minorUnits()).isEqualTo(1999);
+        assertThat(Money.of(new BigDecimal("19.9")).minorUnits()).isEqualTo(1990);
+        assertThat(Money.of(new BigDecimal("20")).minorUnits()).isEqualTo(2000);
+        assertThat(Money.of(new BigDecimal("0.10")).minorUnits()).isEqualTo(10);
+        assertThat(Money.of(new BigDecimal("19.990")).minorUnits()).isEqualTo(1999); // Trailing zeros are not extra decimals
+        assertThat(Money.of(new BigDecimal("-5.25")).minorUnits()).isEqualTo(-525);
+
+        assertThat(new Money(1999).toBigDecimal()).isEqualTo(new BigDecimal("19.99"));
+        assertThat(new Money(2000).toBigDecimal()).isEqualTo(new BigDecimal("20.00"));
+        assertThat(Money.ZERO.toBigDecimal()).isEqualTo(new BigDecimal("0.00"));
+    }
+
+    @Test
+    void sumsWithoutFloatingPointDrift() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 1000; i++) {
+            total = total.plus(Money.of(new BigDecimal("0.10")));
+        }
+        assertThat(total.toBigDecimal()).isEqualTo(new BigDecimal("100.00"));
+        assertThat(Money.of(new BigDecimal("19.99")).times(3).toBigDecimal()).isEqualTo(new BigDecimal("59.97"));
+    }
+
+    @Test
+    void rejectsMoreThanTwoDecimals() {
+        assertThatThrownBy(() -> Money.of(new BigDecimal("19.999"))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("0.001"))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void rejectsAmountsBeyondLong() {
+        BigDecimal tooLarge = BigDecimal.valueOf(Long.MAX_VALUE).movePointLeft(Money.SCALE).add(BigDecimal.ONE);
+        assertThatThrownBy(() -> Money.of(tooLarge)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void plusAndTimesThrowOnOverflow() {
+        Money max = new Money(Long.MAX_VALUE);
+        assertThatThrownBy(() -> max.plus(new Money(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> new Money(Long.MAX_VALUE / 2 + 1).times(2)).isInstanceOf(ArithmeticException.class);
+        assertThat(new Money(Long.MAX_VALUE / 2).times(2).minorUnits()).isEqualTo(Long.MAX_VALUE - 1);
+    }
+}
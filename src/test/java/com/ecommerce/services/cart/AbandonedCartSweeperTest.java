@@ -0,0 +1,130 @@
+package com.ecommerce.services.cart;
+
+import com.ecommerce.dto.DtoCartSweeperStats;
+import com.ecommerce.repository.AbandonedCartRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A failing chunk does not end the sweep, and every run is recorded in the stats.
+ */
+class AbandonedCartSweeperTest {
+
+    private static final LocalDateTime IDLE_SINCE = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @Test
+    void failingChunkIsSkippedAndTheRunContinues() {
+        FakeRepository repository = new FakeRepository(5);
+        repository.failingChunk = 1;
+        AbandonedCartSweeper sweeper = sweeper(repository);
+
+        sweeper.sweepAbandonedCarts();
+
+        DtoCartSweeperStats stats = sweeper.getStats();
+        assertThat(stats.getRuns()).isEqualTo(1);
+        assertThat(stats.getCartsDeleted()).isEqualTo(3); // Chunks [1, 2] and [5]
+        assertThat(stats.getCartsSkipped()).isEqualTo(2); // Chunk [3, 4]
+        assertThat(stats.getLastRunCartsSkipped()).isEqualTo(2);
+        assertThat(repository.cursors).containsExactly(0L, 2L, 4L);
+    }
+
+    @Test
+    void runIsRecordedWhenReadingAChunkFails() {
+        FakeRepository repository = new FakeRepository(5);
+        repository.failingRead = 1;
+        AbandonedCartSweeper sweeper = sweeper(repository);
+
+        assertThatThrownBy(sweeper::sweepAbandonedCarts).isInstanceOf(QueryTimeoutException.class);
+
+        DtoCartSweeperStats stats = sweeper.getStats();
+        assertThat(stats.getRuns()).isEqualTo(1);
+        assertThat(stats.getCartsDeleted()).isEqualTo(2);
+        assertThat(stats.getLastRunAt()).isNotNull();
+    }
+
+    // --- Helper Methods ---
+
+    private static AbandonedCartSweeper sweeper(AbandonedCartRepository repository) {
+        WriteBehindCartStore store = new WriteBehindCartStore(null, null, null, null, null);
+        ReflectionTestUtils.setField(store, "mode", "database");
+        AbandonedCartSweeper sweeper = new AbandonedCartSweeper(repository, store, new NoOpTransactionManager());
+        ReflectionTestUtils.setField(sweeper, "enabled", true);
+        ReflectionTestUtils.setField(sweeper, "maxIdleDays", 30);
+        ReflectionTestUtils.setField(sweeper, "batchSize", 2);
+        ReflectionTestUtils.setField(sweeper, "pauseMs", 0L);
+        return sweeper;
+    }
+
+    // Idle carts 1..n, all last changed at the same time, served in chunks of the requested size
+    private static class FakeRepository extends AbandonedCartRepository {
+        final List<Long> cursors = new ArrayList<>();
+        final int carts;
+        int failingChunk = -1;
+        int failingRead = -1;
+        private int deletes;
+
+        FakeRepository(int carts) {
+            super(null);
+            this.carts = carts;
+        }
+
+        @Override
+        public List<IdleCart> findIdleCarts(LocalDateTime before, LocalDateTime afterUpdatedAt, Long afterCartId, int limit) {
+            if (cursors.size() == failingRead) {
+                throw new QueryTimeoutException("Timed out");
+            }
+            cursors.add(afterCartId);
+            List<IdleCart> idle = new ArrayList<>();
+            for (long id = afterCartId + 1; id <= carts && idle.size() < limit; id++) {
+                idle.add(new IdleCart(id, id, IDLE_SINCE));
+            }
+            return idle;
+        }
+
+        @Override
+        public int backfillUpdatedAt(LocalDateTime now, int limit) {
+            return 0;
+        }
+
+        @Override
+        public int deleteItemsOfIdleCarts(List<Long> cartIds, LocalDateTime before) {
+            if (deletes++ == failingChunk) {
+                throw new QueryTimeoutException("Lock wait timeout");
+            }
+            return 0;
+        }
+
+        @Override
+        public int deleteIdleCarts(List<Long> cartIds, LocalDateTime before) {
+            return cartIds.size();
+        }
+    }
+
+    private static class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
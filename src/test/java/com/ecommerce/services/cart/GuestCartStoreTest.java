@@ -0,0 +1,77 @@
+package com.ecommerce.services.cart;
+
+import com.ecommerce.exceptions.ResourceNotFoundException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Guest carts are only stored once something is added, and a full store drops its least recently used cart.
+ */
+class GuestCartStoreTest {
+
+    private GuestCartStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new GuestCartStore();
+        ReflectionTestUtils.setField(store, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(store, "maxCarts", 2);
+    }
+
+    @Test
+    void issuingTokensStoresNothing() {
+        for (int i = 0; i < 1000; i++) {
+            assertThat(store.lines(store.create())).isEmpty();
+        }
+        assertThat(storedCarts()).isZero();
+    }
+
+    @Test
+    void rejectsTokensItDidNotIssue() {
+        String token = store.create();
+        String tampered = (token.charAt(0) == 'A' ? "B" : "A") + token.substring(1);
+
+        assertThatThrownBy(() -> store.lines(tampered)).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> store.lines("not-a-token")).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> store.lines(null)).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void storesTheCartOnTheFirstAdd() {
+        String token = store.create();
+
+        store.update(token, lines -> lines.put(7L, 2));
+
+        assertThat(store.lines(token)).isEqualTo(Map.of(7L, 2));
+        assertThat(storedCarts()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsTheLeastRecentlyUsedCartWhenFull() {
+        String first = store.create();
+        String second = store.create();
+        String third = store.create();
+        store.update(first, lines -> lines.put(1L, 1));
+        store.update(second, lines -> lines.put(2L, 1));
+        store.lines(first); // Now second is the least recently used
+
+        store.update(third, lines -> lines.put(3L, 1));
+
+        assertThat(storedCarts()).isEqualTo(2);
+        assertThat(store.lines(first)).containsOnlyKeys(1L);
+        assertThat(store.lines(second)).isEmpty();
+        assertThat(store.lines(third)).containsOnlyKeys(3L);
+    }
+
+    private int storedCarts() {
+        Map<?, ?> carts = (Map<?, ?>) ReflectionTestUtils.getField(store, "carts");
+        return carts.size();
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.services.cart;
+
+import com.ecommerce.dto.DtoCart;
+import com.ecommerce.dto.DtoCartItem;
+import com.ecommerce.dto.DtoCartOperation;
+import com.ecommerce.entities.user.Seller;
+import com.ecommerce.exceptions.InsufficientStockException;
+import com.ecommerce.exceptions.ResourceNotFoundException;
+import com.ecommerce.services.CartService;
+import com.ecommerce.starter.BackendApplication;
+import com.ecommerce.support.OrderFixtures;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.groups.Tuple.tuple;
+
+/**
+ * Cart operations in memory mode, where products are loaded before the cart is locked.
+ */
+@SpringBootTest(classes = BackendApplication.class,
+        properties = {"cart.store.mode=memory", "cart.store.single-instance=true"})
+@ActiveProfiles("test")
+@Import(OrderFixtures.class)
+class MemoryCartServiceTest {
+
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private OrderFixtures fixtures;
+
+    @Test
+    void updatesQuantityOfAnItem() {
+        Long customerId = fixtures.createCustomer().getUserId();
+        Long productId = fixtures.createProducts(fixtures.createSeller(), 1, 5).get(0);
+        Long cartItemId = cartService.addItemToCart(customerId, productId, 1).getItems().get(0).getCartItemId();
+
+        DtoCart cart = cartService.updateCartItemQuantity(customerId, cartItemId, 4);
+
+        assertThat(cart.getItems()).extracting(DtoCartItem::getQuantity).containsExactly(4);
+        assertThatThrownBy(() -> cartService.updateCartItemQuantity(customerId, cartItemId, 6))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThatThrownBy(() -> cartService.updateCartItemQuantity(customerId, -1L, 1))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void appliesABatchOverItemsAndNewProducts() {
+        Long customerId = fixtures.createCustomer().getUserId();
+        Seller seller = fixtures.createSeller();
+        List<Long> productIds = fixtures.createProducts(seller, 3, 5);
+        cartService.addItemToCart(customerId, productIds.get(0), 1);
+        DtoCart before = cartService.addItemToCart(customerId, productIds.get(1), 1);
+        Long first = before.getItems().get(0).getCartItemId();
+        Long second = before.getItems().get(1).getCartItemId();
+
+        DtoCart cart = cartService.applyCartOperations(customerId, List.of(
+                new DtoCartOperation(DtoCartOperation.Type.UPDATE, null, first, 3),
+                new DtoCartOperation(DtoCartOperation.Type.REMOVE, null, second, null),
+                new DtoCartOperation(DtoCartOperation.Type.ADD, productIds.get(2), null, 2)));
+
+        assertThat(cart.getItems()).extracting(item -> item.getProduct().getProductId(), DtoCartItem::getQuantity)
+                .containsExactly(tuple(productIds.get(0), 3), tuple(productIds.get(2), 2));
+        assertThat(cartService.getCartByCustomerId(customerId).getItems()).hasSize(2);
+    }
+
+    @Test
+    void failingBatchLeavesTheCartAsItWas() {
+        Long customerId = fixtures.createCustomer().getUserId();
+        List<Long> productIds = fixtures.createProducts(fixtures.createSeller(), 2, 5);
+        Long cartItemId = cartService.addItemToCart(customerId, productIds.get(0), 1).getItems().get(0).getCartItemId();
+
+        assertThatThrownBy(() -> cartService.applyCartOperations(customerId, List.of(
+                new DtoCartOperation(DtoCartOperation.Type.UPDATE, null, cartItemId, 2),
+                new DtoCartOperation(DtoCartOperation.Type.ADD, productIds.get(1), null, 6))))
+                .isInstanceOf(InsufficientStockException.class);
+
+        assertThat(cartService.getCartByCustomerId(customerId).getItems())
+                .extracting(DtoCartItem::getQuantity).containsExactly(1);
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.services.cart;
+
+import com.ecommerce.starter.BackendApplication;
+import com.ecommerce.support.OrderFixtures;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A cart released for deletion by the sweeper is not loaded again until the deletion has ended.
+ */
+@SpringBootTest(classes = BackendApplication.class,
+        properties = {"cart.store.mode=memory", "cart.store.single-instance=true"})
+@ActiveProfiles("test")
+@Import(OrderFixtures.class)
+class WriteBehindCartStoreReleaseTest {
+
+    @Autowired
+    private WriteBehindCartStore store;
+    @Autowired
+    private OrderFixtures fixtures;
+
+    @Test
+    void accessWaitsForTheReleaseToEnd() throws Exception {
+        Long customerId = fixtures.createCustomer().getUserId();
+        store.update(customerId, cart -> { });
+        store.flush();
+
+        assertThat(store.release(customerId)).isTrue();
+        CompletableFuture<?> access = CompletableFuture.runAsync(() -> store.update(customerId, cart -> { }));
+        Thread.sleep(300);
+        assertThat(access).isNotDone();
+
+        store.endRelease(List.of(customerId));
+        access.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void dirtyCartIsKeptAndNotHeldBack() {
+        Long customerId = fixtures.createCustomer().getUserId();
+        store.update(customerId, cart -> { }); // New cart, not written yet
+
+        assertThat(store.release(customerId)).isFalse();
+        CompletableFuture<?> access = CompletableFuture.runAsync(() -> store.update(customerId, cart -> { }));
+        assertThat(access).succeedsWithin(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.services.impl;
+
+import com.ecommerce.dto.DtoOrderResponse;
+import com.ecommerce.entities.user.Customer;
+import com.ecommerce.entities.user.Seller;
+import com.ecommerce.services.OrderService;
+import com.ecommerce.starter.BackendApplication;
+import com.ecommerce.support.OrderFixtures;
+import com.ecommerce.support.QueryCounter;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order creation loads all products of the order in one query and takes their stock in one JDBC
+ * batch, so the only statements that grow with the line count are the order item inserts
+ * (IDENTITY keys, which Hibernate cannot batch).
+ */
+@SpringBootTest(classes = BackendApplication.class)
+@ActiveProfiles("test")
+@Import({OrderFixtures.class, QueryCounter.Config.class})
+class OrderCreationQueryCountTest {
+
+    private static final int LINES = 40;
+
+    private static final String PRODUCT_QUERY = "SELECT p FROM Product p LEFT JOIN FETCH p.seller WHERE p.productId IN :productIds";
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderFixtures fixtures;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void productsAreLoadedInOneQuery() {
+        Seller seller = fixtures.createSeller();
+        List<Long> productIds = fixtures.createProducts(seller, LINES, 10);
+        Customer customer = fixtures.createCustomer();
+        Long addressId = fixtures.createAddresses(customer, 1).get(0);
+
+        long before = statistics.getQueryStatistics(PRODUCT_QUERY).getExecutionCount();
+        DtoOrderResponse order = orderService.createOrder(OrderFixtures.orderOf(addressId, productIds), customer.getUserId());
+
+        assertThat(order.getItems()).hasSize(LINES);
+        assertThat(statistics.getQueryStatistics(PRODUCT_QUERY).getExecutionCount() - before).isEqualTo(1);
+        assertThat(productIds).allSatisfy(id -> assertThat(fixtures.stockOf(id)).isEqualTo(9));
+    }
+
+    @Test
+    void onlyOrderItemInsertsGrowWithLines() {
+        Seller seller = fixtures.createSeller();
+        List<Long> productIds = fixtures.createProducts(seller, LINES, 10);
+        Customer customer = fixtures.createCustomer();
+        List<Long> addressIds = fixtures.createAddresses(customer, 2);
+
+        QueryCounter.reset();
+        orderService.createOrder(OrderFixtures.orderOf(addressIds.get(0), productIds.subList(0, 1)), customer.getUserId());
+        long oneLine = QueryCounter.count();
+
+        QueryCounter.reset();
+        orderService.createOrder(OrderFixtures.orderOf(addressIds.get(1), productIds), customer.getUserId());
+        long manyLines = QueryCounter.count();
+
+        assertThat(manyLines - oneLine).isEqualTo(LINES - 1);
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecommerce.services.impl;
+
+import com.ecommerce.dto.DtoOrderResponse;
+import com.ecommerce.entities.order.Order;
+import com.ecommerce.entities.user.Customer;
+import com.ecommerce.entities.user.Seller;
+import com.ecommerce.services.OrderService;
+import com.ecommerce.services.inventory.HotSkuLedger;
+import com.ecommerce.starter.BackendApplication;
+import com.ecommerce.support.OrderFixtures;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cancelling through the single order status update takes the same path as cancelOrder.
+ */
+@SpringBootTest(classes = BackendApplication.class)
+@ActiveProfiles("test")
+@Import(OrderFixtures.class)
+class OrderStatusUpdateTest {
+
+    private static final int STOCK = 10;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private HotSkuLedger hotSkuLedger;
+    @Autowired
+    private OrderFixtures fixtures;
+
+    @Test
+    void cancellingThroughStatusUpdateRestoresStock() {
+        Seller seller = fixtures.createSeller();
+        Long productId = fixtures.createProducts(seller, 1, STOCK).get(0);
+        DtoOrderResponse order = placeOrder(productId);
+        assertThat(fixtures.stockOf(productId)).isEqualTo(STOCK - 1);
+
+        orderService.updateOrderStatus(order.getOrderId(), Order.OrderStatus.PROCESSING, null);
+        DtoOrderResponse cancelled = orderService.updateOrderStatus(order.getOrderId(), Order.OrderStatus.CANCELLED, null);
+
+        assertThat(cancelled.getStatus()).isEqualTo(Order.OrderStatus.CANCELLED);
+        assertThat(fixtures.stockOf(productId)).isEqualTo(STOCK);
+    }
+
+    @Test
+    void cancellingThroughStatusUpdateReturnsHotSkuUnits() {
+        Seller seller = fixtures.createSeller();
+        Long productId = fixtures.createProducts(seller, 1, STOCK).get(0);
+        hotSkuLedger.enable(productId);
+        try {
+            DtoOrderResponse order = placeOrder(productId);
+
+            orderService.updateOrderStatus(order.getOrderId(), Order.OrderStatus.CANCELLED, null);
+        } finally {
+            hotSkuLedger.disable(productId); // Flushes the ledger to the row
+        }
+        assertThat(fixtures.stockOf(productId)).isEqualTo(STOCK);
+    }
+
+    // --- Helper Methods ---
+
+    private DtoOrderResponse placeOrder(Long productId) {
+        Customer customer = fixtures.createCustomer();
+        Long addressId = fixtures.createAddresses(customer, 1).get(0);
+        return orderService.createOrder(OrderFixtures.orderOf(addressId, List.of(productId)), customer.getUserId());
+    }
+}
@@ -0,0 +1,126 @@
+package com.ecommerce.services.impl;
+
+import com.ecommerce.entities.user.Customer;
+import com.ecommerce.entities.user.Seller;
+import com.ecommerce.exceptions.InsufficientStockException;
+import com.ecommerce.services.OrderService;
+import com.ecommerce.services.inventory.HotSkuLedger;
+import com.ecommerce.starter.BackendApplication;
+import com.ecommerce.support.OrderFixtures;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent checkouts of the same products: neither the guarded stock update nor the hot SKU ledger
+ * may sell more than is in stock, and opposite line orders must not deadlock. Throughput of both paths
+ * is measured against MySQL by OrderStockThroughputPerfTest.
+ */
+@SpringBootTest(classes = BackendApplication.class)
+@ActiveProfiles("test")
+@Import(OrderFixtures.class)
+class OrderStockConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 10;
+    private static final int SCARCE_STOCK = 50;
+    private static final int AMPLE_STOCK = THREADS * ORDERS_PER_THREAD;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private HotSkuLedger hotSkuLedger;
+    @Autowired
+    private OrderFixtures fixtures;
+
+    @Test
+    void concurrentCheckoutsNeverOversell() throws Exception {
+        Seller seller = fixtures.createSeller();
+        Long scarce = fixtures.createProducts(seller, 1, SCARCE_STOCK).get(0);
+        Long ample = fixtures.createProducts(seller, 1, AMPLE_STOCK).get(0);
+        Customer customer = fixtures.createCustomer();
+
+        Result result = checkout(customer, i -> i % 2 == 0 ? List.of(scarce, ample) : List.of(ample, scarce));
+
+        assertThat(result.placed()).isEqualTo(SCARCE_STOCK);
+        assertThat(result.rejected()).isEqualTo(THREADS * ORDERS_PER_THREAD - SCARCE_STOCK);
+        assertThat(fixtures.stockOf(scarce)).isZero();
+        assertThat(fixtures.stockOf(ample)).isEqualTo(AMPLE_STOCK - SCARCE_STOCK); // Rejected orders took nothing
+    }
+
+    @Test
+    void hotSkuCheckoutsNeverOversell() throws Exception {
+        Seller seller = fixtures.createSeller();
+        Long scarce = fixtures.createProducts(seller, 1, SCARCE_STOCK).get(0);
+        Customer customer = fixtures.createCustomer();
+        hotSkuLedger.enable(scarce);
+        try {
+            Result result = checkout(customer, i -> List.of(scarce));
+
+            assertThat(result.placed()).isEqualTo(SCARCE_STOCK);
+            assertThat(result.rejected()).isEqualTo(THREADS * ORDERS_PER_THREAD - SCARCE_STOCK);
+        } finally {
+            hotSkuLedger.disable(scarce); // Flushes the units sold
+        }
+        assertThat(fixtures.stockOf(scarce)).isZero();
+    }
+
+    // --- Helper Methods ---
+
+    private Result checkout(Customer customer, LineOrder lines) throws Exception {
+        List<Long> addressIds = fixtures.createAddresses(customer, THREADS * ORDERS_PER_THREAD);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    start.await();
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        Long addressId = addressIds.get(thread * ORDERS_PER_THREAD + i);
+                        try {
+                            orderService.createOrder(OrderFixtures.orderOf(addressId, lines.of(thread + i)), customer.getUserId());
+                            placed.incrementAndGet();
+                        } catch (InsufficientStockException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS); // Any other exception (deadlock, lock timeout) fails the test
+            }
+            return new Result(placed.get(), rejected.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface LineOrder {
+        List<Long> of(int attempt);
+    }
+
+    private record Result(int placed, int rejected) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.ecommerce.services.impl;
+
+import com.ecommerce.entities.user.Customer;
+import com.ecommerce.entities.user.Seller;
+import com.ecommerce.services.OrderService;
+import com.ecommerce.services.inventory.HotSkuLedger;
+import com.ecommerce.starter.BackendApplication;
+import com.ecommerce.support.OrderFixtures;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checkout throughput of one contended product against a real MySQL server: guarded row updates
+ * (every checkout locks the product row) versus the hot SKU ledger (checkouts reserve in memory and
+ * the row is written in batches). Each path gets a warm-up round and is then measured over several
+ * rounds; the median is reported.
+ *
+ * Tagged "perf" and excluded from the default build. Run with {@code mvn -Pperf test} (needs Docker).
+ */
+@Tag("perf")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(classes = BackendApplication.class)
+@ActiveProfiles("test")
+@Import(OrderFixtures.class)
+class OrderStockThroughputPerfTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStockThroughputPerfTest.class);
+
+    private static final int THREADS = 32;
+    private static final int ORDERS_PER_THREAD = 25;
+    private static final int ORDERS = THREADS * ORDERS_PER_THREAD;
+    private static final int MEASURED_ROUNDS = 5;
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void mysql(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.datasource.driver-class-name", MYSQL::getDriverClassName);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> THREADS);
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.MySQLDialect");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> false);
+    }
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private HotSkuLedger hotSkuLedger;
+    @Autowired
+    private OrderFixtures fixtures;
+
+    @Test
+    void rowUpdatesVersusHotSkuLedger() throws Exception {
+        Seller seller = fixtures.createSeller();
+        Customer customer = fixtures.createCustomer();
+
+        long rowUpdates = medianOrdersPerSecond(seller, customer, false);
+        long ledger = medianOrdersPerSecond(seller, customer, true);
+
+        log.info("{} checkouts of one product from {} threads on MySQL, median of {} rounds: "
+                        + "row updates {} orders/s, hot SKU ledger {} orders/s",
+                ORDERS, THREADS, MEASURED_ROUNDS, rowUpdates, ledger);
+    }
+
+    // --- Helper Methods ---
+
+    private long medianOrdersPerSecond(Seller seller, Customer customer, boolean hot) throws Exception {
+        round(seller, customer, hot); // Warm-up
+        List<Long> rates = new ArrayList<>();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            rates.add(round(seller, customer, hot));
+        }
+        rates.sort(null);
+        return rates.get(rates.size() / 2);
+    }
+
+    // Sells the whole stock of a fresh product; returns orders per second
+    private long round(Seller seller, Customer customer, boolean hot) throws Exception {
+        Long productId = fixtures.createProducts(seller, 1, ORDERS).get(0);
+        List<Long> addressIds = fixtures.createAddresses(customer, ORDERS);
+        if (hot) {
+            hotSkuLedger.enable(productId);
+        }
+        long millis;
+        try {
+            millis = checkout(customer, productId, addressIds);
+        } finally {
+            if (hot) {
+                hotSkuLedger.disable(productId); // Flushes the units sold
+            }
+        }
+        assertThat(fixtures.stockOf(productId)).isZero();
+        return ORDERS * 1000L / Math.max(1, millis);
+    }
+
+    private long checkout(Customer customer, Long productId, List<Long> addressIds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    start.await();
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        Long addressId = addressIds.get(thread * ORDERS_PER_THREAD + i);
+                        orderService.createOrder(OrderFixtures.orderOf(addressId, List.of(productId)), customer.getUserId());
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+            return (System.nanoTime() - started) / 1_000_000;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.ecommerce.services.impl;
+
+import com.ecommerce.dto.DtoProduct;
+import com.ecommerce.entities.product.Category;
+import com.ecommerce.entities.product.Product;
+import com.ecommerce.entities.product.ProductAttribute;
+import com.ecommerce.entities.product.ProductImage;
+import com.ecommerce.entities.product.ProductVariant;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.repository.ProductImageRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.ProductVariantRepository;
+import com.ecommerce.services.ProductService;
+import com.ecommerce.services.cache.ProductDetailCache;
+import com.ecommerce.starter.BackendApplication;
+import com.ecommerce.support.QueryCounter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The product detail graph (product, seller, categories, images, variants with their attributes,
+ * key features, specifications) must load in a fixed number of statements, whatever the variant count.
+ */
+@SpringBootTest(classes = BackendApplication.class)
+@ActiveProfiles("test")
+@Import(QueryCounter.Config.class)
+class ProductDetailQueryCountTest {
+
+    private static final int VARIANTS = 30;
+    private static final int ATTRIBUTES_PER_VARIANT = 3;
+
+    // product + seller + categories, images, variants + attributes, key features, specifications
+    private static final long MAX_DETAIL_STATEMENTS = 5;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductDetailCache productDetailCache;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private ProductImageRepository productImageRepository;
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void variantsAndAttributesLoadInOneStatement() {
+        Long productId = createProduct(VARIANTS);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            // As in the detail path, the product is already loaded (ProductVariant.product is eager)
+            productRepository.findById(productId).orElseThrow();
+
+            QueryCounter.reset();
+            List<ProductVariant> variants = productVariantRepository.findWithAttributesByProductId(productId);
+            assertThat(variants).hasSize(VARIANTS);
+            assertThat(variants).allSatisfy(variant ->
+                    assertThat(variant.getAttributes()).hasSize(ATTRIBUTES_PER_VARIANT));
+            assertThat(QueryCounter.count()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void productDetailLoadsInBoundedStatements() {
+        Long productId = createProduct(VARIANTS);
+        productDetailCache.invalidate(productId);
+
+        QueryCounter.reset();
+        DtoProduct detail = productService.getProductById(productId);
+
+        assertThat(detail.getVariants()).hasSize(VARIANTS);
+        assertThat(detail.getVariants()).allSatisfy(variant ->
+                assertThat(variant.getAttributes()).hasSize(ATTRIBUTES_PER_VARIANT));
+        assertThat(detail.getImages()).hasSize(2);
+        assertThat(detail.getCategories()).hasSize(2);
+        assertThat(QueryCounter.count()).isLessThanOrEqualTo(MAX_DETAIL_STATEMENTS);
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithVariants() {
+        Long small = createProduct(1);
+        Long large = createProduct(VARIANTS);
+        productDetailCache.invalidate(small);
+        productDetailCache.invalidate(large);
+
+        QueryCounter.reset();
+        productService.getProductById(small);
+        long smallStatements = QueryCounter.count();
+
+        QueryCounter.reset();
+        productService.getProductById(large);
+        long largeStatements = QueryCounter.count();
+
+        assertThat(largeStatements).isEqualTo(smallStatements);
+    }
+
+    // --- Helper Methods ---
+
+    private Long createProduct(int variantCount) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Product product = new Product();
+            product.setName("Laptop");
+            product.setPrice(new BigDecimal("999.00"));
+            product.setStockQuantity(10);
+            product.getKeyFeatures().add("Backlit keyboard");
+            product.getSpecifications().put("CPU", "8 cores");
+            for (String name : List.of("Computers", "Laptops")) {
+                Category category = new Category();
+                category.setName(name + " " + System.nanoTime());
+                product.getCategories().add(categoryRepository.save(category));
+            }
+            Product saved = productRepository.save(product);
+
+            for (int i = 0; i < 2; i++) {
+                ProductImage image = new ProductImage();
+                image.setProduct(saved);
+                image.setImageUrl("image-" + i + ".jpg");
+                image.setPrimary(i == 0);
+                productImageRepository.save(image);
+            }
+            for (int i = 0; i < variantCount; i++) {
+                ProductVariant variant = new ProductVariant();
+                variant.setProduct(saved);
+                variant.setSku("SKU-" + saved.getProductId() + "-" + i);
+                variant.setPriceAdjustment(BigDecimal.ZERO);
+                variant.setStockQuantity(5);
+                for (int j = 0; j < ATTRIBUTES_PER_VARIANT; j++) {
+                    ProductAttribute attribute = new ProductAttribute();
+                    attribute.setVariant(variant);
+                    attribute.setName("Attribute " + j);
+                    attribute.setValue("Value " + j);
+                    variant.getAttributes().add(attribute);
+                }
+                productVariantRepository.save(variant);
+            }
+            return saved.getProductId();
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.services.impl;
+
+import com.ecommerce.dto.DtoCursorPage;
+import com.ecommerce.dto.DtoProductSummary;
+import com.ecommerce.entities.product.Product;
+import com.ecommerce.entities.user.Seller;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.services.ProductService;
+import com.ecommerce.services.search.ProductFacetIndex;
+import com.ecommerce.services.search.ProductSearchIndex;
+import com.ecommerce.starter.BackendApplication;
+import com.ecommerce.support.OrderFixtures;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A search term with more hits than can be pushed into SQL, combined with other filters, must still
+ * find every matching product, and the list must agree with the facet counts.
+ */
+@SpringBootTest(classes = BackendApplication.class)
+@ActiveProfiles("test")
+@Import(OrderFixtures.class)
+class ProductFilterSearchTest {
+
+    private static final int HITS = 1100;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+    @Autowired
+    private OrderFixtures fixtures;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String term;
+    private Long cheapProductId;
+
+    @BeforeEach
+    void createProducts() {
+        term = randomWord();
+        Seller seller = fixtures.createSeller();
+        List<Long> ids = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Long> created = new ArrayList<>(HITS);
+            for (int i = 0; i < HITS; i++) {
+                Product product = new Product();
+                product.setName("Lamp " + term);
+                // Hits rank by product ID on equal scores, so the first product ranks last
+                product.setPrice(i == 0 ? new BigDecimal("5.00") : new BigDecimal("19.99"));
+                product.setStockQuantity(10);
+                product.setSeller(seller);
+                product.setApproved(true);
+                created.add(productRepository.save(product).getProductId());
+            }
+            return created;
+        });
+        cheapProductId = ids.get(0);
+        productSearchIndex.rebuild();
+        productFacetIndex.rebuild();
+    }
+
+    @Test
+    void filterFindsHitsRankedBeyondTheLimit() {
+        BigDecimal maxPrice = new BigDecimal("10.00");
+
+        Page<DtoProductSummary> page = productService.filterProducts(term, null, null, maxPrice, PageRequest.of(0, 20));
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        assertThat(page.getContent()).extracting(DtoProductSummary::getProductId).containsExactly(cheapProductId);
+        assertThat(productService.getFilterFacets(term, null, null, maxPrice).getTotalCount()).isEqualTo(1);
+
+        DtoCursorPage<DtoProductSummary> seekPage =
+                productService.filterProductsAfter(term, null, null, maxPrice, null, PageRequest.of(0, 20));
+        assertThat(seekPage.getContent()).extracting(DtoProductSummary::getProductId).containsExactly(cheapProductId);
+    }
+
+    @Test
+    void filterCountsEveryHitWhenTheMatchesExceedTheLimit() {
+        BigDecimal maxPrice = new BigDecimal("100.00");
+
+        Page<DtoProductSummary> page = productService.filterProducts(term, null, null, maxPrice, PageRequest.of(0, 20));
+
+        assertThat(page.getTotalElements()).isEqualTo(HITS);
+        assertThat(productService.getFilterFacets(term, null, null, maxPrice).getTotalCount()).isEqualTo(HITS);
+    }
+
+    private static String randomWord() {
+        StringBuilder word = new StringBuilder("zq");
+        for (int i = 0; i < 10; i++) {
+            word.append((char) ('a' + ThreadLocalRandom.current().nextInt(26)));
+        }
+        return word.toString();
+    }
+}
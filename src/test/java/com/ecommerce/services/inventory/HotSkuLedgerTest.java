@@ -0,0 +1,113 @@
+package com.ecommerce.services.inventory;
+
+import com.ecommerce.dto.DtoHotSkuStatus;
+import com.ecommerce.entities.user.Seller;
+import com.ecommerce.exceptions.InsufficientStockException;
+import com.ecommerce.starter.BackendApplication;
+import com.ecommerce.support.OrderFixtures;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Settlement of hot SKU reservations, in particular one that expires before its transaction commits.
+ */
+@SpringBootTest(classes = BackendApplication.class)
+@ActiveProfiles("test")
+@Import(OrderFixtures.class)
+class HotSkuLedgerTest {
+
+    @Autowired
+    private HotSkuLedger hotSkuLedger;
+    @Autowired
+    private OrderFixtures fixtures;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void committedReservationBecomesSold() {
+        Long productId = createHotProduct(3);
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    assertThat(hotSkuLedger.reserve(productId, 2)).isTrue());
+
+            assertThat(statusOf(productId).getAvailable()).isEqualTo(1);
+            assertThat(statusOf(productId).getOpenReservations()).isZero();
+        } finally {
+            hotSkuLedger.disable(productId);
+        }
+        assertThat(fixtures.stockOf(productId)).isEqualTo(1);
+    }
+
+    @Test
+    void expiredReservationWhoseUnitsAreGoneRollsBack() {
+        Long productId = createHotProduct(1);
+        long ttl = (long) ReflectionTestUtils.getField(hotSkuLedger, "reservationTtlMs");
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            assertThatThrownBy(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                ReflectionTestUtils.setField(hotSkuLedger, "reservationTtlMs", -1L);
+                assertThat(hotSkuLedger.reserve(productId, 1)).isTrue();
+                hotSkuLedger.expireReservations(); // Hands the unit back while this transaction is still running
+                ReflectionTestUtils.setField(hotSkuLedger, "reservationTtlMs", ttl);
+
+                requiresNew.executeWithoutResult(other -> assertThat(hotSkuLedger.reserve(productId, 1)).isTrue());
+            })).isInstanceOf(InsufficientStockException.class);
+
+            assertThat(statusOf(productId).getAvailable()).isZero();
+            assertThat(statusOf(productId).getOpenReservations()).isZero();
+        } finally {
+            ReflectionTestUtils.setField(hotSkuLedger, "reservationTtlMs", ttl);
+            hotSkuLedger.disable(productId);
+        }
+        assertThat(fixtures.stockOf(productId)).isZero(); // Sold once, not twice
+    }
+
+    @Test
+    void expiredReservationTakesUnitsAgainOnCommit() {
+        Long productId = createHotProduct(2);
+        long ttl = (long) ReflectionTestUtils.getField(hotSkuLedger, "reservationTtlMs");
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                ReflectionTestUtils.setField(hotSkuLedger, "reservationTtlMs", -1L);
+                assertThat(hotSkuLedger.reserve(productId, 1)).isTrue();
+                hotSkuLedger.expireReservations();
+                ReflectionTestUtils.setField(hotSkuLedger, "reservationTtlMs", ttl);
+            });
+
+            assertThat(statusOf(productId).getAvailable()).isEqualTo(1);
+            assertThat(statusOf(productId).getOpenReservations()).isZero();
+        } finally {
+            ReflectionTestUtils.setField(hotSkuLedger, "reservationTtlMs", ttl);
+            hotSkuLedger.disable(productId);
+        }
+        assertThat(fixtures.stockOf(productId)).isEqualTo(1);
+    }
+
+    // --- Helper Methods ---
+
+    private Long createHotProduct(int stock) {
+        Seller seller = fixtures.createSeller();
+        Long productId = fixtures.createProducts(seller, 1, stock).get(0);
+        hotSkuLedger.enable(productId);
+        return productId;
+    }
+
+    private DtoHotSkuStatus statusOf(Long productId) {
+        return hotSkuLedger.getStatus().stream()
+                .filter(status -> status.getProductId().equals(productId))
+                .findFirst()
+                .orElseThrow();
+    }
+}
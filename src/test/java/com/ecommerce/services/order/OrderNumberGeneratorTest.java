@@ -0,0 +1,129 @@
+package com.ecommerce.services.order;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderNumberGeneratorTest {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderNumberGeneratorTest.class);
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 200_000;
+
+    @Test
+    void idsAreUniqueAndOrderedPerThreadUnderContention() throws Exception {
+        OrderNumberGenerator generator = generator(7L);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit((Callable<long[]>) () -> {
+                    start.await();
+                    long[] ids = new long[IDS_PER_THREAD];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            Set<Long> all = new HashSet<>(THREADS * IDS_PER_THREAD * 2);
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get(60, TimeUnit.SECONDS);
+                for (int i = 0; i < ids.length; i++) {
+                    assertThat(ids[i]).isPositive();
+                    assertThat((ids[i] >>> 12) & 1023).isEqualTo(7L); // Node ID bits
+                    if (i > 0) {
+                        assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                    }
+                    all.add(ids[i]);
+                }
+            }
+            long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+
+            assertThat(all).hasSize(THREADS * IDS_PER_THREAD);
+            log.info("{} IDs from {} threads in {} ms ({} IDs/ms)", all.size(), THREADS, millis, all.size() / millis);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void restartNeverReissuesBorrowedIds() {
+        OrderNumberGenerator first = generator(3L);
+        long last = 0;
+        for (int i = 0; i < 1_000_000; i++) { // Faster than 4096 per millisecond, so IDs borrow ahead of the clock
+            last = first.nextId();
+        }
+
+        OrderNumberGenerator restarted = generator(3L);
+
+        assertThat(restarted.nextId()).isGreaterThan(last);
+    }
+
+    @Test
+    void orderNumbersSortLikeTheirIds() {
+        OrderNumberGenerator generator = generator(1L);
+        String previous = generator.next();
+        for (int i = 0; i < 10_000; i++) {
+            String next = generator.next();
+            assertThat(next).startsWith("ORD-").hasSize(17);
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void missingNodeIdFailsStartupInProduction() {
+        MockEnvironment production = new MockEnvironment();
+        production.setActiveProfiles(OrderNumberGenerator.PRODUCTION_PROFILE);
+
+        assertThatThrownBy(() -> generator(null, production))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("order.number.node-id");
+    }
+
+    @Test
+    void missingNodeIdFallsBackToZeroOutsideProduction() {
+        OrderNumberGenerator generator = generator(null);
+
+        assertThat(generator.nextId() >>> 12 & 1023).isZero();
+    }
+
+    @Test
+    void outOfRangeNodeIdFailsStartup() {
+        assertThatThrownBy(() -> generator(1024L)).isInstanceOf(IllegalStateException.class);
+    }
+
+    // --- Helper Methods ---
+
+    private static OrderNumberGenerator generator(Long nodeId) {
+        return generator(nodeId, new MockEnvironment());
+    }
+
+    private static OrderNumberGenerator generator(Long nodeId, MockEnvironment environment) {
+        OrderNumberGenerator generator = new OrderNumberGenerator(environment);
+        ReflectionTestUtils.setField(generator, "nodeId", nodeId);
+        generator.init();
+        return generator;
+    }
+}
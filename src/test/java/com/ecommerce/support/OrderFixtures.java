@@ -0,0 +1,126 @@
+package com.ecommerce.support;
+
+import com.ecommerce.dto.DtoOrderItemRequest;
+import com.ecommerce.dto.DtoOrderRequest;
+import com.ecommerce.entities.product.Product;
+import com.ecommerce.entities.user.Address;
+import com.ecommerce.entities.user.Customer;
+import com.ecommerce.entities.user.Seller;
+import com.ecommerce.entities.user.User;
+import com.ecommerce.repository.AddressRepository;
+import com.ecommerce.repository.CustomerRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.SellerRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates the rows an order needs: a seller with products, and a customer with an address.
+ * Every call commits its own transaction and uses unique names, so tests can share the database.
+ */
+@TestComponent
+@RequiredArgsConstructor
+public class OrderFixtures {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final SellerRepository sellerRepository;
+    private final CustomerRepository customerRepository;
+    private final AddressRepository addressRepository;
+    private final ProductRepository productRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    public Seller createSeller() {
+        return transaction().execute(status -> {
+            Seller seller = new Seller();
+            fillUser(seller, "seller", User.UserRole.SELLER);
+            seller.setCompanyName("Test Seller");
+            return sellerRepository.save(seller);
+        });
+    }
+
+    public Customer createCustomer() {
+        return transaction().execute(status -> {
+            Customer customer = new Customer();
+            fillUser(customer, "customer", User.UserRole.CUSTOMER);
+            return customerRepository.save(customer);
+        });
+    }
+
+    /**
+     * Creates addresses of a customer. Order maps its addresses one-to-one, so every order needs one.
+     *
+     * @return The address IDs.
+     */
+    public List<Long> createAddresses(Customer customer, int count) {
+        return transaction().execute(status -> {
+            List<Long> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Address address = new Address();
+                address.setUser(customerRepository.getReferenceById(customer.getUserId()));
+                address.setStreet(i + " Test Street");
+                address.setCity("Istanbul");
+                address.setPostalCode("34000");
+                address.setCountry("TR");
+                address.setShipping(true);
+                address.setBilling(true);
+                ids.add(addressRepository.save(address).getAddressId());
+            }
+            return ids;
+        });
+    }
+
+    public List<Long> createProducts(Seller seller, int count, int stockQuantity) {
+        return transaction().execute(status -> {
+            List<Long> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Product product = new Product();
+                product.setName("Product " + SEQUENCE.incrementAndGet());
+                product.setPrice(new BigDecimal("19.99"));
+                product.setStockQuantity(stockQuantity);
+                product.setSeller(seller);
+                product.setApproved(true);
+                ids.add(productRepository.save(product).getProductId());
+            }
+            return ids;
+        });
+    }
+
+    public int stockOf(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStockQuantity();
+    }
+
+    /**
+     * @return An order request for the given products, one unit of each, in the given order, shipped to
+     *         and billed at the given address.
+     */
+    public static DtoOrderRequest orderOf(Long addressId, List<Long> productIds) {
+        DtoOrderRequest request = new DtoOrderRequest();
+        request.setShippingAddressId(addressId);
+        request.setBillingAddressId(addressId);
+        request.setItems(productIds.stream().map(id -> new DtoOrderItemRequest(id, 1)).toList());
+        return request;
+    }
+
+    // --- Helper Methods ---
+
+    private TransactionTemplate transaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private static void fillUser(User user, String kind, User.UserRole role) {
+        long n = SEQUENCE.incrementAndGet();
+        user.setUsername(kind + n);
+        user.setEmail(kind + n + "@example.com");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1xQbOA1o2jF4lT3qUhv2G1e");
+        user.setRole(role);
+    }
+}
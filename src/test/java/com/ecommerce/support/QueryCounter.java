@@ -0,0 +1,106 @@
+package com.ecommerce.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+/**
+ * Counts JDBC round trips (execute, executeQuery, executeUpdate, executeBatch) made by the current
+ * thread, through Hibernate and JdbcTemplate alike. A JDBC batch counts as one round trip, as it does
+ * with rewriteBatchedStatements on MySQL. Counting per thread keeps the scheduled jobs running in the
+ * background out of the numbers.
+ *
+ * Import {@link Config} into the test to wrap the application's DataSource.
+ */
+public final class QueryCounter {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private QueryCounter() {
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * @return Round trips made by the current thread since the last {@link #reset()}.
+     */
+    public static long count() {
+        return COUNT.get()[0];
+    }
+
+    @TestConfiguration
+    public static class Config {
+        @Bean
+        static BeanPostProcessor queryCountingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    // --- Helper Methods ---
+
+    private static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (method, result) ->
+                result instanceof Connection connection ? proxy(Connection.class, connection, QueryCounter::wrapStatement) : result);
+    }
+
+    private static Object wrapStatement(java.lang.reflect.Method method, Object result) {
+        if (result instanceof CallableStatement statement) {
+            return proxy(CallableStatement.class, statement, QueryCounter::countExecution);
+        }
+        if (result instanceof PreparedStatement statement) {
+            return proxy(PreparedStatement.class, statement, QueryCounter::countExecution);
+        }
+        if (result instanceof Statement statement) {
+            return proxy(Statement.class, statement, QueryCounter::countExecution);
+        }
+        return result;
+    }
+
+    private static Object countExecution(java.lang.reflect.Method method, Object result) {
+        if (EXECUTE_METHODS.contains(method.getName())) {
+            COUNT.get()[0]++;
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, ResultMapper mapper) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("unwrap") && args != null && args[0] instanceof Class<?> wanted && wanted.isInstance(target)) {
+                return target;
+            }
+            try {
+                return mapper.map(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(QueryCounter.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    @FunctionalInterface
+    private interface ResultMapper {
+        Object map(java.lang.reflect.Method method, Object result);
+    }
+}